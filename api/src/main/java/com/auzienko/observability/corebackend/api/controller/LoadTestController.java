@@ -1,16 +1,37 @@
 package com.auzienko.observability.corebackend.api.controller;
 
+import com.auzienko.observability.corebackend.api.mapper.LoadTestApiMapper;
+import com.auzienko.observability.corebackend.domain.model.CapacitySearch;
 import com.auzienko.observability.corebackend.domain.model.LoadTestScenario;
+import com.auzienko.observability.corebackend.loadtester.model.LoadTestRun;
+import com.auzienko.observability.corebackend.loadtester.model.TimeWindowMetrics;
+import com.auzienko.observability.corebackend.loadtester.model.consumer.TimeSeriesListener;
+import com.auzienko.observability.corebackend.loadtester.service.DetailedTestService;
 import com.auzienko.observability.corebackend.loadtester.service.LoadTestService;
+import com.auzienko.observability.corebackend.loadtester.spool.ResultSpoolReader;
+import com.auzienko.observability.corebackend.publicapi.dto.CapacitySearchResultResponse;
+import com.auzienko.observability.corebackend.publicapi.dto.LoadTestRunResponse;
+import com.auzienko.observability.corebackend.publicapi.dto.SpooledTestResponse;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
@@ -19,15 +40,164 @@ import java.util.UUID;
 public class LoadTestController {
 
     private final LoadTestService loadTester;
+    private final DetailedTestService detailedTestService;
+    private final LoadTestApiMapper mapper;
 
     @PostMapping
-    public ResponseEntity<Void> startLoadTest(
+    public ResponseEntity<LoadTestRunResponse> startLoadTest(
             @PathVariable UUID serviceId,
             @Valid @RequestBody LoadTestScenario scenario) {
 
-        loadTester.executeAndSave(serviceId, scenario);
+        LoadTestRun run = loadTester.start(serviceId, scenario);
+
+        return ResponseEntity.accepted().body(mapper.toResponse(run));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<LoadTestRunResponse>> getLoadTests(@PathVariable UUID serviceId) {
+        List<LoadTestRunResponse> responses = loadTester.findRuns(serviceId).stream()
+                .map(mapper::toResponse)
+                .toList();
+        return ResponseEntity.ok(responses);
+    }
+
+    @GetMapping("/{runId}")
+    public ResponseEntity<LoadTestRunResponse> getLoadTest(
+            @PathVariable UUID serviceId,
+            @PathVariable UUID runId) {
+
+        return findRun(serviceId, runId)
+                .map(mapper::toResponse)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Stops a running test. Its partial results are saved as a cancelled load test result.
+     * Returns 409 if the run has already finished.
+     */
+    @PostMapping("/{runId}/cancel")
+    public ResponseEntity<LoadTestRunResponse> cancelLoadTest(
+            @PathVariable UUID serviceId,
+            @PathVariable UUID runId) {
+
+        Optional<LoadTestRun> run = findRun(serviceId, runId);
+        if (run.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!loadTester.cancel(runId)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(mapper.toResponse(run.get()));
+        }
+        return ResponseEntity.accepted().body(mapper.toResponse(run.get()));
+    }
+
+    /**
+     * Starts a capacity search; the result is saved when it ends and listed by {@code GET /capacity}.
+     */
+    @PostMapping("/capacity")
+    public ResponseEntity<Void> startCapacitySearch(
+            @PathVariable UUID serviceId,
+            @Valid @RequestBody CapacitySearch search) {
+
+        loadTester.searchCapacity(serviceId, search);
 
         return ResponseEntity.accepted().build();
     }
 
+    @GetMapping("/capacity")
+    public ResponseEntity<List<CapacitySearchResultResponse>> getCapacityResults(@PathVariable UUID serviceId) {
+        List<CapacitySearchResultResponse> responses = loadTester.findCapacityResults(serviceId).stream()
+                .map(mapper::toResponse)
+                .toList();
+        return ResponseEntity.ok(responses);
+    }
+
+    /**
+     * Starts a test that writes every result to a spool file instead of aggregating them in
+     * memory. The results can be downloaded from {@code GET /spooled/{spoolId}} once it has finished.
+     */
+    @PostMapping("/spooled")
+    public ResponseEntity<SpooledTestResponse> startSpooledTest(
+            @PathVariable UUID serviceId,
+            @Valid @RequestBody LoadTestScenario scenario) {
+
+        DetailedTestService.SpooledRun run = detailedTestService.executeSpooled(serviceId, scenario);
+
+        return ResponseEntity.accepted().body(mapper.toResponse(serviceId, run));
+    }
+
+    /**
+     * Every result of a finished spooled test as CSV. Returns 404 while the test is still
+     * running, if it failed, or if there is no such spool.
+     */
+    @GetMapping("/spooled/{spoolId}")
+    public void downloadSpool(
+            @PathVariable UUID serviceId,
+            @PathVariable UUID spoolId,
+            HttpServletResponse response) throws IOException {
+
+        Optional<ResultSpoolReader> spool = detailedTestService.openSpool(serviceId, spoolId);
+        if (spool.isEmpty()) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        // Written synchronously: a large spool would outlast the async request timeout
+        response.setContentType("text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + spoolId + ".csv\"");
+        try (ResultSpoolReader reader = spool.get()) {
+            reader.exportCsv(response.getWriter());
+        }
+    }
+
+    /**
+     * Streams the per-second metrics of a run as server-sent {@code window} events: the windows
+     * closed so far, then each new one as it closes. The stream completes when the run ends.
+     */
+    @GetMapping(path = "/{runId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamLoadTest(
+            @PathVariable UUID serviceId,
+            @PathVariable UUID runId) {
+
+        return findRun(serviceId, runId)
+                .map(this::stream)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private Optional<LoadTestRun> findRun(UUID serviceId, UUID runId) {
+        return loadTester.findRun(runId)
+                .filter(run -> run.getServiceId().equals(serviceId));
+    }
+
+    private SseEmitter stream(LoadTestRun run) {
+        // No timeout: the emitter lives as long as the run
+        SseEmitter emitter = new SseEmitter(0L);
+
+        TimeSeriesListener listener = new TimeSeriesListener() {
+            @Override
+            public void onWindow(TimeWindowMetrics window) {
+                try {
+                    emitter.send(SseEmitter.event()
+                            .name("window")
+                            .data(mapper.toResponse(window), MediaType.APPLICATION_JSON));
+                } catch (IOException e) {
+                    // Client went away; the time series drops the failing listener
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public void onComplete() {
+                emitter.complete();
+            }
+        };
+
+        emitter.onCompletion(() -> run.getTimeSeries().unsubscribe(listener));
+        emitter.onError(error -> run.getTimeSeries().unsubscribe(listener));
+        run.getTimeSeries().subscribe(listener);
+        return emitter;
+    }
+
 }
@@ -0,0 +1,37 @@
+package com.auzienko.observability.corebackend.api.mapper;
+
+import com.auzienko.observability.corebackend.domain.model.CapacityProbe;
+import com.auzienko.observability.corebackend.domain.model.CapacitySearchResult;
+import com.auzienko.observability.corebackend.loadtester.model.LoadTestRun;
+import com.auzienko.observability.corebackend.loadtester.model.TimeWindowMetrics;
+import com.auzienko.observability.corebackend.loadtester.service.DetailedTestService;
+import com.auzienko.observability.corebackend.publicapi.dto.CapacitySearchResultResponse;
+import com.auzienko.observability.corebackend.publicapi.dto.LoadTestRunResponse;
+import com.auzienko.observability.corebackend.publicapi.dto.SpooledTestResponse;
+import com.auzienko.observability.corebackend.publicapi.dto.TimeWindowResponse;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.UUID;
+
+@Mapper(componentModel = "spring")
+public interface LoadTestApiMapper {
+
+    LoadTestRunResponse toResponse(LoadTestRun run);
+
+    @Mapping(target = "requestsPerSecond", source = "requests")
+    @Mapping(target = "avgResponseTimeMs", source = "latency.avgMs")
+    @Mapping(target = "p50ResponseTimeMs", source = "latency.p50Ms")
+    @Mapping(target = "p95ResponseTimeMs", source = "latency.p95Ms")
+    @Mapping(target = "p99ResponseTimeMs", source = "latency.p99Ms")
+    @Mapping(target = "maxResponseTimeMs", source = "latency.maxMs")
+    TimeWindowResponse toResponse(TimeWindowMetrics window);
+
+    CapacitySearchResultResponse toResponse(CapacitySearchResult result);
+
+    CapacitySearchResultResponse.Probe toResponse(CapacityProbe probe);
+
+    @Mapping(target = "spoolId", source = "run.spoolId")
+    SpooledTestResponse toResponse(UUID serviceId, DetailedTestService.SpooledRun run);
+
+}
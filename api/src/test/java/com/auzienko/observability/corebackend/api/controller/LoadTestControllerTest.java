@@ -1,27 +1,61 @@
 package com.auzienko.observability.corebackend.api.controller;
 
+import com.auzienko.observability.corebackend.api.mapper.LoadTestApiMapper;
+import com.auzienko.observability.corebackend.domain.model.CapacitySearch;
+import com.auzienko.observability.corebackend.domain.model.CapacitySearchResult;
+import com.auzienko.observability.corebackend.domain.model.ExecutionMode;
+import com.auzienko.observability.corebackend.domain.model.LoadStage;
 import com.auzienko.observability.corebackend.domain.model.LoadTestScenario;
+import com.auzienko.observability.corebackend.domain.model.LoadThreshold;
+import com.auzienko.observability.corebackend.domain.model.ThresholdMetric;
+import com.auzienko.observability.corebackend.domain.model.TransportType;
+import com.auzienko.observability.corebackend.loadtester.model.LoadTestRun;
+import com.auzienko.observability.corebackend.loadtester.model.LoadTestRunState;
+import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
+import com.auzienko.observability.corebackend.loadtester.model.TimeWindowMetrics;
+import com.auzienko.observability.corebackend.loadtester.model.consumer.MetricsConsumer;
+import com.auzienko.observability.corebackend.loadtester.model.consumer.TimeSeriesConsumer;
+import com.auzienko.observability.corebackend.loadtester.service.DetailedTestService;
 import com.auzienko.observability.corebackend.loadtester.service.LoadTestService;
+import com.auzienko.observability.corebackend.loadtester.spool.ResultSpoolReader;
+import com.auzienko.observability.corebackend.loadtester.spool.ResultSpoolWriter;
+import com.auzienko.observability.corebackend.publicapi.dto.CapacitySearchResultResponse;
 import com.auzienko.observability.corebackend.publicapi.dto.LoadTestRequest;
+import com.auzienko.observability.corebackend.publicapi.dto.LoadTestRunResponse;
+import com.auzienko.observability.corebackend.publicapi.dto.SpooledTestResponse;
+import com.auzienko.observability.corebackend.publicapi.dto.TimeWindowResponse;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +68,15 @@ class LoadTestControllerTest {
     @Mock
     private LoadTestService loadTester;
 
+    @Mock
+    private DetailedTestService detailedTestService;
+
+    @Mock
+    private LoadTestApiMapper mapper;
+
+    @TempDir
+    Path spoolDirectory;
+
     @InjectMocks
     private LoadTestController loadTestController;
 
@@ -52,14 +95,332 @@ class LoadTestControllerTest {
         request.setVirtualUsers(10);
         request.setDurationSeconds(30);
 
-        given(loadTester.executeAndSave(any(UUID.class), any(LoadTestScenario.class)))
-                .willReturn(CompletableFuture.completedFuture(null));
+        LoadTestRun run = new LoadTestRun(UUID.randomUUID(), serviceId, Instant.now(), new MetricsConsumer(), new TimeSeriesConsumer());
+        LoadTestRunResponse response = new LoadTestRunResponse();
+        response.setRunId(run.getRunId());
+        response.setServiceId(serviceId);
+
+        given(loadTester.start(any(UUID.class), any(LoadTestScenario.class))).willReturn(run);
+        given(mapper.toResponse(run)).willReturn(response);
 
         // ACT & ASSERT
         mockMvc.perform(post("/api/services/{serviceId}/load-test", serviceId)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.runId").value(run.getRunId().toString()));
+    }
+
+    @Test
+    @DisplayName("POST /api/services/{id}/load-test should return 400 Bad Request for more blocking virtual users than allowed")
+    void shouldRejectTooManyBlockingVirtualUsers() throws Exception {
+        // ARRANGE
+        LoadTestScenario scenario = new LoadTestScenario()
+                .setVirtualUsers(LoadTestScenario.MAX_BLOCKING_VIRTUAL_USERS + 1)
+                .setDurationSeconds(30)
+                .setTransport(TransportType.BLOCKING);
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/services/{serviceId}/load-test", UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(scenario)))
+                .andExpect(status().isBadRequest());
+        then(loadTester).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("POST /api/services/{id}/load-test should apply the virtual user limit to stage targets")
+    void shouldRejectStageAboveVirtualUserLimit() throws Exception {
+        // ARRANGE
+        LoadTestScenario scenario = new LoadTestScenario()
+                .setTransport(TransportType.ASYNC)
+                .setStages(List.of(new LoadStage()
+                        .setDurationSeconds(30)
+                        .setTargetVirtualUsers(LoadTestScenario.MAX_ASYNC_VIRTUAL_USERS + 1)));
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/services/{serviceId}/load-test", UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(scenario)))
+                .andExpect(status().isBadRequest());
+        then(loadTester).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("POST /api/services/{id}/load-test should return 400 Bad Request for a staged open-model run without in-flight slots")
+    void shouldRejectZeroMaxInFlight() throws Exception {
+        // ARRANGE
+        LoadTestScenario scenario = new LoadTestScenario()
+                .setExecutionMode(ExecutionMode.CONSTANT_ARRIVAL_RATE)
+                .setMaxInFlight(0)
+                .setStages(List.of(new LoadStage().setDurationSeconds(30).setTargetIterationsPerSecond(10.0)));
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/services/{serviceId}/load-test", UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(scenario)))
+                .andExpect(status().isBadRequest());
+        then(loadTester).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("POST /api/services/{id}/load-test should return 400 Bad Request for a stage without a duration")
+    void shouldRejectStageWithoutDuration() throws Exception {
+        // ARRANGE
+        LoadTestScenario scenario = new LoadTestScenario()
+                .setStages(List.of(new LoadStage().setTargetVirtualUsers(10)));
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/services/{serviceId}/load-test", UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(scenario)))
+                .andExpect(status().isBadRequest());
+        then(loadTester).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("POST /api/services/{id}/load-test should return 400 Bad Request for a threshold without a metric")
+    void shouldRejectThresholdWithoutMetric() throws Exception {
+        // ARRANGE
+        LoadTestScenario scenario = new LoadTestScenario()
+                .setVirtualUsers(10)
+                .setDurationSeconds(30)
+                .setThresholds(List.of(new LoadThreshold().setMaxValue(500.0)));
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/services/{serviceId}/load-test", UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(scenario)))
+                .andExpect(status().isBadRequest());
+        then(loadTester).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("POST /api/services/{id}/load-test should return 400 Bad Request for a negative threshold maxValue")
+    void shouldRejectNegativeThresholdMaxValue() throws Exception {
+        // ARRANGE
+        LoadTestScenario scenario = new LoadTestScenario()
+                .setVirtualUsers(10)
+                .setDurationSeconds(30)
+                .setThresholds(List.of(new LoadThreshold().setMetric(ThresholdMetric.P95_RESPONSE_TIME_MS).setMaxValue(-1.0)));
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/services/{serviceId}/load-test", UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(scenario)))
+                .andExpect(status().isBadRequest());
+        then(loadTester).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("GET /api/services/{id}/load-test/{runId}/stream should stream closed windows as server-sent events")
+    void shouldStreamRunWindows() throws Exception {
+        // ARRANGE
+        UUID serviceId = UUID.randomUUID();
+        TimeSeriesConsumer timeSeries = new TimeSeriesConsumer();
+        timeSeries.accept(new RawRequestResult());
+        timeSeries.complete();
+        LoadTestRun run = new LoadTestRun(UUID.randomUUID(), serviceId, Instant.now(), new MetricsConsumer(), timeSeries);
+
+        TimeWindowResponse window = new TimeWindowResponse();
+        window.setRequestsPerSecond(1);
+
+        given(loadTester.findRun(run.getRunId())).willReturn(Optional.of(run));
+        given(mapper.toResponse(any(TimeWindowMetrics.class))).willReturn(window);
+
+        // ACT
+        MvcResult result = mockMvc.perform(get("/api/services/{serviceId}/load-test/{runId}/stream",
+                        serviceId, run.getRunId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // ASSERT
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("event:window")))
+                .andExpect(content().string(containsString("\"requestsPerSecond\":1")));
+    }
+
+    @Test
+    @DisplayName("GET /api/services/{id}/load-test/{runId}/stream should return 404 for a run of another service")
+    void shouldReturnNotFoundForUnknownRun() throws Exception {
+        // ARRANGE
+        LoadTestRun run = new LoadTestRun(UUID.randomUUID(), UUID.randomUUID(), Instant.now(), new MetricsConsumer(), new TimeSeriesConsumer());
+        given(loadTester.findRun(run.getRunId())).willReturn(Optional.of(run));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/services/{serviceId}/load-test/{runId}/stream",
+                        UUID.randomUUID(), run.getRunId()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("POST /api/services/{id}/load-test/{runId}/cancel should cancel a running test and return 202 Accepted")
+    void shouldCancelRunningLoadTest() throws Exception {
+        // ARRANGE
+        UUID serviceId = UUID.randomUUID();
+        LoadTestRun run = new LoadTestRun(UUID.randomUUID(), serviceId, Instant.now(),
+                new MetricsConsumer(), new TimeSeriesConsumer());
+        LoadTestRunResponse response = new LoadTestRunResponse();
+        response.setRunId(run.getRunId());
+
+        given(loadTester.findRun(run.getRunId())).willReturn(Optional.of(run));
+        given(loadTester.cancel(run.getRunId())).willReturn(true);
+        given(mapper.toResponse(run)).willReturn(response);
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/services/{serviceId}/load-test/{runId}/cancel", serviceId, run.getRunId()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.runId").value(run.getRunId().toString()));
+    }
+
+    @Test
+    @DisplayName("POST /api/services/{id}/load-test/{runId}/cancel should return 409 Conflict for a finished run")
+    void shouldNotCancelFinishedLoadTest() throws Exception {
+        // ARRANGE
+        UUID serviceId = UUID.randomUUID();
+        LoadTestRun run = new LoadTestRun(UUID.randomUUID(), serviceId, Instant.now(),
+                new MetricsConsumer(), new TimeSeriesConsumer());
+        run.finish(LoadTestRunState.COMPLETED, UUID.randomUUID());
+
+        given(loadTester.findRun(run.getRunId())).willReturn(Optional.of(run));
+        given(loadTester.cancel(run.getRunId())).willReturn(false);
+        given(mapper.toResponse(run)).willReturn(new LoadTestRunResponse());
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/services/{serviceId}/load-test/{runId}/cancel", serviceId, run.getRunId()))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("POST /api/services/{id}/load-test/capacity should start a search and return 202 Accepted")
+    void shouldStartCapacitySearch() throws Exception {
+        // ARRANGE
+        UUID serviceId = UUID.randomUUID();
+        CapacitySearch search = new CapacitySearch()
+                .setScenario(new LoadTestScenario().setMaxInFlight(100))
+                .setMaxP99ResponseTimeMs(500L)
+                .setMaxErrorRatePercent(1.0);
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/services/{serviceId}/load-test/capacity", serviceId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(search)))
                 .andExpect(status().isAccepted());
+        then(loadTester).should().searchCapacity(serviceId, search);
+    }
+
+    @Test
+    @DisplayName("POST /api/services/{id}/load-test/capacity should return 400 Bad Request without a p99 limit")
+    void shouldRejectCapacitySearchWithoutP99Limit() throws Exception {
+        // ARRANGE
+        CapacitySearch search = new CapacitySearch()
+                .setScenario(new LoadTestScenario())
+                .setMaxErrorRatePercent(1.0)
+                .setGrowthFactor(2.0);
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/services/{serviceId}/load-test/capacity", UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(search)))
+                .andExpect(status().isBadRequest());
+        then(loadTester).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("POST /api/services/{id}/load-test/capacity should return 400 Bad Request for a growth factor of 1 or less")
+    void shouldRejectCapacitySearchWithoutGrowth() throws Exception {
+        // ARRANGE
+        CapacitySearch search = new CapacitySearch()
+                .setScenario(new LoadTestScenario())
+                .setMaxP99ResponseTimeMs(500L)
+                .setMaxErrorRatePercent(1.0)
+                .setGrowthFactor(1.0);
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/services/{serviceId}/load-test/capacity", UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(search)))
+                .andExpect(status().isBadRequest());
+        then(loadTester).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("GET /api/services/{id}/load-test/capacity should return the capacity search results of the service")
+    void shouldReturnCapacityResults() throws Exception {
+        // ARRANGE
+        UUID serviceId = UUID.randomUUID();
+        CapacitySearchResult result = new CapacitySearchResult();
+        result.setServiceId(serviceId);
+        CapacitySearchResultResponse response = new CapacitySearchResultResponse();
+        response.setMaxIterationsPerSecond(250.0);
+
+        given(loadTester.findCapacityResults(serviceId)).willReturn(List.of(result));
+        given(mapper.toResponse(result)).willReturn(response);
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/services/{serviceId}/load-test/capacity", serviceId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].maxIterationsPerSecond").value(250.0));
+    }
+
+    @Test
+    @DisplayName("POST /api/services/{id}/load-test/spooled should start a spooled test and return 202 Accepted")
+    void shouldStartSpooledTest() throws Exception {
+        // ARRANGE
+        UUID serviceId = UUID.randomUUID();
+        DetailedTestService.SpooledRun run = new DetailedTestService.SpooledRun(UUID.randomUUID(), new CompletableFuture<>());
+        SpooledTestResponse response = new SpooledTestResponse();
+        response.setSpoolId(run.spoolId());
+        response.setServiceId(serviceId);
+
+        given(detailedTestService.executeSpooled(any(UUID.class), any(LoadTestScenario.class))).willReturn(run);
+        given(mapper.toResponse(serviceId, run)).willReturn(response);
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/services/{serviceId}/load-test/spooled", serviceId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"virtualUsers\": 10, \"durationSeconds\": 30}"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.spoolId").value(run.spoolId().toString()));
+    }
+
+    @Test
+    @DisplayName("GET /api/services/{id}/load-test/spooled/{spoolId} should download a finished spool as CSV")
+    void shouldDownloadSpoolAsCsv() throws Exception {
+        // ARRANGE
+        UUID serviceId = UUID.randomUUID();
+        UUID spoolId = UUID.randomUUID();
+        Path spoolFile = spoolDirectory.resolve(spoolId + ".spool");
+        try (ResultSpoolWriter writer = new ResultSpoolWriter(spoolFile)) {
+            RawRequestResult result = new RawRequestResult();
+            result.setStatusCode(200);
+            result.setSuccess(true);
+            result.setStepName("health");
+            writer.accept(result);
+        }
+
+        given(detailedTestService.openSpool(serviceId, spoolId)).willReturn(Optional.of(new ResultSpoolReader(spoolFile)));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/services/{serviceId}/load-test/spooled/{spoolId}", serviceId, spoolId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string(containsString("stepName,statusCode")))
+                .andExpect(content().string(containsString(",health,200,true,")));
+    }
+
+    @Test
+    @DisplayName("GET /api/services/{id}/load-test/spooled/{spoolId} should return 404 while the spool is not available")
+    void shouldReturnNotFoundForUnavailableSpool() throws Exception {
+        // ARRANGE
+        UUID serviceId = UUID.randomUUID();
+        UUID spoolId = UUID.randomUUID();
+        given(detailedTestService.openSpool(serviceId, spoolId)).willReturn(Optional.empty());
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/services/{serviceId}/load-test/spooled/{spoolId}", serviceId, spoolId))
+                .andExpect(status().isNotFound());
     }
 
 }
@@ -0,0 +1,67 @@
+package com.auzienko.observability.corebackend.app.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.http2.config.H2Config;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Non-blocking client for ASYNC load tests.
+ * <p>
+ * Over HTTP/1.1 every in-flight request holds its own connection, so the pool is sized for
+ * tens of thousands of concurrent users against a single route. HTTP/2 targets multiplex up
+ * to {@link #MAX_CONCURRENT_STREAMS} requests per connection.
+ */
+@Configuration
+public class AsyncHttpClientConfig {
+
+    private static final int MAX_CONNECTIONS = 20_000;
+    private static final int MAX_CONCURRENT_STREAMS = 100;
+
+    @Bean(name = "loadTestAsyncHttpClient")
+    public CloseableHttpAsyncClient loadTestAsyncHttpClient(
+            @Qualifier("loadTestAsyncConnectionManager") PoolingAsyncClientConnectionManager connectionManager) {
+        CloseableHttpAsyncClient httpClient = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setIOReactorConfig(createIOReactorConfig())
+                .setH2Config(H2Config.custom()
+                        .setMaxConcurrentStreams(MAX_CONCURRENT_STREAMS)
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(Timeout.ofMilliseconds(10000))
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(3000))
+                        .build())
+                .build();
+
+        httpClient.start();
+        return httpClient;
+    }
+
+    @Bean(name = "loadTestAsyncConnectionManager")
+    public PoolingAsyncClientConnectionManager loadTestAsyncConnectionManager() {
+        return PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(MAX_CONNECTIONS)
+                .setMaxConnPerRoute(MAX_CONNECTIONS)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(5000))
+                        .build())
+                .build();
+    }
+
+    private IOReactorConfig createIOReactorConfig() {
+        return IOReactorConfig.custom()
+                .setIoThreadCount(Runtime.getRuntime().availableProcessors())
+                .setSoKeepAlive(true)
+                .setTcpNoDelay(true)
+                .build();
+    }
+
+}
@@ -1,10 +1,16 @@
 package com.auzienko.observability.corebackend.app.config;
 
+import com.auzienko.observability.corebackend.loadtester.transport.TimedConnectionManager;
+import com.auzienko.observability.corebackend.loadtester.transport.TimedTlsSocketStrategy;
 import org.apache.hc.client5.http.classic.HttpClient;
 import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.ssl.DefaultClientTlsStrategy;
 import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
@@ -14,22 +20,28 @@ import org.springframework.web.client.RestTemplate;
 public class RestTemplateConfig {
 
     @Bean(name = "loadTestRestTemplate")
-    public RestTemplate loadTestRestTemplate() {
-        PoolingHttpClientConnectionManager connectionManager = createConnectionManager();
+    public RestTemplate loadTestRestTemplate(
+            @Qualifier("loadTestConnectionManager") HttpClientConnectionManager connectionManager) {
         HttpClient httpClient = createHttpClient(connectionManager);
         HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
 
         return new RestTemplate(factory);
     }
 
-    private PoolingHttpClientConnectionManager createConnectionManager() {
-        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
-        connectionManager.setMaxTotal(500);
-        connectionManager.setDefaultMaxPerRoute(100);
-        return connectionManager;
+    /**
+     * Pool instrumented to report pool wait, connect and TLS times of each load test request.
+     */
+    @Bean(name = "loadTestConnectionManager")
+    public TimedConnectionManager loadTestConnectionManager() {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setTlsSocketStrategy(new TimedTlsSocketStrategy(DefaultClientTlsStrategy.createDefault()))
+                .setMaxConnTotal(500)
+                .setMaxConnPerRoute(100)
+                .build();
+        return new TimedConnectionManager(connectionManager);
     }
 
-    private HttpClient createHttpClient(PoolingHttpClientConnectionManager connectionManager) {
+    private HttpClient createHttpClient(HttpClientConnectionManager connectionManager) {
         RequestConfig requestConfig = RequestConfig.custom()
                 .setConnectTimeout(Timeout.ofMilliseconds(5000))
                 .setResponseTimeout(Timeout.ofMilliseconds(10000))
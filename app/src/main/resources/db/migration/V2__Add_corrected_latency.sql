@@ -0,0 +1,3 @@
+ALTER TABLE load_test_results
+    ADD COLUMN corrected_p95_response_time_ms BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN corrected_p99_response_time_ms BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,2 @@
+ALTER TABLE load_test_results
+    ADD COLUMN status VARCHAR(20) NOT NULL DEFAULT 'COMPLETED';
@@ -0,0 +1,2 @@
+ALTER TABLE load_test_results
+    ADD COLUMN abort_reason TEXT;
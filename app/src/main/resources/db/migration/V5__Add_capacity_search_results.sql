@@ -0,0 +1,16 @@
+CREATE TABLE capacity_search_results (
+    id                          UUID PRIMARY KEY,
+    service_id                  UUID NOT NULL,
+    executed_at                 TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    max_iterations_per_second   DOUBLE PRECISION NOT NULL,
+    max_requests_per_second     DOUBLE PRECISION NOT NULL,
+    p99_response_time_ms        BIGINT NOT NULL,
+    error_rate_percent          DOUBLE PRECISION NOT NULL,
+    max_p99_response_time_ms    BIGINT NOT NULL,
+    max_error_rate_percent      DOUBLE PRECISION NOT NULL,
+    search_limit_reached        BOOLEAN NOT NULL,
+    probes                      jsonb NOT NULL,
+    CONSTRAINT fk_capacity_search_service FOREIGN KEY (service_id) REFERENCES monitored_services (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_capacity_search_service_id ON capacity_search_results (service_id, executed_at DESC);
@@ -0,0 +1,2 @@
+ALTER TABLE load_test_results
+    ADD COLUMN failures jsonb;
@@ -0,0 +1,3 @@
+ALTER TABLE load_test_results
+    ADD COLUMN generator_saturated BOOLEAN NOT NULL DEFAULT FALSE,
+    ADD COLUMN generator_saturation_reason TEXT;
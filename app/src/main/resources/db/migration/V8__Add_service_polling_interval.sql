@@ -0,0 +1,2 @@
+ALTER TABLE monitored_services
+    ADD COLUMN polling_interval_seconds INTEGER;
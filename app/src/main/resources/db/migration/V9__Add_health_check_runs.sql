@@ -0,0 +1,9 @@
+ALTER TABLE health_check_results
+    ADD COLUMN last_checked_at TIMESTAMP WITHOUT TIME ZONE,
+    ADD COLUMN check_count     BIGINT NOT NULL DEFAULT 1;
+
+UPDATE health_check_results SET last_checked_at = timestamp;
+
+ALTER TABLE health_check_results ALTER COLUMN last_checked_at SET NOT NULL;
+
+CREATE INDEX idx_service_id_last_checked_at ON health_check_results (service_id, last_checked_at);
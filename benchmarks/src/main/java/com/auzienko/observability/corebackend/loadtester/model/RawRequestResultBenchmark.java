@@ -0,0 +1,87 @@
+package com.auzienko.observability.corebackend.loadtester.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filling in a {@link RawRequestResult} per request: a new instance (consumers that retain
+ * results), the reused per-user instance (everything else), and the builder.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RawRequestResultBenchmark {
+
+    private final RawRequestResult reusable = new RawRequestResult();
+    private final Instant startTime = Instant.now();
+    private final PhaseTimings phases = new PhaseTimings(1_000, 50_000, PhaseTimings.NOT_MEASURED, 4_000_000, 20_000);
+    private int iteration;
+
+    @Benchmark
+    public RawRequestResult newInstance() {
+        return fill(new RawRequestResult());
+    }
+
+    @Benchmark
+    public RawRequestResult reused() {
+        return fill(reusable);
+    }
+
+    @Benchmark
+    public RawRequestResult builder() {
+        return RawRequestResult.builder()
+                .workerId(7)
+                .iteration(iteration++)
+                .stepIndex(1)
+                .stepName("get-profile")
+                .stageIndex(-1)
+                .url("http://localhost:8080/api/users/42")
+                .method("GET")
+                .startTime(startTime)
+                .durationNanos(4_100_000)
+                .phases(phases)
+                .statusCode(200)
+                .responseBytes(512)
+                .success(true)
+                .build();
+    }
+
+    // Same fields ScenarioRuntime.complete sets when no optional field is captured
+    private RawRequestResult fill(RawRequestResult result) {
+        result.setWorkerId(7);
+        result.setIteration(iteration++);
+        result.setStepIndex(1);
+        result.setStepName("get-profile");
+        result.setStageIndex(-1);
+        result.setUrl("http://localhost:8080/api/users/42");
+        result.setMethod("GET");
+        result.setRequestHeaders(null);
+        result.setRequestBody(null);
+        result.setStartTime(startTime);
+        result.setDurationNanos(4_100_000);
+        result.setScheduleLagNanos(0);
+        result.setPhases(phases);
+        result.setStatusCode(200);
+        result.setResponseHeaders(null);
+        result.setResponseBody(null);
+        result.setResponseBytes(512);
+        result.setSuccess(true);
+        result.setErrorType(null);
+        result.setErrorMessage(null);
+        return result;
+    }
+
+}
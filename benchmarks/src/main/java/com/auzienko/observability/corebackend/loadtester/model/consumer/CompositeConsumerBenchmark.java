@@ -0,0 +1,80 @@
+package com.auzienko.observability.corebackend.loadtester.model.consumer;
+
+import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * {@link CompositeConsumer} fan-out: the cost of the composite itself over trivial consumers,
+ * and the consumer chain {@code LoadTestService} runs for every result.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompositeConsumerBenchmark {
+
+    private static final int RESULTS = 1024;
+
+    CompositeConsumer loadTest;
+    RawRequestResult[] results;
+    int next;
+
+    @State(Scope.Thread)
+    public static class FanOut {
+
+        @Param({"1", "4", "16"})
+        int consumers;
+
+        CompositeConsumer composite;
+
+        @Setup(Level.Trial)
+        @SuppressWarnings("unchecked")
+        public void setUp(Blackhole blackhole) {
+            Consumer<RawRequestResult>[] trivial = new Consumer[consumers];
+            for (int i = 0; i < trivial.length; i++) {
+                trivial[i] = result -> blackhole.consume(result.getDurationNanos());
+            }
+            composite = new CompositeConsumer(trivial);
+        }
+
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        results = MetricsConsumerBenchmark.results(RESULTS, new SplittableRandom(42));
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpLoadTest() {
+        loadTest = new CompositeConsumer(new MetricsConsumer(), new FailureFingerprintConsumer());
+    }
+
+    @Benchmark
+    public void fanOut(FanOut fanOut) {
+        fanOut.composite.accept(results[next++ & (RESULTS - 1)]);
+    }
+
+    @Benchmark
+    public void loadTestConsumers() {
+        loadTest.accept(results[next++ & (RESULTS - 1)]);
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.auzienko.observability.corebackend.loadtester.model.consumer;
+
+import com.auzienko.observability.corebackend.loadtester.model.LoadTestMetrics;
+import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MetricsConsumer#accept} with all worker threads recording into one consumer, as
+ * during a test, and {@link MetricsConsumer#getMetrics()} once a run has recorded many samples.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsConsumerBenchmark {
+
+    // Distinct results cycled through, so the histogram sees a spread of durations
+    private static final int RESULTS = 1024;
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+
+        MetricsConsumer consumer;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            consumer = new MetricsConsumer();
+        }
+
+    }
+
+    @State(Scope.Thread)
+    public static class Results {
+
+        RawRequestResult[] results;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            results = results(RESULTS, new SplittableRandom(42));
+        }
+
+        RawRequestResult next() {
+            return results[next++ & (RESULTS - 1)];
+        }
+
+    }
+
+    @State(Scope.Benchmark)
+    public static class Filled {
+
+        @Param({"1000000", "10000000"})
+        int samples;
+
+        MetricsConsumer consumer;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            consumer = new MetricsConsumer();
+            RawRequestResult[] results = results(RESULTS, new SplittableRandom(42));
+            for (int i = 0; i < samples; i++) {
+                consumer.accept(results[i & (RESULTS - 1)]);
+            }
+        }
+
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void accept1Thread(Shared shared, Results results) {
+        shared.consumer.accept(results.next());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void accept4Threads(Shared shared, Results results) {
+        shared.consumer.accept(results.next());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void acceptMaxThreads(Shared shared, Results results) {
+        shared.consumer.accept(results.next());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public LoadTestMetrics getMetrics(Filled filled) {
+        return filled.consumer.getMetrics();
+    }
+
+    /**
+     * Results of a two-step scenario: log-normal-ish latencies around 20ms, 1% failures.
+     */
+    static RawRequestResult[] results(int count, SplittableRandom random) {
+        RawRequestResult[] results = new RawRequestResult[count];
+        Instant start = Instant.now();
+        for (int i = 0; i < count; i++) {
+            boolean success = random.nextInt(100) != 0;
+            long durationNanos = (long) (TimeUnit.MILLISECONDS.toNanos(20) * Math.exp(random.nextGaussian()));
+            results[i] = RawRequestResult.builder()
+                    .workerId(i % 50)
+                    .iteration(i / 50)
+                    .stepIndex(i % 2)
+                    .stepName(i % 2 == 0 ? "login" : "get-profile")
+                    .stageIndex(-1)
+                    .url("http://localhost:8080/api/users/" + i)
+                    .method("GET")
+                    .startTime(start.plusMillis(i))
+                    .durationNanos(durationNanos)
+                    .statusCode(success ? 200 : 503)
+                    .responseBytes(512)
+                    .success(success)
+                    .errorType(success ? null : "HTTP_503")
+                    .errorMessage(success ? null : "503 Service Unavailable")
+                    .build();
+        }
+        return results;
+    }
+
+}
@@ -0,0 +1,276 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.auzienko.observability.corebackend.domain.model.EngineType;
+import com.auzienko.observability.corebackend.domain.model.HttpRequest;
+import com.auzienko.observability.corebackend.domain.model.LoadTestScenario;
+import com.auzienko.observability.corebackend.domain.model.Step;
+import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
+import com.auzienko.observability.corebackend.loadtester.model.consumer.CaptureRequirements;
+import com.auzienko.observability.corebackend.loadtester.model.consumer.ResultField;
+import com.auzienko.observability.corebackend.loadtester.stub.JsonShape;
+import com.auzienko.observability.corebackend.loadtester.stub.Latency;
+import com.auzienko.observability.corebackend.loadtester.stub.StubBehavior;
+import com.auzienko.observability.corebackend.loadtester.stub.StubServer;
+import com.auzienko.observability.corebackend.loadtester.transport.AsyncHttpClientTransport;
+import com.auzienko.observability.corebackend.loadtester.transport.RestTemplateTransport;
+import com.auzienko.observability.corebackend.loadtester.transport.TimedConnectionManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.Timeout;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * End-to-end generator benchmark: every {@link LoadEngine} runs the same two-step scenario
+ * (fetch a token, then use it in the next request's URL) against a {@link StubServer} on
+ * the loopback interface.
+ * <p>
+ * Each benchmark invocation is a whole run of about {@code iterations} scenario iterations,
+ * spread over the virtual users, and the measurement is one batch of such runs. Besides the
+ * time of the batch, the counters report over all its runs
+ * <ul>
+ *     <li>{@code requestsPerSecond}: throughput of the run, the maximum for that many users</li>
+ *     <li>{@code cpuMicrosPerRequest}: CPU time of the process minus the stub's threads, per request</li>
+ *     <li>{@code overheadMicros}: mean latency seen by the engine minus the stub's own handling time</li>
+ * </ul>
+ * JMH sums these counters over measurement iterations, so use more runs per batch
+ * ({@code -bs}) rather than more iterations ({@code -i}). New {@link EngineType}s are picked
+ * up automatically.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, batchSize = 2)
+@Measurement(iterations = 1, batchSize = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class LoadEngineBenchmark {
+
+    // All engines unless overridden with -p engine=...
+    @Param
+    EngineType engine;
+
+    @Param({"16", "256"})
+    int virtualUsers;
+
+    @Param({"0", "5"})
+    int latencyMillis;
+
+    @Param({"4096"})
+    int iterations;
+
+    StubServer stub;
+    CloseableHttpClient blockingClient;
+    CloseableHttpAsyncClient asyncClient;
+    LoadEngine loadEngine;
+    LoadTestScenario scenario;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        stub = StubServer.start(new StubBehavior()
+                .setLatency(latencyMillis > 0 ? Latency.fixed(Duration.ofMillis(latencyMillis)) : Latency.NONE)
+                .setShape(JsonShape.NESTED)
+                .setResponseBytes(1024)
+                .setWorkerThreads(virtualUsers));
+
+        // Same timeouts as the application's clients, pools sized so every user has a connection
+        blockingClient = HttpClients.custom()
+                .setConnectionManager(new TimedConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(virtualUsers)
+                        .setMaxConnPerRoute(virtualUsers)
+                        .build()))
+                .setDefaultRequestConfig(requestConfig())
+                .build();
+        asyncClient = HttpAsyncClients.custom()
+                .setConnectionManager(PoolingAsyncClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(virtualUsers)
+                        .setMaxConnPerRoute(virtualUsers)
+                        .build())
+                .setIOReactorConfig(IOReactorConfig.custom()
+                        .setIoThreadCount(Runtime.getRuntime().availableProcessors())
+                        .setTcpNoDelay(true)
+                        .build())
+                .setDefaultRequestConfig(requestConfig())
+                .build();
+        asyncClient.start();
+
+        ScenarioRuntime runtime = new ScenarioRuntime(new ObjectMapper());
+        ArrivalRateScheduler scheduler = new ArrivalRateScheduler();
+        RestTemplateTransport blocking = new RestTemplateTransport(
+                new RestTemplate(new HttpComponentsClientHttpRequestFactory(blockingClient)));
+        LoadEngines engines = new LoadEngines(List.of(
+                new PlatformThreadLoadEngine(blocking, runtime, scheduler),
+                new VirtualThreadLoadEngine(blocking, runtime, scheduler),
+                new AsyncLoadEngine(new AsyncHttpClientTransport(asyncClient), runtime, scheduler)),
+                EngineType.PLATFORM_THREADS);
+        loadEngine = engines.get(engine);
+
+        scenario = scenario(stub);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        asyncClient.close();
+        blockingClient.close();
+        stub.close();
+    }
+
+    @Benchmark
+    public long run(GeneratorCounters counters) {
+        RunConsumer consumer = new RunConsumer();
+        StubServer.StubStats stubBefore = stub.stats();
+        long cpuBefore = processCpuNanos();
+        long startNanos = System.nanoTime();
+
+        loadEngine.execute(UUID.randomUUID(), scenario, consumer);
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        long cpuNanos = processCpuNanos() - cpuBefore;
+        StubServer.StubStats stubRun = stub.stats().minus(stubBefore);
+
+        counters.record(consumer, elapsedNanos, cpuNanos - stubRun.cpuNanos(), stubRun);
+        return consumer.requests.sum();
+    }
+
+    /**
+     * Counters over all runs of a measurement iteration, recomputed after every run.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class GeneratorCounters {
+
+        public double requestsPerSecond;
+        public double cpuMicrosPerRequest;
+        public double overheadMicros;
+        public long failedRequests;
+
+        private long requests;
+        private long elapsedNanos;
+        private long generatorCpuNanos;
+        private long latencyNanos;
+        private long stubHandlingNanos;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            requestsPerSecond = 0;
+            cpuMicrosPerRequest = 0;
+            overheadMicros = 0;
+            failedRequests = 0;
+            requests = 0;
+            elapsedNanos = 0;
+            generatorCpuNanos = 0;
+            latencyNanos = 0;
+            stubHandlingNanos = 0;
+        }
+
+        void record(RunConsumer run, long runNanos, long cpuNanos, StubServer.StubStats stubRun) {
+            requests += run.requests.sum();
+            failedRequests += run.failures.sum();
+            elapsedNanos += runNanos;
+            generatorCpuNanos += cpuNanos;
+            latencyNanos += run.durationNanos.sum();
+            stubHandlingNanos += stubRun.handlingNanos();
+
+            if (requests > 0) {
+                requestsPerSecond = requests * 1e9 / elapsedNanos;
+                cpuMicrosPerRequest = generatorCpuNanos / 1e3 / requests;
+                overheadMicros = (latencyNanos - stubHandlingNanos) / 1e3 / requests;
+            }
+        }
+
+    }
+
+    /**
+     * Counts results without capturing anything optional, so the run measures the engine only.
+     */
+    static class RunConsumer implements Consumer<RawRequestResult>, CaptureRequirements {
+
+        final LongAdder requests = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder durationNanos = new LongAdder();
+
+        @Override
+        public void accept(RawRequestResult result) {
+            requests.increment();
+            durationNanos.add(result.getDurationNanos());
+            if (!result.isSuccess()) {
+                failures.increment();
+            }
+        }
+
+        @Override
+        public Set<ResultField> requiredFields() {
+            return EnumSet.noneOf(ResultField.class);
+        }
+
+    }
+
+    private LoadTestScenario scenario(StubServer stub) {
+        Step login = new Step()
+                .setName("login")
+                .setRequest(new HttpRequest()
+                        .setMethod("POST")
+                        .setUrl(stub.baseUrl() + "/api/login")
+                        .setHeaders(Map.of("Content-Type", "application/json"))
+                        .setBody(Map.of("username", "user-${randomUUID}", "password", "secret")))
+                .setExtract(Map.of("token", ScenarioCompiler.JSONPATH_PREFIX + stub.behavior().getShape().tokenPath()));
+        Step profile = new Step()
+                .setName("get-profile")
+                .setRequest(new HttpRequest()
+                        .setMethod("GET")
+                        .setUrl(stub.baseUrl() + "/api/profile")
+                        .setHeaders(Map.of("Authorization", "Bearer ${token}")));
+
+        return new LoadTestScenario()
+                .setName("loopback")
+                .setSteps(List.of(login, profile))
+                .setVirtualUsers(virtualUsers)
+                .setRuns(Math.max(1, iterations / virtualUsers));
+    }
+
+    private static RequestConfig requestConfig() {
+        return RequestConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(5000))
+                .setResponseTimeout(Timeout.ofMilliseconds(10000))
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(3000))
+                .build();
+    }
+
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+                .getProcessCpuTime();
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.auzienko.observability.corebackend.domain.model.HttpRequest;
+import com.auzienko.observability.corebackend.domain.model.LoadTestScenario;
+import com.auzienko.observability.corebackend.domain.model.Step;
+import com.auzienko.observability.corebackend.loadtester.model.consumer.MetricsConsumer;
+import com.auzienko.observability.corebackend.loadtester.transport.TransportRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building a request from a compiled step: URL, headers and the serialized JSON body.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RequestBuildBenchmark {
+
+    @Param({"static", "templated"})
+    String body;
+
+    CompiledStep step;
+    UserContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean templated = body.equals("templated");
+
+        Map<String, Object> requestBody = new LinkedHashMap<>();
+        requestBody.put("userId", templated ? "${userId}" : "8f14e45f-ceea-467a-9af0-7b3c2d1e5a66");
+        requestBody.put("comment", templated ? "Order for ${userId} \"express\"" : "Order \"express\"");
+        requestBody.put("quantity", 3);
+        requestBody.put("items", List.of(Map.of("sku", "A-100", "price", 19.99), Map.of("sku", "B-200", "price", 5)));
+        requestBody.put("requestId", templated ? "${randomUUID}" : "3c1f0a52-8d7e-4b1a-9f3e-2b6d5c4a1e00");
+
+        Step login = new Step()
+                .setName("login")
+                .setRequest(new HttpRequest().setMethod("POST").setUrl("http://localhost:8080/api/login"))
+                .setExtract(Map.of("token", "jsonpath:$.token", "userId", "jsonpath:$.userId"));
+        Step order = new Step()
+                .setName("create-order")
+                .setRequest(new HttpRequest()
+                        .setMethod("POST")
+                        .setUrl("http://localhost:8080/api/users/${userId}/orders")
+                        .setHeaders(Map.of("Authorization", "Bearer ${token}", "Content-Type", "application/json"))
+                        .setBody(requestBody));
+
+        CompiledScenario plan = new ScenarioRuntime(new ObjectMapper())
+                .compile(new LoadTestScenario().setSteps(List.of(login, order)), new MetricsConsumer());
+        step = plan.steps().get(1);
+        context = plan.newUserContext(0);
+        plan.steps().getFirst().extractor()
+                .extract("{\"token\":\"eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiI0MiJ9.c2ln\",\"userId\":\"8f14e45f-ceea-467a-9af0-7b3c2d1e5a66\"}",
+                        context);
+    }
+
+    @Benchmark
+    public TransportRequest toRequest() {
+        return step.toRequest(context);
+    }
+
+}
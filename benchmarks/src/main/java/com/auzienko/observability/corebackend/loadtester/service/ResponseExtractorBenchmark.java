@@ -0,0 +1,86 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.auzienko.observability.corebackend.domain.model.HttpRequest;
+import com.auzienko.observability.corebackend.domain.model.LoadTestScenario;
+import com.auzienko.observability.corebackend.domain.model.Step;
+import com.auzienko.observability.corebackend.loadtester.model.consumer.MetricsConsumer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Extracting variables from JSON response bodies. Plain field paths are matched by
+ * streaming; anything else falls back to JSONPath on the parsed document.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ResponseExtractorBenchmark {
+
+    @Param({"1024", "102400"})
+    int bodyBytes;
+
+    @Param({"$.data.token", "$.items[0].id"})
+    String path;
+
+    String body;
+    ResponseExtractor extractor;
+    UserContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        body = responseBody(bodyBytes);
+
+        Step step = new Step()
+                .setName("login")
+                .setRequest(new HttpRequest().setMethod("POST").setUrl("http://localhost:8080/api/login"))
+                .setExtract(Map.of("value", ScenarioCompiler.JSONPATH_PREFIX + path));
+        CompiledScenario plan = new ScenarioRuntime(new ObjectMapper())
+                .compile(new LoadTestScenario().setSteps(List.of(step)), new MetricsConsumer());
+        extractor = plan.steps().getFirst().extractor();
+        context = plan.newUserContext(0);
+    }
+
+    @Benchmark
+    public Object extract() {
+        extractor.extract(body, context);
+        return context.getVariable(0);
+    }
+
+    /**
+     * A list response of about {@code bytes} bytes with the token after the list, so the
+     * streaming extractor has to skip it.
+     */
+    static String responseBody(int bytes) {
+        StringBuilder json = new StringBuilder(bytes + 256).append("{\"items\":[");
+        for (int i = 0; json.length() < bytes - 128; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(1000 + i)
+                    .append(",\"name\":\"item-").append(i)
+                    .append("\",\"price\":").append(i % 100).append(".99")
+                    .append(",\"tags\":[\"a\",\"b\"],\"active\":true}");
+        }
+        return json.append("],\"data\":{\"token\":\"eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiI0MiJ9.c2ln\",\"expiresIn\":3600}}")
+                .toString();
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.auzienko.observability.corebackend.loadtester.stub;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Service time the {@link StubServer} adds to every request.
+ */
+@FunctionalInterface
+public interface Latency {
+
+    Latency NONE = random -> 0;
+
+    long nextNanos(ThreadLocalRandom random);
+
+    static Latency fixed(Duration latency) {
+        long nanos = latency.toNanos();
+        return random -> nanos;
+    }
+
+    static Latency uniform(Duration min, Duration max) {
+        long minNanos = min.toNanos();
+        long maxNanos = max.toNanos();
+        return random -> random.nextLong(minNanos, maxNanos + 1);
+    }
+
+    /**
+     * Long-tailed service time: half of the requests are faster than {@code median}.
+     *
+     * @param sigma spread of the underlying normal distribution, 0.5 gives p99 of about 3x the median
+     */
+    static Latency logNormal(Duration median, double sigma) {
+        long medianNanos = median.toNanos();
+        return random -> (long) (medianNanos * Math.exp(sigma * random.nextGaussian()));
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.auzienko.observability.corebackend.loadtester.stub;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * How the {@link StubServer} answers: every request, whatever its method and path, waits for
+ * the latency and gets the same JSON body, or a 500 for the given share of requests.
+ */
+@Data
+@Accessors(chain = true)
+public class StubBehavior {
+
+    private Latency latency = Latency.NONE;
+    private int responseBytes = 1024;
+    private JsonShape shape = JsonShape.FLAT;
+    // Share of requests answered with 500, 0 to 1
+    private double errorRatio;
+    // Requests handled in parallel; with latency, this caps the stub's throughput
+    private int workerThreads = 512;
+
+}
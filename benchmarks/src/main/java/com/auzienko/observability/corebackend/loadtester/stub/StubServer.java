@@ -0,0 +1,167 @@
+package com.auzienko.observability.corebackend.loadtester.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process HTTP target on the loopback interface whose speed is known, so that what a load
+ * test measures against it is the load generator itself.
+ * <p>
+ * The stub records how long it spent on each request; subtracted from the latency the
+ * generator observed, that is the latency the generator adds. It also reports the CPU time of
+ * its own threads, so it can be left out of the generator's CPU usage.
+ */
+@Slf4j
+public class StubServer implements AutoCloseable {
+
+    private static final byte[] ERROR_BODY = "{\"error\":\"stub failure\"}".getBytes(StandardCharsets.UTF_8);
+    private static final int BACKLOG = 4096;
+
+    static {
+        // Headers and body are written separately; with Nagle every response would wait for a delayed ACK
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        // Above the default of 200 idle connections the server closes them, failing clients that reuse them
+        System.setProperty("sun.net.httpserver.maxIdleConnections", "100000");
+    }
+
+    private final StubBehavior behavior;
+    private final byte[] body;
+    private final HttpServer server;
+    private final ExecutorService workers;
+    private final List<Thread> threads = new CopyOnWriteArrayList<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder handlingNanos = new LongAdder();
+
+    private StubServer(StubBehavior behavior) throws IOException {
+        this.behavior = behavior;
+        this.body = behavior.getShape().render(behavior.getResponseBytes()).getBytes(StandardCharsets.UTF_8);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(behavior.getWorkerThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "stub-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            threads.add(thread);
+            return thread;
+        });
+
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), BACKLOG);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(workers);
+    }
+
+    public static StubServer start(StubBehavior behavior) throws IOException {
+        StubServer stub = new StubServer(behavior);
+        Set<Thread> before = new HashSet<>(Thread.getAllStackTraces().keySet());
+        stub.server.start();
+        // The dispatcher accepts and reads requests, count it as part of the stub
+        Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> !before.contains(thread) && thread.getName().startsWith("HTTP-Dispatcher"))
+                .forEach(stub.threads::add);
+        log.info("Stub server listening on {}", stub.baseUrl());
+        return stub;
+    }
+
+    public String baseUrl() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getHostString() + ":" + address.getPort();
+    }
+
+    public StubBehavior behavior() {
+        return behavior;
+    }
+
+    public StubStats stats() {
+        return new StubStats(requests.sum(), errors.sum(), handlingNanos.sum(), cpuNanos());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        workers.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long startNanos = System.nanoTime();
+        boolean failed = behavior.getErrorRatio() > 0
+                && ThreadLocalRandom.current().nextDouble() < behavior.getErrorRatio();
+        try (exchange) {
+            exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+            sleep(behavior.getLatency().nextNanos(ThreadLocalRandom.current()));
+
+            byte[] response = failed ? ERROR_BODY : body;
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(failed ? 500 : 200, response.length);
+            exchange.getResponseBody().write(response);
+        } finally {
+            requests.increment();
+            if (failed) {
+                errors.increment();
+            }
+            handlingNanos.add(System.nanoTime() - startNanos);
+        }
+    }
+
+    private static void sleep(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long cpuNanos() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (Thread thread : threads) {
+            long cpu = threadBean.getThreadCpuTime(thread.threadId());
+            if (cpu > 0) {
+                total += cpu;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Totals since the stub started; subtract two snapshots for the totals of one run.
+     *
+     * @param handlingNanos time spent between receiving a request and sending the response
+     * @param cpuNanos      CPU time of the stub's threads
+     */
+    public record StubStats(long requests, long errors, long handlingNanos, long cpuNanos) {
+
+        public StubStats minus(StubStats earlier) {
+            return new StubStats(requests - earlier.requests, errors - earlier.errors,
+                    handlingNanos - earlier.handlingNanos, cpuNanos - earlier.cpuNanos);
+        }
+
+        public double meanHandlingNanos() {
+            return requests > 0 ? (double) handlingNanos / requests : 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.auzienko.observability.corebackend.domain.model.EngineType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * One short run of {@link LoadEngineBenchmark} per engine, so a broken engine or stub fails the
+ * default build. The full parameter matrix stays behind the {@code loopback-benchmark} profile.
+ */
+class LoadEngineBenchmarkSmokeTest {
+
+    @Test
+    @DisplayName("Every engine should complete a short loopback run without failed requests")
+    void shouldRunEveryEngineAgainstTheStub() throws RunnerException {
+        // ARRANGE
+        // In-process: a forked JVM would not inherit the test classpath
+        Options options = new OptionsBuilder()
+                .include(LoadEngineBenchmark.class.getName())
+                .param("virtualUsers", "16")
+                .param("latencyMillis", "0")
+                .param("iterations", "512")
+                .warmupIterations(0)
+                .measurementIterations(1)
+                .measurementBatchSize(1)
+                .forks(0)
+                .build();
+
+        // ACT
+        Collection<RunResult> results = new Runner(options).run();
+
+        // ASSERT
+        assertThat(results)
+                .extracting(result -> result.getParams().getParam("engine"))
+                .containsExactlyInAnyOrder(Arrays.stream(EngineType.values()).map(Enum::name).toArray(String[]::new));
+        assertThat(results).allSatisfy(result -> {
+            assertThat(result.getSecondaryResults().get("failedRequests").getScore()).isZero();
+            assertThat(result.getSecondaryResults().get("requestsPerSecond").getScore()).isPositive();
+        });
+    }
+
+}
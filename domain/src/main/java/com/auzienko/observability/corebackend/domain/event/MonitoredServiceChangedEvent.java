@@ -0,0 +1,33 @@
+package com.auzienko.observability.corebackend.domain.event;
+
+import com.auzienko.observability.corebackend.domain.model.MonitoredService;
+
+import java.util.UUID;
+
+/**
+ * Published by the service registry whenever a monitored service is registered, updated or
+ * unregistered, so schedulers can adjust to the change instead of re-reading every service.
+ *
+ * @param service the service as saved, or {@code null} when it was unregistered
+ */
+public record MonitoredServiceChangedEvent(Change change, UUID serviceId, MonitoredService service) {
+
+    public enum Change {
+        REGISTERED,
+        UPDATED,
+        UNREGISTERED
+    }
+
+    public static MonitoredServiceChangedEvent registered(MonitoredService service) {
+        return new MonitoredServiceChangedEvent(Change.REGISTERED, service.getId(), service);
+    }
+
+    public static MonitoredServiceChangedEvent updated(MonitoredService service) {
+        return new MonitoredServiceChangedEvent(Change.UPDATED, service.getId(), service);
+    }
+
+    public static MonitoredServiceChangedEvent unregistered(UUID serviceId) {
+        return new MonitoredServiceChangedEvent(Change.UNREGISTERED, serviceId, null);
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.auzienko.observability.corebackend.domain.model;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * One fixed-rate step of a capacity search and what it measured.
+ */
+@Data
+@Accessors(chain = true)
+public class CapacityProbe {
+
+    private double targetIterationsPerSecond;
+    private double achievedIterationsPerSecond;
+    private long p99ResponseTimeMs;
+    private double errorRatePercent;
+    private boolean passed;
+
+}
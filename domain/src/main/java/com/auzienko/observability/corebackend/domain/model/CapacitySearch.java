@@ -0,0 +1,56 @@
+package com.auzienko.observability.corebackend.domain.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * Settings of a capacity search: short open-model probes of {@code scenario} at increasing
+ * arrival rates, looking for the highest rate the service sustains within the limits.
+ * <p>
+ * The rate starts at {@code startIterationsPerSecond} and is multiplied by {@code growthFactor}
+ * until a probe fails or {@code maxIterationsPerSecond} is reached, then the range between the
+ * last passing and the first failing rate is bisected until it is narrower than
+ * {@code precisionPercent} of the failing rate. The scenario's own rate, duration, stages and
+ * thresholds are ignored.
+ */
+@Data
+@Accessors(chain = true)
+public class CapacitySearch {
+
+    @NotNull(message = "Scenario must be specified")
+    @Valid
+    private LoadTestScenario scenario;
+
+    // Limits a probe must stay within to pass
+    @NotNull(message = "maxP99ResponseTimeMs must be specified")
+    @Positive(message = "maxP99ResponseTimeMs must be greater than 0")
+    private Long maxP99ResponseTimeMs;
+    @NotNull(message = "maxErrorRatePercent must be specified")
+    @PositiveOrZero(message = "maxErrorRatePercent must be 0 or greater")
+    private Double maxErrorRatePercent;
+
+    // Defaults apply when not set
+    @Positive(message = "startIterationsPerSecond must be greater than 0")
+    private Double startIterationsPerSecond;
+    @Positive(message = "maxIterationsPerSecond must be greater than 0")
+    private Double maxIterationsPerSecond;
+    @DecimalMin(value = "1", inclusive = false, message = "growthFactor must be greater than 1")
+    private Double growthFactor;
+    @Positive(message = "precisionPercent must be greater than 0")
+    private Double precisionPercent;
+    @Positive(message = "probeDurationSeconds must be greater than 0")
+    private Integer probeDurationSeconds;
+
+    @AssertTrue(message = "startIterationsPerSecond must not be above maxIterationsPerSecond")
+    public boolean isRateRangeValid() {
+        return startIterationsPerSecond == null || maxIterationsPerSecond == null
+                || startIterationsPerSecond <= maxIterationsPerSecond;
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.auzienko.observability.corebackend.domain.model;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class CapacitySearchResult {
+
+    private UUID id;
+    private UUID serviceId;
+    private Instant executedAt;
+    // Highest passing arrival rate, 0 if even the starting rate failed
+    private double maxIterationsPerSecond;
+    private double maxRequestsPerSecond;
+    private long p99ResponseTimeMs;
+    private double errorRatePercent;
+    private long maxP99ResponseTimeMs;
+    private double maxErrorRatePercent;
+    // True if the highest allowed rate still passed, so the real capacity may be higher
+    private boolean searchLimitReached;
+    private List<CapacityProbe> probes;
+
+}
@@ -0,0 +1,23 @@
+package com.auzienko.observability.corebackend.domain.model;
+
+/**
+ * How virtual users are scheduled while a scenario runs.
+ */
+public enum EngineType {
+
+    /**
+     * One platform thread per virtual user, blocking transport.
+     */
+    PLATFORM_THREADS,
+
+    /**
+     * One virtual thread per virtual user, blocking transport.
+     */
+    VIRTUAL_THREADS,
+
+    /**
+     * Virtual users are callbacks rather than threads, non-blocking transport.
+     */
+    ASYNC_IO,
+
+}
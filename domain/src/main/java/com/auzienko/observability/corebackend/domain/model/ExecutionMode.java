@@ -0,0 +1,15 @@
+package com.auzienko.observability.corebackend.domain.model;
+
+public enum ExecutionMode {
+
+    /**
+     * Each virtual user runs iterations back to back (closed model).
+     */
+    CLOSED,
+
+    /**
+     * Iterations are started on a fixed schedule regardless of response times (open model).
+     */
+    CONSTANT_ARRIVAL_RATE,
+
+}
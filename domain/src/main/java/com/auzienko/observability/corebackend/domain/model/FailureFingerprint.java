@@ -0,0 +1,29 @@
+package com.auzienko.observability.corebackend.domain.model;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.time.Instant;
+
+/**
+ * A group of failed requests that failed the same way: same step, error type, status code
+ * and error message once numbers and ids are masked. Keeps the first failure of the group
+ * as a sample.
+ */
+@Data
+@Accessors(chain = true)
+public class FailureFingerprint {
+
+    private String stepName;
+    private String errorType;
+    private Integer statusCode;
+    private String message;
+    private long count;
+    private Instant firstSeen;
+    private Instant lastSeen;
+
+    private String sampleMethod;
+    private String sampleUrl;
+    private String sampleErrorMessage;
+
+}
@@ -5,6 +5,11 @@ import lombok.Data;
 import java.time.Instant;
 import java.util.UUID;
 
+/**
+ * Outcome of a health check, or of a run of consecutive checks with the same status: the run
+ * started at {@code timestamp}, its last check was at {@code lastCheckedAt} and it spans
+ * {@code checkCount} checks. A single check has no end time or count set.
+ */
 @Data
 public class HealthCheckResult {
 
@@ -13,5 +18,7 @@ public class HealthCheckResult {
     private Instant timestamp;
     private ServiceStatus status;
     private String errorMessage;
+    private Instant lastCheckedAt;
+    private Long checkCount;
 
 }
@@ -0,0 +1,33 @@
+package com.auzienko.observability.corebackend.domain.model;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * One stage of a staged load profile. The load moves from the previous stage's target
+ * (zero before the first stage) to this stage's target over {@code durationSeconds}.
+ * Closed model scenarios use {@code targetVirtualUsers}, CONSTANT_ARRIVAL_RATE scenarios
+ * use {@code targetIterationsPerSecond}.
+ */
+@Data
+@Accessors(chain = true)
+public class LoadStage {
+
+    private String name;
+
+    @NotNull(message = "Stage durationSeconds must be specified")
+    @Positive(message = "Stage durationSeconds must be greater than 0")
+    private Integer durationSeconds;
+
+    @PositiveOrZero(message = "Stage targetVirtualUsers must be 0 or greater")
+    private Integer targetVirtualUsers;
+
+    @PositiveOrZero(message = "Stage targetIterationsPerSecond must be 0 or greater")
+    private Double targetIterationsPerSecond;
+
+    private StageInterpolation interpolation;
+
+}
@@ -3,6 +3,7 @@ package com.auzienko.observability.corebackend.domain.model;
 import lombok.Data;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 @Data
@@ -19,6 +20,14 @@ public class LoadTestResult {
     private long MedianResponseTimeMs;
     private long p95ResponseTimeMs;
     private long p99ResponseTimeMs;
+    private long correctedP95ResponseTimeMs;
+    private long correctedP99ResponseTimeMs;
     private double requestsPerSecond;
+    private LoadTestStatus status;
+    private String abortReason;
+    private List<FailureFingerprint> failures;
+    // Set when the load generator, not the target, probably limited the run
+    private boolean generatorSaturated;
+    private String generatorSaturationReason;
 
 }
@@ -1,5 +1,8 @@
 package com.auzienko.observability.corebackend.domain.model;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Positive;
 import lombok.Data;
 import lombok.experimental.Accessors;
 
@@ -9,10 +12,70 @@ import java.util.List;
 @Accessors(chain = true)
 public class LoadTestScenario {
 
+    public static final int MAX_BLOCKING_VIRTUAL_USERS = 100;
+    public static final int MAX_ASYNC_VIRTUAL_USERS = 50_000;
+
     private String name;
     private Integer durationSeconds;
     private Integer runs;
     private Integer virtualUsers;
     private List<Step> steps;
+    private TransportType transport;
+    // Taken from transport (ASYNC means ASYNC_IO) and the configured default unless set
+    private EngineType engine;
+    // Results are delivered to consumers on the worker threads unless set
+    private ResultDelivery resultDelivery;
+
+    // Open model (CONSTANT_ARRIVAL_RATE): runs is the total number of iterations
+    private ExecutionMode executionMode;
+    private Double targetIterationsPerSecond;
+    private Double targetRequestsPerSecond;
+    @Positive(message = "maxInFlight must be greater than 0")
+    private Integer maxInFlight;
+
+    // Staged profile: when set, replaces virtualUsers/targetIterationsPerSecond and durationSeconds/runs
+    @Valid
+    private List<LoadStage> stages;
+
+    // Checked while the test runs; the first breach aborts it
+    @Valid
+    private List<LoadThreshold> thresholds;
+
+    /**
+     * Blocking engines hold a thread per virtual user, so only the non-blocking one may go past
+     * {@link #MAX_BLOCKING_VIRTUAL_USERS}. Stage targets count as virtual users too.
+     */
+    @AssertTrue(message = "Cannot exceed 100 virtual users (50000 with ASYNC transport)")
+    public boolean isVirtualUsersWithinLimit() {
+        int limit = transport == TransportType.ASYNC || engine == EngineType.ASYNC_IO
+                ? MAX_ASYNC_VIRTUAL_USERS
+                : MAX_BLOCKING_VIRTUAL_USERS;
+        if (virtualUsers != null && virtualUsers > limit) {
+            return false;
+        }
+        return stages == null || stages.stream()
+                .allMatch(stage -> stage == null || stage.getTargetVirtualUsers() == null || stage.getTargetVirtualUsers() <= limit);
+    }
+
+    /**
+     * Shallow copy, for running the same scenario with a setting changed.
+     */
+    public LoadTestScenario copy() {
+        return new LoadTestScenario()
+                .setName(name)
+                .setDurationSeconds(durationSeconds)
+                .setRuns(runs)
+                .setVirtualUsers(virtualUsers)
+                .setSteps(steps)
+                .setTransport(transport)
+                .setEngine(engine)
+                .setResultDelivery(resultDelivery)
+                .setExecutionMode(executionMode)
+                .setTargetIterationsPerSecond(targetIterationsPerSecond)
+                .setTargetRequestsPerSecond(targetRequestsPerSecond)
+                .setMaxInFlight(maxInFlight)
+                .setStages(stages)
+                .setThresholds(thresholds);
+    }
 
 }
@@ -0,0 +1,20 @@
+package com.auzienko.observability.corebackend.domain.model;
+
+public enum LoadTestStatus {
+
+    /**
+     * Ran until its duration or run count was reached.
+     */
+    COMPLETED,
+
+    /**
+     * Stopped on request; metrics cover the requests made until then.
+     */
+    CANCELLED,
+
+    /**
+     * Stopped early because a threshold was breached; see the abort reason.
+     */
+    ABORTED,
+
+}
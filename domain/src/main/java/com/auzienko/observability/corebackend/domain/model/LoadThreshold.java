@@ -0,0 +1,32 @@
+package com.auzienko.observability.corebackend.domain.model;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * Service level objective checked while a load test runs. When {@code metric}, measured over
+ * the last {@code windowSeconds}, exceeds {@code maxValue}, the test is aborted. Windows with
+ * fewer than {@code minRequests} requests are not evaluated, so a slow start or a short lull
+ * cannot trip the threshold on a handful of samples.
+ */
+@Data
+@Accessors(chain = true)
+public class LoadThreshold {
+
+    @NotNull(message = "Threshold metric must be specified")
+    private ThresholdMetric metric;
+
+    @NotNull(message = "Threshold maxValue must be specified")
+    @PositiveOrZero(message = "Threshold maxValue must be 0 or greater")
+    private Double maxValue;
+
+    @Positive(message = "Threshold windowSeconds must be at least 1")
+    private Integer windowSeconds;
+
+    @PositiveOrZero(message = "Threshold minRequests must be 0 or greater")
+    private Integer minRequests;
+
+}
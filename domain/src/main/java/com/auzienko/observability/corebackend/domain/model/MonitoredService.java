@@ -11,6 +11,7 @@ public class MonitoredService {
     private UUID id;
     private String name;
     private String healthCheckScenario;
+    private Integer pollingIntervalSeconds;
     private ServiceStatus status;
     private Instant lastCheckedAt;
 
@@ -0,0 +1,24 @@
+package com.auzienko.observability.corebackend.domain.model;
+
+/**
+ * What a worker does when the result delivery buffer is full.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Wait for space. Nothing is lost, but a slow consumer slows the workers down.
+     */
+    BLOCK,
+
+    /**
+     * Drop the result and count it.
+     */
+    DROP,
+
+    /**
+     * Wait for space for every {@code sampleRate}-th result and drop the others,
+     * so an overloaded consumer still sees an even sample of the traffic.
+     */
+    SAMPLE,
+
+}
@@ -0,0 +1,21 @@
+package com.auzienko.observability.corebackend.domain.model;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * Asynchronous result delivery: workers hand results to a bounded buffer and a single
+ * thread passes them on to the consumers in batches, so consumer cost does not add to
+ * the measured request pacing.
+ */
+@Data
+@Accessors(chain = true)
+public class ResultDelivery {
+
+    // Rounded up to a power of two
+    private Integer bufferSize;
+    private Integer maxBatchSize;
+    private OverflowPolicy overflowPolicy;
+    private Integer sampleRate;
+
+}
@@ -0,0 +1,15 @@
+package com.auzienko.observability.corebackend.domain.model;
+
+public enum StageInterpolation {
+
+    /**
+     * Ramp evenly from the previous target to this stage's target.
+     */
+    LINEAR,
+
+    /**
+     * Jump to this stage's target at the start of the stage (plateaus and spikes).
+     */
+    STEP,
+
+}
@@ -0,0 +1,20 @@
+package com.auzienko.observability.corebackend.domain.model;
+
+public enum ThresholdMetric {
+
+    /**
+     * Share of failed requests, 0 - 100.
+     */
+    ERROR_RATE_PERCENT,
+
+    /**
+     * 95th percentile response time of successful requests, in milliseconds.
+     */
+    P95_RESPONSE_TIME_MS,
+
+    /**
+     * 99th percentile response time of successful requests, in milliseconds.
+     */
+    P99_RESPONSE_TIME_MS,
+
+}
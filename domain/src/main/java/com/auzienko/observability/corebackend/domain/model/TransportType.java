@@ -0,0 +1,15 @@
+package com.auzienko.observability.corebackend.domain.model;
+
+public enum TransportType {
+
+    /**
+     * Pooled blocking client, one thread per virtual user.
+     */
+    BLOCKING,
+
+    /**
+     * Non-blocking client, virtual users are callbacks rather than threads.
+     */
+    ASYNC,
+
+}
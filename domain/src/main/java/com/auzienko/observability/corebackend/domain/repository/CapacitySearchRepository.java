@@ -0,0 +1,14 @@
+package com.auzienko.observability.corebackend.domain.repository;
+
+import com.auzienko.observability.corebackend.domain.model.CapacitySearchResult;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface CapacitySearchRepository {
+
+    CapacitySearchResult save(CapacitySearchResult capacitySearchResult);
+
+    List<CapacitySearchResult> findByServiceId(UUID serviceId);
+
+}
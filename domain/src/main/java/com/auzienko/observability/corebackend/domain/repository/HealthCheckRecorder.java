@@ -0,0 +1,17 @@
+package com.auzienko.observability.corebackend.domain.repository;
+
+import com.auzienko.observability.corebackend.domain.model.HealthCheckResult;
+
+/**
+ * Write-behind sink for health check outcomes. Recording a result queues both its history
+ * row and the status and last check time of its service; they are written in batches, so a
+ * recorded result may take a moment to become visible.
+ */
+public interface HealthCheckRecorder {
+
+    /**
+     * @return {@code false} if the result was dropped because the write queue is full
+     */
+    boolean record(HealthCheckResult result);
+
+}
@@ -0,0 +1,237 @@
+package com.auzienko.observability.corebackend.loadtester.metrics;
+
+import com.auzienko.observability.corebackend.loadtester.model.GeneratorHealth;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.core5.pool.ConnPoolStats;
+import org.apache.hc.core5.pool.PoolStats;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Samples the health of the load generator while a test runs: process CPU, GC pauses,
+ * virtual thread scheduler lag, connection pool usage and result queue depth.
+ * <p>
+ * A condition counts against the generator when it holds in at least
+ * {@value #SATURATED_SHARE_PERCENT}% of the samples, or for GC when pauses take at least
+ * {@value #GC_SATURATED_PERCENT}% of the wall time; any such condition marks the run as limited
+ * by the generator rather than by the target.
+ * <p>
+ * CPU, GC and the connection pool are process-wide: the pool is shared with any other run and
+ * with the scheduled health checks, so their load shows up here too.
+ */
+@Slf4j
+public class GeneratorHealthSampler implements AutoCloseable {
+
+    static final long SAMPLE_INTERVAL_MILLIS = 500;
+    static final int SATURATED_SHARE_PERCENT = 25;
+
+    static final double CPU_SATURATED_PERCENT = 90;
+    static final double GC_SATURATED_PERCENT = 10;
+    static final long SCHEDULER_LAG_SATURATED_MILLIS = 20;
+    static final double QUEUE_SATURATED_FILL = 0.9;
+
+    private final ConnPoolStats<?> pool;
+    private final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+    // Concurrent cycles (G1 Concurrent GC, ZGC Cycles) run beside the application; only pauses stall it
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans().stream()
+            .filter(collector -> !collector.getName().contains("Concurrent") && !collector.getName().contains("Cycles"))
+            .toList();
+
+    private volatile LongSupplier queueDepth;
+    private int queueCapacity;
+
+    private final Thread thread;
+    private final long startNanos = System.nanoTime();
+    private final long startGcMillis;
+    private volatile boolean closed;
+
+    // Written by the sampling thread only, read after it has been joined
+    private int samples;
+    private int cpuSamples;
+    private double cpuTotal;
+    private double cpuMax;
+    private int cpuSaturated;
+    private long lagMaxNanos;
+    private int lagSaturated;
+    private int poolLeasedMax;
+    private int poolPendingMax;
+    private int poolMax;
+    private int poolSaturated;
+    private long queueDepthMax;
+    private int queueSaturated;
+
+    /**
+     * Start sampling.
+     *
+     * @param pool connection pool of the transport the test runs on, or null
+     */
+    public GeneratorHealthSampler(ConnPoolStats<?> pool) {
+        this.pool = pool;
+        this.startGcMillis = gcMillis();
+        this.thread = Thread.ofPlatform()
+                .name("generator-health")
+                .daemon()
+                .start(this::sampleLoop);
+    }
+
+    /**
+     * Also sample the depth of a buffer that results wait in before consumers see them.
+     */
+    public void watchQueue(LongSupplier depth, int capacity) {
+        this.queueCapacity = capacity;
+        // Published by the volatile write below
+        this.queueDepth = depth;
+    }
+
+    /**
+     * Stop sampling; the sampler can no longer be used afterwards.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stop sampling and summarize what was seen.
+     */
+    public GeneratorHealth finish() {
+        close();
+
+        long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        double gcPercent = wallMillis > 0 ? (gcMillis() - startGcMillis) * 100.0 / wallMillis : 0;
+        double cpuAvg = cpuSamples > 0 ? cpuTotal / cpuSamples : 0;
+
+        List<String> reasons = new ArrayList<>();
+        if (saturated(cpuSaturated, cpuSamples)) {
+            reasons.add(String.format("process CPU at %.0f%% or more (average %.0f%%)", CPU_SATURATED_PERCENT, cpuAvg));
+        }
+        if (gcPercent >= GC_SATURATED_PERCENT) {
+            reasons.add(String.format("GC pauses took %.0f%% of the run", gcPercent));
+        }
+        if (saturated(lagSaturated, samples)) {
+            reasons.add(String.format("virtual thread scheduler lagged up to %d ms",
+                    TimeUnit.NANOSECONDS.toMillis(lagMaxNanos)));
+        }
+        if (saturated(poolSaturated, samples)) {
+            // Leased can stay below the total maximum when the per-route limit is what runs out
+            reasons.add(String.format("connection pool exhausted (up to %d leased, up to %d requests waiting;"
+                    + " the pool is shared with other runs and health checks)", poolLeasedMax, poolPendingMax));
+        }
+        if (saturated(queueSaturated, samples)) {
+            reasons.add(String.format("result queue nearly full (up to %d of %d)", queueDepthMax, queueCapacity));
+        }
+
+        return new GeneratorHealth(
+                samples,
+                cpuAvg,
+                cpuMax,
+                gcPercent,
+                TimeUnit.NANOSECONDS.toMillis(lagMaxNanos),
+                poolLeasedMax,
+                poolPendingMax,
+                poolMax,
+                queueDepthMax,
+                queueCapacity,
+                reasons.isEmpty() ? null : String.join("; ", reasons)
+        );
+    }
+
+    private void sampleLoop() {
+        while (!closed) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(SAMPLE_INTERVAL_MILLIS);
+                sample();
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                log.debug("Generator health sample failed", e);
+            }
+        }
+    }
+
+    private void sample() throws InterruptedException {
+        samples++;
+
+        if (os instanceof com.sun.management.OperatingSystemMXBean sunOs) {
+            double cpu = sunOs.getProcessCpuLoad() * 100;
+            // Negative while the JVM has no reading yet
+            if (cpu >= 0) {
+                cpuSamples++;
+                cpuTotal += cpu;
+                cpuMax = Math.max(cpuMax, cpu);
+                if (cpu >= CPU_SATURATED_PERCENT) {
+                    cpuSaturated++;
+                }
+            }
+        }
+
+        long lagNanos = schedulerLag();
+        lagMaxNanos = Math.max(lagMaxNanos, lagNanos);
+        if (lagNanos >= TimeUnit.MILLISECONDS.toNanos(SCHEDULER_LAG_SATURATED_MILLIS)) {
+            lagSaturated++;
+        }
+
+        if (pool != null) {
+            PoolStats stats = pool.getTotalStats();
+            poolLeasedMax = Math.max(poolLeasedMax, stats.getLeased());
+            poolPendingMax = Math.max(poolPendingMax, stats.getPending());
+            poolMax = stats.getMax();
+            if (stats.getPending() > 0) {
+                poolSaturated++;
+            }
+        }
+
+        LongSupplier depth = queueDepth;
+        if (depth != null) {
+            long current = depth.getAsLong();
+            queueDepthMax = Math.max(queueDepthMax, current);
+            if (current >= queueCapacity * QUEUE_SATURATED_FILL) {
+                queueSaturated++;
+            }
+        }
+    }
+
+    /**
+     * Time a freshly started virtual thread waits before it runs: how far behind the carrier
+     * threads are. Waits at most one sample interval.
+     */
+    private long schedulerLag() throws InterruptedException {
+        AtomicLong ranAt = new AtomicLong();
+        long startedAt = System.nanoTime();
+        Thread probe = Thread.ofVirtual().start(() -> ranAt.set(System.nanoTime()));
+        if (!probe.join(Duration.ofMillis(SAMPLE_INTERVAL_MILLIS))) {
+            return TimeUnit.MILLISECONDS.toNanos(SAMPLE_INTERVAL_MILLIS);
+        }
+        return ranAt.get() - startedAt;
+    }
+
+    private long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            total += Math.max(collector.getCollectionTime(), 0);
+        }
+        return total;
+    }
+
+    private static boolean saturated(int count, int samples) {
+        return samples > 0 && count * 100 >= samples * SATURATED_SHARE_PERCENT;
+    }
+
+}
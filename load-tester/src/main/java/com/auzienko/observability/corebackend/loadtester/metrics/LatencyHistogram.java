@@ -0,0 +1,214 @@
+package com.auzienko.observability.corebackend.loadtester.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-memory, log-bucketed concurrent latency histogram (HdrHistogram layout).
+ * <p>
+ * Values are recorded in nanoseconds. Every power-of-two range is split into linear
+ * sub-buckets sized to keep the requested number of significant decimal digits, so the
+ * footprint depends only on the precision and the highest trackable value, never on how
+ * many samples were recorded. Recording is a single atomic increment per counter and never
+ * blocks; quantiles are answered by walking the bucket counts, without sorting.
+ * <p>
+ * Reads taken while writers are active are not an atomic snapshot; counters recorded
+ * concurrently with a read may or may not be included.
+ */
+public class LatencyHistogram {
+
+    public static final int DEFAULT_SIGNIFICANT_DIGITS = 3;
+    public static final long DEFAULT_HIGHEST_TRACKABLE_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    private final int significantDigits;
+    private final long highestTrackableValue;
+
+    private final int subBucketHalfCountMagnitude;
+    private final int subBucketHalfCount;
+    private final long subBucketMask;
+    private final int leadingZeroCountBase;
+
+    private final AtomicLongArray counts;
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalSum = new LongAdder();
+    private final LongAccumulator minValue = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator maxValue = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        this(DEFAULT_SIGNIFICANT_DIGITS);
+    }
+
+    public LatencyHistogram(int significantDigits) {
+        this(significantDigits, DEFAULT_HIGHEST_TRACKABLE_NANOS);
+    }
+
+    public LatencyHistogram(int significantDigits, long highestTrackableValue) {
+        if (significantDigits < 1 || significantDigits > 5) {
+            throw new IllegalArgumentException("significantDigits must be between 1 and 5");
+        }
+        if (highestTrackableValue < 2) {
+            throw new IllegalArgumentException("highestTrackableValue must be at least 2");
+        }
+        this.significantDigits = significantDigits;
+        this.highestTrackableValue = highestTrackableValue;
+
+        long largestValueWithSingleUnitResolution = 2 * (long) Math.pow(10, significantDigits);
+        int subBucketCountMagnitude = (int) Math.ceil(Math.log(largestValueWithSingleUnitResolution) / Math.log(2));
+        this.subBucketHalfCountMagnitude = subBucketCountMagnitude - 1;
+        int subBucketCount = 1 << subBucketCountMagnitude;
+        this.subBucketHalfCount = subBucketCount / 2;
+        this.subBucketMask = subBucketCount - 1;
+        this.leadingZeroCountBase = 64 - subBucketCountMagnitude;
+
+        int bucketCount = bucketsNeededToCover(highestTrackableValue, subBucketCount);
+        this.counts = new AtomicLongArray((bucketCount + 1) * subBucketHalfCount);
+    }
+
+    private static int bucketsNeededToCover(long value, int subBucketCount) {
+        long smallestUntrackableValue = subBucketCount;
+        int bucketsNeeded = 1;
+        while (smallestUntrackableValue <= value) {
+            if (smallestUntrackableValue > (Long.MAX_VALUE / 2)) {
+                return bucketsNeeded + 1;
+            }
+            smallestUntrackableValue <<= 1;
+            bucketsNeeded++;
+        }
+        return bucketsNeeded;
+    }
+
+    /**
+     * Record a single value in nanoseconds. Negative values are recorded as zero and values
+     * above the highest trackable value are counted in the last bucket (the exact maximum is
+     * still tracked separately).
+     */
+    public void recordValue(long valueNanos) {
+        long value = Math.max(0, valueNanos);
+        counts.incrementAndGet(countsIndexFor(Math.min(value, highestTrackableValue)));
+        totalCount.increment();
+        totalSum.add(value);
+        minValue.accumulate(value);
+        maxValue.accumulate(value);
+    }
+
+    /**
+     * Add all counts recorded in another histogram with the same precision and range.
+     */
+    public void add(LatencyHistogram other) {
+        if (other.counts.length() != counts.length() || other.significantDigits != significantDigits) {
+            throw new IllegalArgumentException("Cannot add histograms with different layouts");
+        }
+        long otherCount = other.getTotalCount();
+        if (otherCount == 0) {
+            return;
+        }
+        for (int i = 0; i < counts.length(); i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        totalCount.add(otherCount);
+        totalSum.add(other.totalSum.sum());
+        minValue.accumulate(other.getMinValue());
+        maxValue.accumulate(other.getMaxValue());
+    }
+
+    /**
+     * Clear all counts. Not atomic with respect to concurrent recording.
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalSum.reset();
+        minValue.reset();
+        maxValue.reset();
+    }
+
+    /**
+     * Create an empty histogram with the same precision and range.
+     */
+    public LatencyHistogram emptyCopy() {
+        return new LatencyHistogram(significantDigits, highestTrackableValue);
+    }
+
+    public long getTotalCount() {
+        return totalCount.sum();
+    }
+
+    public long getMinValue() {
+        return getTotalCount() == 0 ? 0 : minValue.get();
+    }
+
+    public long getMaxValue() {
+        return getTotalCount() == 0 ? 0 : maxValue.get();
+    }
+
+    public double getMean() {
+        long count = getTotalCount();
+        return count == 0 ? 0.0 : (double) totalSum.sum() / count;
+    }
+
+    /**
+     * Value at the given quantile (0.0 - 1.0), reported as the highest value equivalent to
+     * the bucket the quantile falls into and never above the recorded maximum.
+     */
+    public long getValueAtQuantile(double quantile) {
+        long count = getTotalCount();
+        if (count == 0) {
+            return 0;
+        }
+        double q = Math.min(Math.max(quantile, 0.0), 1.0);
+        long countAtQuantile = Math.max(1, (long) Math.ceil(q * count));
+
+        long cumulative = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            cumulative += counts.get(i);
+            if (cumulative >= countAtQuantile) {
+                return Math.min(highestEquivalentValue(valueFromIndex(i)), getMaxValue());
+            }
+        }
+        return getMaxValue();
+    }
+
+    public int getSignificantDigits() {
+        return significantDigits;
+    }
+
+    /**
+     * Approximate heap footprint of the bucket counters, in bytes.
+     */
+    public long getEstimatedFootprintInBytes() {
+        return (long) counts.length() * Long.BYTES;
+    }
+
+    private int countsIndexFor(long value) {
+        int bucketIndex = leadingZeroCountBase - Long.numberOfLeadingZeros(value | subBucketMask);
+        int subBucketIndex = (int) (value >>> bucketIndex);
+        int bucketBaseIndex = (bucketIndex + 1) << subBucketHalfCountMagnitude;
+        return bucketBaseIndex + (subBucketIndex - subBucketHalfCount);
+    }
+
+    private long valueFromIndex(int index) {
+        int bucketIndex = (index >> subBucketHalfCountMagnitude) - 1;
+        int subBucketIndex = (index & (subBucketHalfCount - 1)) + subBucketHalfCount;
+        if (bucketIndex < 0) {
+            subBucketIndex -= subBucketHalfCount;
+            bucketIndex = 0;
+        }
+        return ((long) subBucketIndex) << bucketIndex;
+    }
+
+    private long highestEquivalentValue(long value) {
+        int bucketIndex = leadingZeroCountBase - Long.numberOfLeadingZeros(value | subBucketMask);
+        int subBucketIndex = (int) (value >>> bucketIndex);
+        int adjustedBucket = (subBucketIndex >= subBucketHalfCount * 2) ? bucketIndex + 1 : bucketIndex;
+        long lowestEquivalent = (value >>> adjustedBucket) << adjustedBucket;
+        return lowestEquivalent + (1L << adjustedBucket) - 1;
+    }
+
+}
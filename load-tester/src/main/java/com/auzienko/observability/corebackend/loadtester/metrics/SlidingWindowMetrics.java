@@ -0,0 +1,110 @@
+package com.auzienko.observability.corebackend.loadtester.metrics;
+
+import com.auzienko.observability.corebackend.loadtester.model.LatencyPercentiles;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request counts and response times over the last {@code windowSeconds} seconds.
+ * <p>
+ * Kept as a ring of one-second buckets, each with its own {@link LatencyHistogram}; a snapshot
+ * merges the buckets still inside the window, including the current partial second. Recording
+ * takes no lock except for the first value of a new second, which recycles the oldest bucket.
+ */
+public class SlidingWindowMetrics {
+
+    private final int windowSeconds;
+    private final Bucket[] buckets;
+    private final LatencyHistogram merged;
+
+    public SlidingWindowMetrics(int windowSeconds, int significantDigits) {
+        if (windowSeconds <= 0) {
+            throw new IllegalArgumentException("windowSeconds must be greater than 0");
+        }
+        this.windowSeconds = windowSeconds;
+        // One extra bucket so the oldest second in the window is not recycled while it is read
+        this.buckets = new Bucket[windowSeconds + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket(significantDigits);
+        }
+        this.merged = new LatencyHistogram(significantDigits);
+    }
+
+    public void record(boolean success, long durationNanos) {
+        Bucket bucket = bucketFor(currentSecond());
+        bucket.requests.increment();
+        if (success) {
+            bucket.responseTimes.recordValue(durationNanos);
+        } else {
+            bucket.failedRequests.increment();
+        }
+    }
+
+    public synchronized Snapshot snapshot() {
+        long now = currentSecond();
+        long requests = 0;
+        long failedRequests = 0;
+        merged.reset();
+        for (Bucket bucket : buckets) {
+            if (bucket.second > now - windowSeconds && bucket.second <= now) {
+                requests += bucket.requests.sum();
+                failedRequests += bucket.failedRequests.sum();
+                merged.add(bucket.responseTimes);
+            }
+        }
+        return new Snapshot(requests, failedRequests, LatencyPercentiles.from(merged));
+    }
+
+    public int getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    private Bucket bucketFor(long second) {
+        Bucket bucket = buckets[(int) Math.floorMod(second, (long) buckets.length)];
+        if (bucket.second != second) {
+            synchronized (this) {
+                if (bucket.second != second) {
+                    bucket.reset(second);
+                }
+            }
+        }
+        return bucket;
+    }
+
+    private static long currentSecond() {
+        return TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+    }
+
+    /**
+     * @param latency response times of successful requests
+     */
+    public record Snapshot(long requests, long failedRequests, LatencyPercentiles latency) {
+
+        public double errorRatePercent() {
+            return requests > 0 ? failedRequests * 100.0 / requests : 0.0;
+        }
+
+    }
+
+    private static final class Bucket {
+
+        private volatile long second = Long.MIN_VALUE;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder failedRequests = new LongAdder();
+        private final LatencyHistogram responseTimes;
+
+        private Bucket(int significantDigits) {
+            this.responseTimes = new LatencyHistogram(significantDigits);
+        }
+
+        private void reset(long second) {
+            requests.reset();
+            failedRequests.reset();
+            responseTimes.reset();
+            this.second = second;
+        }
+
+    }
+
+}
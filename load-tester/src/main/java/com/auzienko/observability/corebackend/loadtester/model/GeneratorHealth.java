@@ -0,0 +1,27 @@
+package com.auzienko.observability.corebackend.loadtester.model;
+
+/**
+ * How the load generator itself held up during a run, sampled while it ran.
+ *
+ * @param saturationReason why the generator, rather than the target, probably limited the
+ *                         run, or null if it kept up
+ */
+public record GeneratorHealth(
+        int samples,
+        double avgProcessCpuPercent,
+        double maxProcessCpuPercent,
+        double gcPausePercent,
+        long maxSchedulerLagMs,
+        int maxPoolLeased,
+        int maxPoolPending,
+        int poolMax,
+        long maxQueueDepth,
+        int queueCapacity,
+        String saturationReason
+) {
+
+    public boolean isSaturated() {
+        return saturationReason != null;
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.auzienko.observability.corebackend.loadtester.model;
+
+import com.auzienko.observability.corebackend.loadtester.metrics.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+
+public record LatencyPercentiles(
+        long avgMs,
+        long p50Ms,
+        long p95Ms,
+        long p99Ms,
+        long p999Ms,
+        long maxMs
+) {
+
+    public static LatencyPercentiles from(LatencyHistogram histogram) {
+        return new LatencyPercentiles(
+                TimeUnit.NANOSECONDS.toMillis((long) histogram.getMean()),
+                TimeUnit.NANOSECONDS.toMillis(histogram.getValueAtQuantile(0.50)),
+                TimeUnit.NANOSECONDS.toMillis(histogram.getValueAtQuantile(0.95)),
+                TimeUnit.NANOSECONDS.toMillis(histogram.getValueAtQuantile(0.99)),
+                TimeUnit.NANOSECONDS.toMillis(histogram.getValueAtQuantile(0.999)),
+                TimeUnit.NANOSECONDS.toMillis(histogram.getMaxValue())
+        );
+    }
+
+}
@@ -12,10 +12,17 @@ public record LoadTestMetrics(
         long p50ResponseTimeMs,
         long p95ResponseTimeMs,
         long p99ResponseTimeMs,
+        long p999ResponseTimeMs,
         long minResponseTimeMs,
         long maxResponseTimeMs,
         Map<String, AtomicLong> errorsByType,
-        Map<String, StepMetrics> stepMetrics
+        Map<String, StepMetrics> stepMetrics,
+        // Empty unless the scenario has stages
+        Map<Integer, StageMetrics> stageMetrics,
+        // Latency measured from the intended start time (equal to the raw latency in closed-model runs)
+        LatencyPercentiles correctedLatency,
+        // Empty unless the transport measures request phases
+        Map<RequestPhase, PhaseMetrics> phaseMetrics
 
 ) {
 
@@ -0,0 +1,119 @@
+package com.auzienko.observability.corebackend.loadtester.model;
+
+import com.auzienko.observability.corebackend.loadtester.model.consumer.MetricsConsumer;
+import com.auzienko.observability.corebackend.loadtester.model.consumer.ThresholdConsumer;
+import com.auzienko.observability.corebackend.loadtester.model.consumer.TimeSeriesConsumer;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A load test started in the background, tracked by its run id while it executes
+ * and for a while after it finished.
+ * <p>
+ * The run executes on its own thread; cancelling or aborting it on a threshold breach
+ * interrupts that thread, which every executor treats as a request to stop dispatching
+ * and wind down.
+ */
+@Getter
+public class LoadTestRun {
+
+    private final UUID runId;
+    private final UUID serviceId;
+    private final Instant startedAt;
+    private final MetricsConsumer metrics;
+    private final TimeSeriesConsumer timeSeries;
+
+    private volatile LoadTestRunState state = LoadTestRunState.RUNNING;
+    private volatile boolean cancelRequested;
+    private volatile String abortReason;
+    // Set once the run starts executing, if the scenario has thresholds
+    private volatile ThresholdConsumer thresholds;
+    private volatile Instant finishedAt;
+    // Id of the saved LoadTestResult, once persisted
+    private volatile UUID resultId;
+
+    private Thread runner;
+
+    public LoadTestRun(UUID runId, UUID serviceId, Instant startedAt,
+                       MetricsConsumer metrics, TimeSeriesConsumer timeSeries) {
+        this.runId = runId;
+        this.serviceId = serviceId;
+        this.startedAt = startedAt;
+        this.metrics = metrics;
+        this.timeSeries = timeSeries;
+    }
+
+    public long getTotalRequests() {
+        return metrics.getTotalRequests().get();
+    }
+
+    public long getFailedRequests() {
+        return metrics.getFailedRequests().get();
+    }
+
+    public boolean isFinished() {
+        return state != LoadTestRunState.RUNNING;
+    }
+
+    /**
+     * Start the thread executing this run.
+     */
+    public synchronized void start(Thread runner) {
+        this.runner = runner;
+        if (cancelRequested) {
+            runner.interrupt();
+        }
+        runner.start();
+    }
+
+    /**
+     * Ask the run to stop. Requests already in flight complete and are still counted.
+     *
+     * @return false if the run had already finished
+     */
+    public synchronized boolean cancel() {
+        if (isFinished()) {
+            return false;
+        }
+        cancelRequested = true;
+        if (runner != null) {
+            runner.interrupt();
+        }
+        return true;
+    }
+
+    public void watchThresholds(ThresholdConsumer thresholds) {
+        this.thresholds = thresholds;
+    }
+
+    /**
+     * Abort the run if one of its thresholds is breached.
+     */
+    public void checkThresholds() {
+        ThresholdConsumer current = thresholds;
+        if (current != null && abortReason == null && !isFinished()) {
+            current.check().ifPresent(this::abort);
+        }
+    }
+
+    /**
+     * Stop the run like {@link #cancel()}, recording why.
+     */
+    public synchronized void abort(String reason) {
+        if (isFinished() || cancelRequested) {
+            return;
+        }
+        abortReason = reason;
+        cancel();
+    }
+
+    public void finish(LoadTestRunState finalState, UUID resultId) {
+        this.resultId = resultId;
+        this.finishedAt = Instant.now();
+        timeSeries.complete();
+        this.state = finalState;
+    }
+
+}
@@ -0,0 +1,11 @@
+package com.auzienko.observability.corebackend.loadtester.model;
+
+public enum LoadTestRunState {
+
+    RUNNING,
+    COMPLETED,
+    CANCELLED,
+    ABORTED,
+    FAILED,
+
+}
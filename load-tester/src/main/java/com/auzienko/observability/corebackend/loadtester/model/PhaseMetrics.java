@@ -0,0 +1,17 @@
+package com.auzienko.observability.corebackend.loadtester.model;
+
+import com.auzienko.observability.corebackend.loadtester.metrics.LatencyHistogram;
+
+/**
+ * Latency of one {@link RequestPhase} over the requests in which it happened.
+ */
+public record PhaseMetrics(
+        long count,
+        LatencyPercentiles latency
+) {
+
+    public static PhaseMetrics from(LatencyHistogram histogram) {
+        return new PhaseMetrics(histogram.getTotalCount(), LatencyPercentiles.from(histogram));
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.auzienko.observability.corebackend.loadtester.model;
+
+/**
+ * Where the time of one request went, in nanoseconds. A phase that did not happen is
+ * {@link #NOT_MEASURED}: connect and TLS only happen when a new connection is opened,
+ * first byte and body only when a response arrived.
+ *
+ * @param poolWaitNanos  waiting to lease a connection from the client pool
+ * @param connectNanos   DNS resolution and TCP connect of a new connection
+ * @param tlsNanos       TLS handshake of a new connection
+ * @param firstByteNanos sending the request until the response head arrived (mostly server time)
+ * @param bodyNanos      reading the response body
+ */
+public record PhaseTimings(
+        long poolWaitNanos,
+        long connectNanos,
+        long tlsNanos,
+        long firstByteNanos,
+        long bodyNanos
+) {
+
+    public static final long NOT_MEASURED = -1;
+
+    public long nanos(RequestPhase phase) {
+        return switch (phase) {
+            case POOL_WAIT -> poolWaitNanos;
+            case CONNECT -> connectNanos;
+            case TLS -> tlsNanos;
+            case FIRST_BYTE -> firstByteNanos;
+            case BODY -> bodyNanos;
+        };
+    }
+
+}
@@ -1,13 +1,17 @@
 package com.auzienko.observability.corebackend.loadtester.model;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.Instant;
 import java.util.Map;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class RawRequestResult {
 
     // Execution context
@@ -15,6 +19,8 @@ public class RawRequestResult {
     private int iteration;
     private int stepIndex;
     private String stepName;
+    // Index in LoadTestScenario.stages when the iteration started, -1 without stages
+    private int stageIndex;
 
     // Request data
     private String url;
@@ -25,22 +31,60 @@ public class RawRequestResult {
     // Timing
     private Instant startTime;
     private long durationNanos;
+    // Delay between the intended (scheduled) and actual start of the iteration, open model only
+    private long scheduleLagNanos;
+    // Breakdown of durationNanos, null when the transport does not measure phases
+    private PhaseTimings phases;
 
     // Response data
     private Integer statusCode;
     private Map<String, String> responseHeaders;
     private String responseBody;
+    private long responseBytes;
 
     // Status
     private boolean success;
     private String errorType;
     private String errorMessage;
 
+    /**
+     * Overwrite all fields with those of {@code other}, for holders that are reused.
+     */
+    public void copyFrom(RawRequestResult other) {
+        workerId = other.workerId;
+        iteration = other.iteration;
+        stepIndex = other.stepIndex;
+        stepName = other.stepName;
+        stageIndex = other.stageIndex;
+        url = other.url;
+        method = other.method;
+        requestHeaders = other.requestHeaders;
+        requestBody = other.requestBody;
+        startTime = other.startTime;
+        durationNanos = other.durationNanos;
+        scheduleLagNanos = other.scheduleLagNanos;
+        phases = other.phases;
+        statusCode = other.statusCode;
+        responseHeaders = other.responseHeaders;
+        responseBody = other.responseBody;
+        responseBytes = other.responseBytes;
+        success = other.success;
+        errorType = other.errorType;
+        errorMessage = other.errorMessage;
+    }
+
     // Util methods
     public long getDurationMs() {
         return durationNanos / 1_000_000;
     }
 
+    /**
+     * Latency as seen from the intended start time, corrected for coordinated omission.
+     */
+    public long getCorrectedDurationNanos() {
+        return durationNanos + scheduleLagNanos;
+    }
+
     public boolean isHttpError() {
         return statusCode != null && (statusCode >= 400);
     }
@@ -0,0 +1,14 @@
+package com.auzienko.observability.corebackend.loadtester.model;
+
+/**
+ * Phases of an HTTP exchange, see {@link PhaseTimings}.
+ */
+public enum RequestPhase {
+
+    POOL_WAIT,
+    CONNECT,
+    TLS,
+    FIRST_BYTE,
+    BODY,
+
+}
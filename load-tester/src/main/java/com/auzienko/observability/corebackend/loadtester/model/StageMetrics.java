@@ -0,0 +1,13 @@
+package com.auzienko.observability.corebackend.loadtester.model;
+
+/**
+ * Metrics of one stage of a staged profile, keyed by the stage index in
+ * {@link LoadTestMetrics#stageMetrics()}. Requests belong to the stage their iteration started in.
+ */
+public record StageMetrics(
+        long requestCount,
+        long failedRequests,
+        LatencyPercentiles latency,
+        LatencyPercentiles correctedLatency
+) {
+}
@@ -1,9 +1,29 @@
 package com.auzienko.observability.corebackend.loadtester.model;
 
+import com.auzienko.observability.corebackend.loadtester.metrics.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+
 public record StepMetrics(
         long requestCount,
         long avgResponseTimeMs,
+        long p50ResponseTimeMs,
         long p95ResponseTimeMs,
-        long p99ResponseTimeMs
+        long p99ResponseTimeMs,
+        long p999ResponseTimeMs,
+        long maxResponseTimeMs
 ) {
-}
\ No newline at end of file
+
+    public static StepMetrics from(LatencyHistogram histogram) {
+        return new StepMetrics(
+                histogram.getTotalCount(),
+                TimeUnit.NANOSECONDS.toMillis((long) histogram.getMean()),
+                TimeUnit.NANOSECONDS.toMillis(histogram.getValueAtQuantile(0.50)),
+                TimeUnit.NANOSECONDS.toMillis(histogram.getValueAtQuantile(0.95)),
+                TimeUnit.NANOSECONDS.toMillis(histogram.getValueAtQuantile(0.99)),
+                TimeUnit.NANOSECONDS.toMillis(histogram.getValueAtQuantile(0.999)),
+                TimeUnit.NANOSECONDS.toMillis(histogram.getMaxValue())
+        );
+    }
+
+}
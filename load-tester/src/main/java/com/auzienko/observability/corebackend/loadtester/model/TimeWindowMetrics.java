@@ -0,0 +1,18 @@
+package com.auzienko.observability.corebackend.loadtester.model;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Metrics of one second of a running load test, bucketed by the time each result was
+ * recorded. Seconds without any completed request are still reported, with zero counts,
+ * so a stalled target shows up as a gap in throughput rather than a gap in the series.
+ */
+public record TimeWindowMetrics(
+        Instant windowStart,
+        long requests,
+        long failedRequests,
+        Map<String, Long> errorsByType,
+        LatencyPercentiles latency
+) {
+}
@@ -0,0 +1,262 @@
+package com.auzienko.observability.corebackend.loadtester.model.consumer;
+
+import com.auzienko.observability.corebackend.domain.model.OverflowPolicy;
+import com.auzienko.observability.corebackend.domain.model.ResultDelivery;
+import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.AbstractList;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Moves result consumption off the worker threads.
+ * <p>
+ * Workers publish into a preallocated multi-producer/single-consumer ring buffer: claiming a
+ * slot is one CAS and publishing copies the result's fields into the slot's holder, so no
+ * garbage is created per request. A single delivery thread drains contiguous published slots
+ * and passes them to the downstream consumer in batches ({@link BatchConsumer} if supported,
+ * one by one otherwise), then frees the slots. When the ring is full the
+ * {@link OverflowPolicy} decides whether the worker waits or the result is dropped.
+ * <p>
+ * {@link #close()} drains everything published so far, so downstream aggregates are complete
+ * once it returns, even when the closing thread has been interrupted.
+ */
+@Slf4j
+public class AsyncDeliveryConsumer implements Consumer<RawRequestResult>, CaptureRequirements, AutoCloseable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 65_536;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1024;
+    public static final int DEFAULT_SAMPLE_RATE = 10;
+
+    private static final long PRODUCER_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+    private static final long IDLE_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final Consumer<RawRequestResult> downstream;
+    private final Set<ResultField> requiredFields;
+    // Retaining consumers keep the result objects, so those are handed over instead of copied
+    private final boolean retained;
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleRate;
+    private final int maxBatchSize;
+
+    private final int mask;
+    private final RawRequestResult[] slots;
+    // Vyukov-style sequence per slot: equal to the position when free, position + 1 when published
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    // Only written by the delivery thread; volatile so the queue depth can be sampled
+    private volatile long head;
+
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong overflows = new AtomicLong();
+
+    private final Thread deliveryThread;
+    private volatile boolean closed;
+
+    public AsyncDeliveryConsumer(ResultDelivery settings, Consumer<RawRequestResult> downstream) {
+        this.downstream = downstream;
+        this.requiredFields = CaptureRequirements.of(downstream);
+        this.retained = requiredFields.contains(ResultField.RETAINED);
+        this.overflowPolicy = settings.getOverflowPolicy() != null ? settings.getOverflowPolicy() : OverflowPolicy.BLOCK;
+        this.sampleRate = settings.getSampleRate() != null ? settings.getSampleRate() : DEFAULT_SAMPLE_RATE;
+        this.maxBatchSize = settings.getMaxBatchSize() != null ? settings.getMaxBatchSize() : DEFAULT_MAX_BATCH_SIZE;
+        int requestedSize = settings.getBufferSize() != null ? settings.getBufferSize() : DEFAULT_BUFFER_SIZE;
+        if (requestedSize <= 0 || requestedSize > (1 << 30)) {
+            throw new IllegalArgumentException("bufferSize must be between 1 and 2^30");
+        }
+        if (sampleRate <= 0 || maxBatchSize <= 0) {
+            throw new IllegalArgumentException("sampleRate and maxBatchSize must be greater than 0");
+        }
+
+        int capacity = Integer.bitCount(requestedSize) == 1 ? requestedSize : Integer.highestOneBit(requestedSize) << 1;
+        this.mask = capacity - 1;
+        this.slots = new RawRequestResult[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            if (!retained) {
+                slots[i] = new RawRequestResult();
+            }
+            sequences.set(i, i);
+        }
+
+        this.deliveryThread = Thread.ofPlatform()
+                .name("result-delivery")
+                .daemon()
+                .start(this::deliverLoop);
+    }
+
+    @Override
+    public void accept(RawRequestResult result) {
+        boolean waiting = false;
+        while (!closed) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long available = sequences.getAcquire(index) - position;
+
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    publish(index, position, result);
+                    return;
+                }
+            } else if (available < 0) {
+                // Full: the slot still holds a result from the previous lap
+                if (!waiting && !mayWait()) {
+                    dropped.increment();
+                    return;
+                }
+                waiting = true;
+                LockSupport.parkNanos(PRODUCER_WAIT_NANOS);
+            }
+        }
+        dropped.increment();
+    }
+
+    @Override
+    public Set<ResultField> requiredFields() {
+        return requiredFields;
+    }
+
+    /**
+     * @return results not delivered because the buffer was full (or the consumer already closed)
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return results waiting in the buffer
+     */
+    public long getQueueDepth() {
+        return Math.max(tail.get() - head, 0);
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(deliveryThread);
+        // Cancelled runs close with the interrupt still set; finish the drain anyway, then restore it
+        boolean interrupted = false;
+        while (deliveryThread.isAlive()) {
+            try {
+                deliveryThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (dropped.sum() > 0) {
+            log.warn("Result delivery dropped {} results (overflow policy {})", dropped.sum(), overflowPolicy);
+        }
+    }
+
+    private void publish(int index, long position, RawRequestResult result) {
+        if (retained) {
+            slots[index] = result;
+        } else {
+            slots[index].copyFrom(result);
+        }
+        sequences.setRelease(index, position + 1);
+    }
+
+    /**
+     * Decides, once per result that finds the buffer full, whether to wait for space or drop it.
+     */
+    private boolean mayWait() {
+        return switch (overflowPolicy) {
+            case BLOCK -> true;
+            case DROP -> false;
+            case SAMPLE -> overflows.incrementAndGet() % sampleRate == 0;
+        };
+    }
+
+    private void deliverLoop() {
+        Batch batch = new Batch();
+        while (true) {
+            // Read the flag before draining, so results published before close() are not missed
+            boolean closing = closed;
+            int count = drain(batch);
+            if (count == 0) {
+                if (closing) {
+                    return;
+                }
+                LockSupport.parkNanos(IDLE_WAIT_NANOS);
+            }
+        }
+    }
+
+    private int drain(Batch batch) {
+        long start = head;
+        int count = 0;
+        while (count < maxBatchSize && sequences.getAcquire((int) (start + count) & mask) == start + count + 1) {
+            count++;
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        batch.reset(start, count);
+        try {
+            if (downstream instanceof BatchConsumer batchConsumer) {
+                batchConsumer.acceptBatch(batch);
+            } else {
+                for (int i = 0; i < count; i++) {
+                    downstream.accept(batch.get(i));
+                }
+            }
+        } catch (Exception e) {
+            log.error("Consumer failed to process results", e);
+        }
+
+        for (int i = 0; i < count; i++) {
+            long position = start + i;
+            int index = (int) position & mask;
+            if (retained) {
+                slots[index] = null;
+            }
+            sequences.setRelease(index, position + mask + 1);
+        }
+        head = start + count;
+        return count;
+    }
+
+    /**
+     * Reusable list view of the slots being delivered.
+     */
+    private final class Batch extends AbstractList<RawRequestResult> {
+
+        private long start;
+        private int size;
+
+        private void reset(long start, int size) {
+            this.start = start;
+            this.size = size;
+        }
+
+        @Override
+        public RawRequestResult get(int i) {
+            return slots[(int) (start + i) & mask];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+    }
+
+}
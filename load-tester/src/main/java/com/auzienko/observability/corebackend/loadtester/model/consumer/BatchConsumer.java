@@ -0,0 +1,16 @@
+package com.auzienko.observability.corebackend.loadtester.model.consumer;
+
+import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
+
+import java.util.List;
+
+/**
+ * Implemented by consumers that can take a batch of results in one call, as delivered by
+ * {@link AsyncDeliveryConsumer}. The list and its elements are only valid during the call
+ * unless the consumer declares {@link ResultField#RETAINED}.
+ */
+public interface BatchConsumer {
+
+    void acceptBatch(List<RawRequestResult> batch);
+
+}
@@ -0,0 +1,25 @@
+package com.auzienko.observability.corebackend.loadtester.model.consumer;
+
+import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Implemented by consumers to declare which optional {@link ResultField}s they read.
+ * Executors only capture what at least one consumer needs; consumers that don't implement
+ * this interface get everything.
+ */
+public interface CaptureRequirements {
+
+    Set<ResultField> requiredFields();
+
+    static Set<ResultField> of(Consumer<RawRequestResult> consumer) {
+        if (consumer instanceof CaptureRequirements requirements) {
+            return requirements.requiredFields();
+        }
+        return EnumSet.allOf(ResultField.class);
+    }
+
+}
@@ -1,16 +1,21 @@
 package com.auzienko.observability.corebackend.loadtester.model.consumer;
 
 import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
+import lombok.extern.slf4j.Slf4j;
 
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Consumer;
 
 /**
  * Composite consumer that broadcasts to multiple consumers.
  * Allows combining different behaviors.
+ * Captures the union of what its consumers need.
  */
-public class CompositeConsumer implements Consumer<RawRequestResult> {
+@Slf4j
+public class CompositeConsumer implements Consumer<RawRequestResult>, BatchConsumer, CaptureRequirements {
 
     private final List<Consumer<RawRequestResult>> consumers;
 
@@ -25,9 +30,34 @@ public class CompositeConsumer implements Consumer<RawRequestResult> {
             try {
                 consumer.accept(result);
             } catch (Exception e) {
-                System.err.println("Consumer failed: " + e.getMessage());
+                log.error("Consumer {} failed to process a result", consumer.getClass().getSimpleName(), e);
             }
         }
     }
 
+    @Override
+    public void acceptBatch(List<RawRequestResult> batch) {
+        for (Consumer<RawRequestResult> consumer : consumers) {
+            try {
+                if (consumer instanceof BatchConsumer batchConsumer) {
+                    batchConsumer.acceptBatch(batch);
+                } else {
+                    batch.forEach(consumer);
+                }
+            } catch (Exception e) {
+                log.error("Consumer {} failed to process a batch of {} results",
+                        consumer.getClass().getSimpleName(), batch.size(), e);
+            }
+        }
+    }
+
+    @Override
+    public Set<ResultField> requiredFields() {
+        EnumSet<ResultField> fields = EnumSet.noneOf(ResultField.class);
+        for (Consumer<RawRequestResult> consumer : consumers) {
+            fields.addAll(CaptureRequirements.of(consumer));
+        }
+        return fields;
+    }
+
 }
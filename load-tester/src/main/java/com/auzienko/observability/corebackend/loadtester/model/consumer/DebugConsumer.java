@@ -2,13 +2,15 @@ package com.auzienko.observability.corebackend.loadtester.model.consumer;
 
 import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
 
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.function.Consumer;
 
 /**
  * Debug consumer that logs detailed information.
  * Useful for troubleshooting failed tests.
  */
-public class DebugConsumer implements Consumer<RawRequestResult> {
+public class DebugConsumer implements Consumer<RawRequestResult>, CaptureRequirements {
     private final boolean logSuccessful;
     private final boolean logRequestBody;
     private final boolean logResponseBody;
@@ -53,6 +55,18 @@ public class DebugConsumer implements Consumer<RawRequestResult> {
         }
     }
 
+    @Override
+    public Set<ResultField> requiredFields() {
+        EnumSet<ResultField> fields = EnumSet.noneOf(ResultField.class);
+        if (logRequestBody) {
+            fields.add(ResultField.REQUEST_BODY);
+        }
+        if (logResponseBody) {
+            fields.add(ResultField.RESPONSE_BODY);
+        }
+        return fields;
+    }
+
     private String truncate(String str, int maxLen) {
         return str.length() > maxLen ? str.substring(0, maxLen) + "..." : str;
     }
@@ -0,0 +1,155 @@
+package com.auzienko.observability.corebackend.loadtester.model.consumer;
+
+import com.auzienko.observability.corebackend.domain.model.FailureFingerprint;
+import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Groups failures by fingerprint (step, error type, status code and error message with
+ * numbers and ids masked) and counts them, instead of keeping every failed result.
+ * A million identical connection errors end up as one fingerprint with a count.
+ * <p>
+ * The number of fingerprints is capped; once reached, new kinds of failures are counted
+ * under a single {@value #OTHER} fingerprint.
+ */
+public class FailureFingerprintConsumer implements Consumer<RawRequestResult>, CaptureRequirements {
+
+    public static final int MAX_FINGERPRINTS = 1000;
+    public static final String OTHER = "OTHER";
+
+    private static final int MAX_MESSAGE_LENGTH = 500;
+    // Raw messages seen recently, so repeated messages are only normalized once
+    private static final int MAX_CACHED_MESSAGES = 10_000;
+
+    private static final Pattern UUID = Pattern.compile(
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+    private static final Pattern HEX_ID = Pattern.compile("\\b(?=[0-9a-fA-F]*[0-9])[0-9a-fA-F]{8,}\\b");
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+
+    private final Map<Key, Group> groups = new ConcurrentHashMap<>();
+    private final Map<String, String> normalizedMessages = new ConcurrentHashMap<>();
+
+    @Override
+    public void accept(RawRequestResult result) {
+        if (result.isSuccess()) {
+            return;
+        }
+
+        Key key = new Key(result.getStepName(), result.getErrorType(), result.getStatusCode(),
+                normalize(result.getErrorMessage()));
+        Group group = groups.get(key);
+        if (group == null) {
+            if (groups.size() >= MAX_FINGERPRINTS) {
+                key = new Key(null, OTHER, null, null);
+            }
+            group = groups.computeIfAbsent(key, k -> new Group(k, result));
+        }
+        group.record(result.getStartTime());
+    }
+
+    @Override
+    public Set<ResultField> requiredFields() {
+        return EnumSet.noneOf(ResultField.class);
+    }
+
+    public long getFailureCount() {
+        return groups.values().stream().mapToLong(group -> group.count.get()).sum();
+    }
+
+    /**
+     * Fingerprints seen so far, most frequent first.
+     */
+    public List<FailureFingerprint> getFingerprints() {
+        return groups.values().stream()
+                .map(Group::toFingerprint)
+                .sorted(Comparator.comparingLong(FailureFingerprint::getCount).reversed())
+                .toList();
+    }
+
+    static String mask(String message) {
+        String masked = UUID.matcher(message).replaceAll("<uuid>");
+        masked = HEX_ID.matcher(masked).replaceAll("<id>");
+        masked = NUMBER.matcher(masked).replaceAll("<n>");
+        return truncate(masked);
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > MAX_MESSAGE_LENGTH
+                ? message.substring(0, MAX_MESSAGE_LENGTH)
+                : message;
+    }
+
+    private String normalize(String message) {
+        if (message == null) {
+            return null;
+        }
+        String normalized = normalizedMessages.get(message);
+        if (normalized == null) {
+            normalized = mask(message);
+            if (normalizedMessages.size() < MAX_CACHED_MESSAGES) {
+                normalizedMessages.put(message, normalized);
+            }
+        }
+        return normalized;
+    }
+
+    private record Key(String stepName, String errorType, Integer statusCode, String message) {
+    }
+
+    private static final class Group {
+
+        private final Key key;
+        private final String sampleMethod;
+        private final String sampleUrl;
+        private final String sampleErrorMessage;
+
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong firstSeenNanos = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong lastSeenNanos = new AtomicLong(Long.MIN_VALUE);
+
+        private Group(Key key, RawRequestResult sample) {
+            this.key = key;
+            // Results may be reused after accept returns, so only the values are kept
+            this.sampleMethod = sample.getMethod();
+            this.sampleUrl = sample.getUrl();
+            this.sampleErrorMessage = truncate(sample.getErrorMessage());
+        }
+
+        void record(Instant startTime) {
+            count.incrementAndGet();
+            if (startTime != null) {
+                long nanos = startTime.getEpochSecond() * 1_000_000_000L + startTime.getNano();
+                firstSeenNanos.accumulateAndGet(nanos, Math::min);
+                lastSeenNanos.accumulateAndGet(nanos, Math::max);
+            }
+        }
+
+        FailureFingerprint toFingerprint() {
+            long first = firstSeenNanos.get();
+            long last = lastSeenNanos.get();
+            return new FailureFingerprint()
+                    .setStepName(key.stepName())
+                    .setErrorType(key.errorType())
+                    .setStatusCode(key.statusCode())
+                    .setMessage(key.message())
+                    .setCount(count.get())
+                    .setFirstSeen(first != Long.MAX_VALUE ? Instant.ofEpochSecond(0, first) : null)
+                    .setLastSeen(last != Long.MIN_VALUE ? Instant.ofEpochSecond(0, last) : null)
+                    .setSampleMethod(sampleMethod)
+                    .setSampleUrl(sampleUrl)
+                    .setSampleErrorMessage(sampleErrorMessage);
+        }
+
+    }
+
+}
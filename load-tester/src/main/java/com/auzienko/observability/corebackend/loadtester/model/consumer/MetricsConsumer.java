@@ -1,26 +1,42 @@
 package com.auzienko.observability.corebackend.loadtester.model.consumer;
 
+import com.auzienko.observability.corebackend.loadtester.metrics.LatencyHistogram;
+import com.auzienko.observability.corebackend.loadtester.model.LatencyPercentiles;
 import com.auzienko.observability.corebackend.loadtester.model.LoadTestMetrics;
+import com.auzienko.observability.corebackend.loadtester.model.PhaseMetrics;
+import com.auzienko.observability.corebackend.loadtester.model.PhaseTimings;
 import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
+import com.auzienko.observability.corebackend.loadtester.model.RequestPhase;
+import com.auzienko.observability.corebackend.loadtester.model.StageMetrics;
 import com.auzienko.observability.corebackend.loadtester.model.StepMetrics;
 import lombok.Getter;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 
 /**
  * Aggregating consumer for load test metrics.
  * Calculates statistics like p95, p99, etc.
+ * <p>
+ * Successful response times are recorded into fixed-size {@link LatencyHistogram}s,
+ * so memory stays constant regardless of test length and recording never takes a lock.
  */
-public class MetricsConsumer implements Consumer<RawRequestResult> {
+public class MetricsConsumer implements Consumer<RawRequestResult>, CaptureRequirements {
 
-    private final List<Long> successfulResponseTimes = Collections.synchronizedList(new ArrayList<>());
+    private final int significantDigits;
+
+    private final LatencyHistogram successfulResponseTimes;
+    private final LatencyHistogram correctedResponseTimes;
+    private final Map<RequestPhase, LatencyHistogram> phaseTimes = new EnumMap<>(RequestPhase.class);
 
     @Getter
     private final AtomicLong totalRequests = new AtomicLong(0);
@@ -32,81 +48,156 @@ public class MetricsConsumer implements Consumer<RawRequestResult> {
     private final AtomicLong failedRequests = new AtomicLong(0);
 
     private final Map<String, AtomicLong> errorsByType = new ConcurrentHashMap<>();
-    private final Map<String, AtomicLong> requestsByStep = new ConcurrentHashMap<>();
-    private final Map<String, List<Long>> responseTimesByStep = new ConcurrentHashMap<>();
+    private final Map<Integer, StepRecorder> steps = new ConcurrentHashMap<>();
+    private final Map<Integer, StageRecorder> stages = new ConcurrentHashMap<>();
+
+    public MetricsConsumer() {
+        this(LatencyHistogram.DEFAULT_SIGNIFICANT_DIGITS);
+    }
+
+    public MetricsConsumer(int significantDigits) {
+        this.significantDigits = significantDigits;
+        this.successfulResponseTimes = new LatencyHistogram(significantDigits);
+        this.correctedResponseTimes = new LatencyHistogram(significantDigits);
+        for (RequestPhase phase : RequestPhase.values()) {
+            phaseTimes.put(phase, new LatencyHistogram(significantDigits));
+        }
+    }
 
     @Override
     public void accept(RawRequestResult result) {
         totalRequests.incrementAndGet();
 
         // Track by step
-        String stepKey = "step_" + result.getStepIndex() + "_" +
-                (result.getStepName() != null ? result.getStepName() : "unnamed");
-        requestsByStep.computeIfAbsent(stepKey, k -> new AtomicLong(0)).incrementAndGet();
+        StepRecorder step = steps.computeIfAbsent(result.getStepIndex(),
+                index -> new StepRecorder(stepKey(index, result.getStepName()), significantDigits));
+
+        // Track by stage (staged profiles only)
+        StageRecorder stage = result.getStageIndex() >= 0
+                ? stages.computeIfAbsent(result.getStageIndex(), index -> new StageRecorder(significantDigits))
+                : null;
+        if (stage != null) {
+            stage.requests.increment();
+        }
+
+        // Phases are recorded for failures too: a pool wait timeout is exactly what they should show
+        PhaseTimings phases = result.getPhases();
+        if (phases != null) {
+            recordPhases(phases);
+        }
 
         if (result.isSuccess()) {
             successfulRequests.incrementAndGet();
-            long durationMs = result.getDurationMs();
-            successfulResponseTimes.add(durationMs);
+            successfulResponseTimes.recordValue(result.getDurationNanos());
+            correctedResponseTimes.recordValue(result.getCorrectedDurationNanos());
 
             // Track response times by step
-            responseTimesByStep
-                    .computeIfAbsent(stepKey, k -> Collections.synchronizedList(new ArrayList<>()))
-                    .add(durationMs);
+            step.responseTimes.recordValue(result.getDurationNanos());
+
+            if (stage != null) {
+                stage.responseTimes.recordValue(result.getDurationNanos());
+                stage.correctedResponseTimes.recordValue(result.getCorrectedDurationNanos());
+            }
 
         } else {
             failedRequests.incrementAndGet();
+            if (stage != null) {
+                stage.failedRequests.increment();
+            }
             String errorType = result.getErrorType() != null ? result.getErrorType() : "UNKNOWN";
             errorsByType.computeIfAbsent(errorType, k -> new AtomicLong(0)).incrementAndGet();
         }
     }
 
-    public LoadTestMetrics getMetrics() {
-        List<Long> sortedTimes = new ArrayList<>(successfulResponseTimes);
-        sortedTimes.sort(Long::compareTo);
+    @Override
+    public Set<ResultField> requiredFields() {
+        return EnumSet.noneOf(ResultField.class);
+    }
 
+    public LoadTestMetrics getMetrics() {
         Map<String, StepMetrics> stepMetrics = new HashMap<>();
-        responseTimesByStep.forEach((stepKey, times) -> {
-            List<Long> sortedStepTimes = new ArrayList<>(times);
-            sortedStepTimes.sort(Long::compareTo);
-            stepMetrics.put(stepKey, calculateStepMetrics(sortedStepTimes));
+        steps.values().forEach(step -> stepMetrics.put(step.key, StepMetrics.from(step.responseTimes)));
+
+        Map<Integer, StageMetrics> stageMetrics = new TreeMap<>();
+        stages.forEach((index, stage) -> stageMetrics.put(index, stage.toMetrics()));
+
+        Map<RequestPhase, PhaseMetrics> phaseMetrics = new EnumMap<>(RequestPhase.class);
+        phaseTimes.forEach((phase, times) -> {
+            if (times.getTotalCount() > 0) {
+                phaseMetrics.put(phase, PhaseMetrics.from(times));
+            }
         });
 
+        LatencyHistogram times = successfulResponseTimes;
         return new LoadTestMetrics(
                 totalRequests.get(),
                 successfulRequests.get(),
                 failedRequests.get(),
-                calculateAverage(sortedTimes),
-                calculatePercentile(sortedTimes, 0.50),
-                calculatePercentile(sortedTimes, 0.95),
-                calculatePercentile(sortedTimes, 0.99),
-                sortedTimes.isEmpty() ? 0 : sortedTimes.get(0),
-                sortedTimes.isEmpty() ? 0 : sortedTimes.get(sortedTimes.size() - 1),
+                toMillis((long) times.getMean()),
+                toMillis(times.getValueAtQuantile(0.50)),
+                toMillis(times.getValueAtQuantile(0.95)),
+                toMillis(times.getValueAtQuantile(0.99)),
+                toMillis(times.getValueAtQuantile(0.999)),
+                toMillis(times.getMinValue()),
+                toMillis(times.getMaxValue()),
                 new HashMap<>(errorsByType),
-                stepMetrics
+                stepMetrics,
+                stageMetrics,
+                LatencyPercentiles.from(correctedResponseTimes),
+                phaseMetrics
         );
     }
 
-    private StepMetrics calculateStepMetrics(List<Long> sortedTimes) {
-        return new StepMetrics(
-                sortedTimes.size(),
-                calculateAverage(sortedTimes),
-                calculatePercentile(sortedTimes, 0.95),
-                calculatePercentile(sortedTimes, 0.99)
-        );
+    private void recordPhases(PhaseTimings phases) {
+        for (RequestPhase phase : RequestPhase.values()) {
+            long nanos = phases.nanos(phase);
+            if (nanos != PhaseTimings.NOT_MEASURED) {
+                phaseTimes.get(phase).recordValue(nanos);
+            }
+        }
+    }
+
+    private static String stepKey(int stepIndex, String stepName) {
+        return "step_" + stepIndex + "_" + (stepName != null ? stepName : "unnamed");
     }
 
-    private long calculateAverage(List<Long> times) {
-        if (times.isEmpty()) return 0;
-        return (long) times.stream().mapToLong(Long::longValue).average().orElse(0.0);
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static final class StepRecorder {
+
+        private final String key;
+        private final LatencyHistogram responseTimes;
+
+        private StepRecorder(String key, int significantDigits) {
+            this.key = key;
+            this.responseTimes = new LatencyHistogram(significantDigits);
+        }
+
     }
 
-    private long calculatePercentile(List<Long> sortedTimes, double percentile) {
-        if (sortedTimes.isEmpty()) return 0;
-        if (sortedTimes.size() == 1) return sortedTimes.get(0);
-        int index = (int) Math.ceil(sortedTimes.size() * percentile) - 1;
-        index = Math.max(0, Math.min(index, sortedTimes.size() - 1));
-        return sortedTimes.get(index);
+    private static final class StageRecorder {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder failedRequests = new LongAdder();
+        private final LatencyHistogram responseTimes;
+        private final LatencyHistogram correctedResponseTimes;
+
+        private StageRecorder(int significantDigits) {
+            this.responseTimes = new LatencyHistogram(significantDigits);
+            this.correctedResponseTimes = new LatencyHistogram(significantDigits);
+        }
+
+        private StageMetrics toMetrics() {
+            return new StageMetrics(
+                    requests.sum(),
+                    failedRequests.sum(),
+                    LatencyPercentiles.from(responseTimes),
+                    LatencyPercentiles.from(correctedResponseTimes)
+            );
+        }
+
     }
 
 }
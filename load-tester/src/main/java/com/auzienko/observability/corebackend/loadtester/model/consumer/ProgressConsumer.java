@@ -3,40 +3,65 @@ package com.auzienko.observability.corebackend.loadtester.model.consumer;
 import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
 import lombok.Getter;
 
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 /**
  * Real-time progress consumer.
  * Can trigger callbacks for UI updates.
+ * <p>
+ * Progress is the share of expected requests completed, or for duration-based tests, where
+ * the request count is unknown upfront, the share of the expected duration elapsed.
  */
-public class ProgressConsumer implements Consumer<RawRequestResult> {
+public class ProgressConsumer implements Consumer<RawRequestResult>, CaptureRequirements {
     @Getter
     private final AtomicLong completedRequests = new AtomicLong(0);
     private final long expectedTotal;
+    private final long expectedDurationNanos;
+    private final long startNanos = System.nanoTime();
     private final Consumer<Double> progressCallback;
     private long lastCallbackTime = 0;
     private final long callbackIntervalMs;
 
     public ProgressConsumer(long expectedTotal, Consumer<Double> progressCallback, long callbackIntervalMs) {
+        this(expectedTotal, 0, progressCallback, callbackIntervalMs);
+    }
+
+    public ProgressConsumer(Duration expectedDuration, Consumer<Double> progressCallback, long callbackIntervalMs) {
+        this(0, expectedDuration.toNanos(), progressCallback, callbackIntervalMs);
+    }
+
+    private ProgressConsumer(long expectedTotal, long expectedDurationNanos,
+                             Consumer<Double> progressCallback, long callbackIntervalMs) {
         this.expectedTotal = expectedTotal;
+        this.expectedDurationNanos = expectedDurationNanos;
         this.progressCallback = progressCallback;
         this.callbackIntervalMs = callbackIntervalMs;
     }
 
     @Override
     public void accept(RawRequestResult result) {
-        long completed = completedRequests.incrementAndGet();
+        completedRequests.incrementAndGet();
 
         long now = System.currentTimeMillis();
         if (now - lastCallbackTime >= callbackIntervalMs) {
             lastCallbackTime = now;
-            double progress = expectedTotal > 0 ? (completed * 100.0) / expectedTotal : 0.0;
-            progressCallback.accept(progress);
+            progressCallback.accept(getProgress());
         }
     }
 
+    @Override
+    public Set<ResultField> requiredFields() {
+        return EnumSet.noneOf(ResultField.class);
+    }
+
     public double getProgress() {
+        if (expectedDurationNanos > 0) {
+            return Math.min(100.0, (System.nanoTime() - startNanos) * 100.0 / expectedDurationNanos);
+        }
         return expectedTotal > 0 ? (completedRequests.get() * 100.0) / expectedTotal : 0.0;
     }
 
@@ -0,0 +1,19 @@
+package com.auzienko.observability.corebackend.loadtester.model.consumer;
+
+/**
+ * Optional parts of a {@link com.auzienko.observability.corebackend.loadtester.model.RawRequestResult}.
+ * Execution context, timing, status and error fields are always filled in.
+ */
+public enum ResultField {
+
+    REQUEST_HEADERS,
+    REQUEST_BODY,
+    RESPONSE_HEADERS,
+    RESPONSE_BODY,
+
+    /**
+     * The consumer keeps results after {@code accept} returns, so result objects must not be reused.
+     */
+    RETAINED,
+
+}
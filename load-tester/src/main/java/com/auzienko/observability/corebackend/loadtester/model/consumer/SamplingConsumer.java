@@ -0,0 +1,168 @@
+package com.auzienko.observability.corebackend.loadtester.model.consumer;
+
+import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a fixed-size sample of results that represents the whole run rather than its start.
+ * <p>
+ * Every step and every error type has its own uniform reservoir (Algorithm R), so rare steps
+ * and late failures are sampled as fairly as the warm-up period. In addition the
+ * {@code slowestCount} slowest requests are always kept as tail exemplars. Memory is bounded
+ * by {@code reservoirSize} per step and error type plus {@code slowestCount}, however long
+ * the run is.
+ */
+public class SamplingConsumer implements Consumer<RawRequestResult>, CaptureRequirements {
+
+    private static final Comparator<RawRequestResult> BY_DURATION =
+            Comparator.comparingLong(RawRequestResult::getDurationNanos);
+
+    private final int reservoirSize;
+    private final int slowestCount;
+    private final boolean failuresOnly;
+
+    private final Map<String, Reservoir> byStep = new ConcurrentHashMap<>();
+    private final Map<String, Reservoir> byErrorType = new ConcurrentHashMap<>();
+    // Min-heap, so the fastest of the kept exemplars is the one replaced
+    private final PriorityQueue<RawRequestResult> slowest;
+
+    public SamplingConsumer(int reservoirSize, int slowestCount) {
+        this(reservoirSize, slowestCount, false);
+    }
+
+    /**
+     * @param failuresOnly ignore successful requests; only error types and the slowest failures are sampled
+     */
+    public SamplingConsumer(int reservoirSize, int slowestCount, boolean failuresOnly) {
+        if (reservoirSize <= 0) {
+            throw new IllegalArgumentException("reservoirSize must be greater than 0");
+        }
+        this.reservoirSize = reservoirSize;
+        this.slowestCount = slowestCount;
+        this.failuresOnly = failuresOnly;
+        this.slowest = new PriorityQueue<>(Math.max(1, slowestCount), BY_DURATION);
+    }
+
+    @Override
+    public void accept(RawRequestResult result) {
+        if (failuresOnly && result.isSuccess()) {
+            return;
+        }
+
+        if (!failuresOnly) {
+            byStep.computeIfAbsent(String.valueOf(result.getStepName()), key -> new Reservoir(reservoirSize))
+                    .offer(result);
+        }
+        if (!result.isSuccess()) {
+            byErrorType.computeIfAbsent(String.valueOf(result.getErrorType()), key -> new Reservoir(reservoirSize))
+                    .offer(result);
+        }
+        offerSlowest(result);
+    }
+
+    @Override
+    public Set<ResultField> requiredFields() {
+        return EnumSet.allOf(ResultField.class);
+    }
+
+    /**
+     * All sampled results without duplicates, in the order the requests started.
+     */
+    public List<RawRequestResult> getResults() {
+        Map<RawRequestResult, Boolean> distinct = new IdentityHashMap<>();
+        byStep.values().forEach(reservoir -> reservoir.snapshot().forEach(r -> distinct.put(r, true)));
+        byErrorType.values().forEach(reservoir -> reservoir.snapshot().forEach(r -> distinct.put(r, true)));
+        getSlowest().forEach(r -> distinct.put(r, true));
+
+        List<RawRequestResult> results = new ArrayList<>(distinct.keySet());
+        results.sort(Comparator.comparing(RawRequestResult::getStartTime,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+        return results;
+    }
+
+    public Map<String, List<RawRequestResult>> getStepSamples() {
+        return snapshot(byStep);
+    }
+
+    public Map<String, List<RawRequestResult>> getErrorSamples() {
+        return snapshot(byErrorType);
+    }
+
+    /**
+     * The slowest requests seen, slowest first.
+     */
+    public List<RawRequestResult> getSlowest() {
+        List<RawRequestResult> results;
+        synchronized (slowest) {
+            results = new ArrayList<>(slowest);
+        }
+        results.sort(BY_DURATION.reversed());
+        return results;
+    }
+
+    private void offerSlowest(RawRequestResult result) {
+        if (slowestCount <= 0) {
+            return;
+        }
+        synchronized (slowest) {
+            if (slowest.size() < slowestCount) {
+                slowest.add(result);
+            } else if (result.getDurationNanos() > slowest.peek().getDurationNanos()) {
+                slowest.poll();
+                slowest.add(result);
+            }
+        }
+    }
+
+    private static Map<String, List<RawRequestResult>> snapshot(Map<String, Reservoir> reservoirs) {
+        Map<String, List<RawRequestResult>> samples = new TreeMap<>();
+        reservoirs.forEach((key, reservoir) -> samples.put(key, reservoir.snapshot()));
+        return samples;
+    }
+
+    /**
+     * Uniform sample of a stream of unknown length: the n-th item replaces a random slot with
+     * probability size / n.
+     */
+    private static final class Reservoir {
+
+        private final RawRequestResult[] items;
+        private long seen;
+
+        private Reservoir(int size) {
+            this.items = new RawRequestResult[size];
+        }
+
+        synchronized void offer(RawRequestResult result) {
+            long n = ++seen;
+            if (n <= items.length) {
+                items[(int) (n - 1)] = result;
+                return;
+            }
+            long slot = ThreadLocalRandom.current().nextLong(n);
+            if (slot < items.length) {
+                items[(int) slot] = result;
+            }
+        }
+
+        synchronized List<RawRequestResult> snapshot() {
+            int size = (int) Math.min(seen, items.length);
+            return new ArrayList<>(Arrays.asList(items).subList(0, size));
+        }
+
+    }
+
+}
@@ -4,14 +4,16 @@ import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Consumer;
 
 /**
  * Storage consumer that persists results to database.
  * Can be selective about what to store.
  */
-public class StorageConsumer implements Consumer<RawRequestResult> {
+public class StorageConsumer implements Consumer<RawRequestResult>, CaptureRequirements {
 
     private final List<RawRequestResult> results = Collections.synchronizedList(new ArrayList<>());
     private final boolean storeOnlyFailures;
@@ -33,6 +35,11 @@ public class StorageConsumer implements Consumer<RawRequestResult> {
         }
     }
 
+    @Override
+    public Set<ResultField> requiredFields() {
+        return EnumSet.allOf(ResultField.class);
+    }
+
     public List<RawRequestResult> getResults() {
         return new ArrayList<>(results);
     }
@@ -0,0 +1,98 @@
+package com.auzienko.observability.corebackend.loadtester.model.consumer;
+
+import com.auzienko.observability.corebackend.domain.model.LoadThreshold;
+import com.auzienko.observability.corebackend.loadtester.metrics.SlidingWindowMetrics;
+import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Evaluates the scenario's {@link LoadThreshold}s over sliding windows of recent results.
+ * Recording is cheap; {@link #check()} merges the windows and is meant to be called about
+ * once per second by whoever can stop the test.
+ */
+public class ThresholdConsumer implements Consumer<RawRequestResult>, CaptureRequirements {
+
+    public static final int DEFAULT_WINDOW_SECONDS = 10;
+    public static final int DEFAULT_MIN_REQUESTS = 20;
+
+    // Two digits (1% latency resolution) is plenty for an SLO check and keeps the buckets small
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final List<Check> checks = new ArrayList<>();
+    private final Collection<SlidingWindowMetrics> windows;
+
+    public ThresholdConsumer(List<LoadThreshold> thresholds) {
+        // Thresholds over the same window length share one window
+        Map<Integer, SlidingWindowMetrics> windowsBySeconds = new HashMap<>();
+        for (LoadThreshold threshold : thresholds) {
+            if (threshold.getMetric() == null) {
+                throw new IllegalArgumentException("threshold metric must be specified");
+            }
+            if (threshold.getMaxValue() == null || threshold.getMaxValue() < 0) {
+                throw new IllegalArgumentException("threshold maxValue must be 0 or greater");
+            }
+            int windowSeconds = threshold.getWindowSeconds() != null
+                    ? threshold.getWindowSeconds()
+                    : DEFAULT_WINDOW_SECONDS;
+            int minRequests = threshold.getMinRequests() != null
+                    ? threshold.getMinRequests()
+                    : DEFAULT_MIN_REQUESTS;
+
+            SlidingWindowMetrics window = windowsBySeconds.computeIfAbsent(windowSeconds,
+                    seconds -> new SlidingWindowMetrics(seconds, SIGNIFICANT_DIGITS));
+            checks.add(new Check(threshold, window, minRequests));
+        }
+        this.windows = List.copyOf(windowsBySeconds.values());
+    }
+
+    @Override
+    public void accept(RawRequestResult result) {
+        for (SlidingWindowMetrics window : windows) {
+            window.record(result.isSuccess(), result.getDurationNanos());
+        }
+    }
+
+    @Override
+    public Set<ResultField> requiredFields() {
+        return EnumSet.noneOf(ResultField.class);
+    }
+
+    /**
+     * @return a description of the first breached threshold, empty while all hold
+     */
+    public Optional<String> check() {
+        Map<SlidingWindowMetrics, SlidingWindowMetrics.Snapshot> snapshots = new HashMap<>();
+        for (Check check : checks) {
+            SlidingWindowMetrics.Snapshot snapshot = snapshots.computeIfAbsent(check.window(),
+                    SlidingWindowMetrics::snapshot);
+            if (snapshot.requests() < check.minRequests()) {
+                continue;
+            }
+
+            double value = switch (check.threshold().getMetric()) {
+                case ERROR_RATE_PERCENT -> snapshot.errorRatePercent();
+                case P95_RESPONSE_TIME_MS -> snapshot.latency().p95Ms();
+                case P99_RESPONSE_TIME_MS -> snapshot.latency().p99Ms();
+            };
+            if (value > check.threshold().getMaxValue()) {
+                return Optional.of(String.format("%s %.1f exceeded %.1f over the last %ds (%d requests)",
+                        check.threshold().getMetric(), value, check.threshold().getMaxValue(),
+                        check.window().getWindowSeconds(), snapshot.requests()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private record Check(LoadThreshold threshold, SlidingWindowMetrics window, int minRequests) {
+    }
+
+}
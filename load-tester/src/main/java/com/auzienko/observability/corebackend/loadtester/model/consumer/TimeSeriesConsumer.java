@@ -0,0 +1,301 @@
+package com.auzienko.observability.corebackend.loadtester.model.consumer;
+
+import com.auzienko.observability.corebackend.loadtester.metrics.LatencyHistogram;
+import com.auzienko.observability.corebackend.loadtester.model.LatencyPercentiles;
+import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
+import com.auzienko.observability.corebackend.loadtester.model.TimeWindowMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Per-second metrics of a running load test.
+ * <p>
+ * Results are recorded into a small ring of one-second windows, keyed by the wall-clock
+ * second they arrive in; recording is lock-free except for the first result of a new second.
+ * Windows are closed by {@link #tick()} once their second is over (plus a one second grace
+ * period for late results), published to the listeners and kept in a bounded history.
+ * A result that arrives after its window was closed is dropped from the time series; the
+ * end-of-run {@link MetricsConsumer} totals are not affected.
+ * <p>
+ * Listeners are never called under the lock the workers take for a new second. Each one has
+ * a bounded queue drained by a virtual thread of its own, so a slow listener only delays
+ * itself; one that falls a whole history behind is completed and dropped.
+ */
+@Slf4j
+public class TimeSeriesConsumer implements Consumer<RawRequestResult>, CaptureRequirements {
+
+    public static final int DEFAULT_HISTORY_SECONDS = 3600;
+
+    // Open windows: the current second, the grace second and room for a late tick
+    private static final int SLOTS = 4;
+
+    private final Window[] slots = new Window[SLOTS];
+    private final Deque<TimeWindowMetrics> history = new ArrayDeque<>();
+    private final int historySeconds;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    // Guarded by this
+    private long lastClosedSecond;
+    private boolean completed;
+
+    public TimeSeriesConsumer() {
+        this(DEFAULT_HISTORY_SECONDS, LatencyHistogram.DEFAULT_SIGNIFICANT_DIGITS);
+    }
+
+    public TimeSeriesConsumer(int historySeconds, int significantDigits) {
+        this.historySeconds = historySeconds;
+        for (int i = 0; i < SLOTS; i++) {
+            slots[i] = new Window(significantDigits);
+        }
+        this.lastClosedSecond = currentSecond() - 1;
+    }
+
+    @Override
+    public void accept(RawRequestResult result) {
+        Window window = windowFor(currentSecond());
+        if (window == null) {
+            return;
+        }
+
+        window.requests.increment();
+        if (result.isSuccess()) {
+            window.responseTimes.recordValue(result.getDurationNanos());
+        } else {
+            window.failedRequests.increment();
+            String errorType = result.getErrorType() != null ? result.getErrorType() : "UNKNOWN";
+            window.errorsByType.computeIfAbsent(errorType, k -> new LongAdder()).increment();
+        }
+    }
+
+    @Override
+    public Set<ResultField> requiredFields() {
+        return EnumSet.noneOf(ResultField.class);
+    }
+
+    /**
+     * Close every window whose second ended more than a second ago. Meant to be called
+     * about once per second while the test runs; seconds without traffic are published
+     * as empty windows.
+     */
+    public synchronized void tick() {
+        if (!completed) {
+            closeThrough(currentSecond() - 2);
+        }
+    }
+
+    /**
+     * Close all remaining windows, including the current partial second, and notify the
+     * listeners that the run is over. Results recorded afterwards are ignored.
+     */
+    public synchronized void complete() {
+        if (completed) {
+            return;
+        }
+        closeThrough(currentSecond());
+        completed = true;
+        subscriptions.forEach(Subscription::end);
+        subscriptions.clear();
+    }
+
+    public synchronized boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * Register a listener. It is first handed the windows closed so far, then every new
+     * window as it closes, so it sees the full series without gaps or duplicates.
+     * On a completed series it gets the history followed by {@link TimeSeriesListener#onComplete()}.
+     */
+    public void subscribe(TimeSeriesListener listener) {
+        Subscription subscription = new Subscription(listener);
+        synchronized (this) {
+            // Fits: the queue holds a full history
+            history.forEach(subscription::offer);
+            if (completed) {
+                subscription.end();
+            } else {
+                subscriptions.add(subscription);
+            }
+        }
+        subscription.start();
+    }
+
+    public void unsubscribe(TimeSeriesListener listener) {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.listener == listener) {
+                subscriptions.remove(subscription);
+                subscription.cancel();
+            }
+        }
+    }
+
+    public synchronized List<TimeWindowMetrics> getWindows() {
+        return new ArrayList<>(history);
+    }
+
+    private Window windowFor(long second) {
+        Window window = slots[slotOf(second)];
+        if (window.second == second) {
+            return window;
+        }
+        synchronized (this) {
+            if (completed || second <= lastClosedSecond) {
+                return null;
+            }
+            if (window.second != second) {
+                // The slot still holds an older second that no tick has closed yet
+                if (window.second != Window.UNUSED && window.second > lastClosedSecond) {
+                    closeThrough(window.second);
+                }
+                window.reset(second);
+            }
+            return window;
+        }
+    }
+
+    // Caller holds the lock
+    private void closeThrough(long lastSecond) {
+        for (long second = lastClosedSecond + 1; second <= lastSecond; second++) {
+            Window window = slots[slotOf(second)];
+            TimeWindowMetrics metrics = window.second == second
+                    ? window.toMetrics()
+                    : emptyWindow(second);
+            publish(metrics);
+        }
+        lastClosedSecond = Math.max(lastClosedSecond, lastSecond);
+    }
+
+    private void publish(TimeWindowMetrics metrics) {
+        history.addLast(metrics);
+        while (history.size() > historySeconds) {
+            history.removeFirst();
+        }
+        for (Subscription subscription : subscriptions) {
+            if (!subscription.offer(metrics)) {
+                log.warn("Time series listener fell {} windows behind, completing it", historySeconds);
+                subscriptions.remove(subscription);
+                subscription.end();
+            }
+        }
+    }
+
+    private static TimeWindowMetrics emptyWindow(long second) {
+        return new TimeWindowMetrics(Instant.ofEpochSecond(second), 0, 0, Map.of(),
+                new LatencyPercentiles(0, 0, 0, 0, 0, 0));
+    }
+
+    private static int slotOf(long second) {
+        return (int) Math.floorMod(second, (long) SLOTS);
+    }
+
+    private static long currentSecond() {
+        return TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+    }
+
+    /**
+     * A listener with its queue of windows not delivered yet, sent in order by its own thread.
+     * Windows are only queued under the consumer's lock.
+     */
+    private final class Subscription {
+
+        // Queued after the last window; compared by identity
+        private static final TimeWindowMetrics END = emptyWindow(0);
+
+        private final TimeSeriesListener listener;
+        // A full history plus the open windows, and one more place kept free for END
+        private final BlockingQueue<TimeWindowMetrics> queue = new LinkedBlockingQueue<>(historySeconds + SLOTS + 1);
+        private final Thread sender = Thread.ofVirtual().name("time-series-listener").unstarted(this::send);
+
+        private Subscription(TimeSeriesListener listener) {
+            this.listener = listener;
+        }
+
+        private boolean offer(TimeWindowMetrics window) {
+            return queue.remainingCapacity() > 1 && queue.offer(window);
+        }
+
+        private void end() {
+            queue.offer(END);
+        }
+
+        private void start() {
+            sender.start();
+        }
+
+        private void cancel() {
+            sender.interrupt();
+        }
+
+        private void send() {
+            try {
+                while (true) {
+                    TimeWindowMetrics window = queue.take();
+                    if (window == END) {
+                        listener.onComplete();
+                        return;
+                    }
+                    listener.onWindow(window);
+                }
+            } catch (InterruptedException e) {
+                // Unsubscribed
+            } catch (Exception e) {
+                log.warn("Time series listener failed, unsubscribing it", e);
+                subscriptions.remove(this);
+            }
+        }
+
+    }
+
+    private static final class Window {
+
+        private static final long UNUSED = Long.MIN_VALUE;
+
+        private volatile long second = UNUSED;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder failedRequests = new LongAdder();
+        private final Map<String, LongAdder> errorsByType = new ConcurrentHashMap<>();
+        private final LatencyHistogram responseTimes;
+
+        private Window(int significantDigits) {
+            this.responseTimes = new LatencyHistogram(significantDigits);
+        }
+
+        private void reset(long second) {
+            requests.reset();
+            failedRequests.reset();
+            errorsByType.clear();
+            responseTimes.reset();
+            this.second = second;
+        }
+
+        private TimeWindowMetrics toMetrics() {
+            Map<String, Long> errors = new HashMap<>();
+            errorsByType.forEach((type, count) -> errors.put(type, count.sum()));
+            return new TimeWindowMetrics(
+                    Instant.ofEpochSecond(second),
+                    requests.sum(),
+                    failedRequests.sum(),
+                    errors,
+                    LatencyPercentiles.from(responseTimes)
+            );
+        }
+
+    }
+
+}
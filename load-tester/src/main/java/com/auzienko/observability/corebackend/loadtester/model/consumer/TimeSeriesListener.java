@@ -0,0 +1,20 @@
+package com.auzienko.observability.corebackend.loadtester.model.consumer;
+
+import com.auzienko.observability.corebackend.loadtester.model.TimeWindowMetrics;
+
+/**
+ * Receives the windows of a {@link TimeSeriesConsumer} as they are closed, in order.
+ * Each listener is called from a thread of its own, so it may block, e.g. on a slow client;
+ * one that falls a whole history behind is completed and dropped.
+ */
+public interface TimeSeriesListener {
+
+    void onWindow(TimeWindowMetrics window);
+
+    /**
+     * Called once after the last window of the run.
+     */
+    default void onComplete() {
+    }
+
+}
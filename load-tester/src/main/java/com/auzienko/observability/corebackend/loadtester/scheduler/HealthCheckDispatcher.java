@@ -0,0 +1,154 @@
+package com.auzienko.observability.corebackend.loadtester.scheduler;
+
+import com.auzienko.observability.corebackend.domain.model.MonitoredService;
+import com.auzienko.observability.corebackend.domain.repository.MonitoredServiceRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs batches of due health checks, one virtual thread per check. Each check reads the
+ * service fresh, so it sees the latest scenario and status.
+ * <p>
+ * Checks block on HTTP, so they get their own threads instead of the common fork-join pool.
+ * Concurrency is bounded globally and per target host, so a large batch neither exhausts the
+ * connection pool nor floods a host shared by many services. Each batch has a deadline: checks
+ * still running or waiting for a permit when it passes are interrupted. A service whose previous
+ * check has not finished is skipped rather than checked twice.
+ */
+@Component
+@Slf4j
+public class HealthCheckDispatcher {
+
+    private final MonitoredServiceRepository monitoredServiceRepository;
+    private final HealthCheckExecutor executor;
+    private final HealthCheckScenarioCache scenarioCache;
+    private final Semaphore permits;
+    private final int maxPerHost;
+    private final Duration batchTimeout;
+
+    private final ExecutorService threads = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("health-check-", 0).factory());
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final Set<UUID> running = ConcurrentHashMap.newKeySet();
+
+    public HealthCheckDispatcher(MonitoredServiceRepository monitoredServiceRepository,
+                                 HealthCheckExecutor executor,
+                                 HealthCheckScenarioCache scenarioCache,
+                                 @Value("${app.monitoring.health-check.max-concurrency:500}") int maxConcurrency,
+                                 @Value("${app.monitoring.health-check.max-per-host:16}") int maxPerHost,
+                                 @Value("${app.monitoring.health-check.batch-timeout-seconds:15}") long batchTimeoutSeconds) {
+        this.monitoredServiceRepository = monitoredServiceRepository;
+        this.executor = executor;
+        this.scenarioCache = scenarioCache;
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.maxPerHost = maxPerHost;
+        this.batchTimeout = Duration.ofSeconds(batchTimeoutSeconds);
+    }
+
+    /**
+     * Starts the checks and returns; a coordinating virtual thread enforces the batch deadline.
+     */
+    public void dispatch(List<UUID> serviceIds) {
+        List<UUID> batch = serviceIds.stream()
+                .filter(running::add)
+                .toList();
+        if (batch.size() < serviceIds.size()) {
+            log.warn("Skipping {} health checks still running from an earlier batch", serviceIds.size() - batch.size());
+        }
+        if (!batch.isEmpty()) {
+            threads.execute(() -> runBatch(batch));
+        }
+    }
+
+    private void runBatch(List<UUID> batch) {
+        long deadline = System.nanoTime() + batchTimeout.toNanos();
+        List<Future<?>> checks = new ArrayList<>(batch.size());
+        for (UUID serviceId : batch) {
+            checks.add(threads.submit(() -> check(serviceId)));
+        }
+
+        int timedOut = 0;
+        for (int i = 0; i < checks.size(); i++) {
+            try {
+                checks.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                cancel(checks.get(i), batch.get(i));
+                timedOut++;
+            } catch (ExecutionException | CancellationException e) {
+                log.warn("Health check task failed: {}", e.getMessage());
+            } catch (InterruptedException e) {
+                for (int j = i; j < checks.size(); j++) {
+                    cancel(checks.get(j), batch.get(j));
+                }
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (timedOut > 0) {
+            log.warn("{} of {} health checks did not finish within {}s", timedOut, batch.size(), batchTimeout.toSeconds());
+        }
+    }
+
+    private void cancel(Future<?> check, UUID serviceId) {
+        check.cancel(true);
+        // A task cancelled before its thread started never clears its own mark
+        running.remove(serviceId);
+    }
+
+    private void check(UUID serviceId) {
+        try {
+            permits.acquire();
+            try {
+                monitoredServiceRepository.findById(serviceId).ifPresent(this::checkWithinHostLimit);
+            } finally {
+                permits.release();
+            }
+        } catch (InterruptedException e) {
+            log.debug("Health check for service {} cancelled before it started", serviceId);
+            Thread.currentThread().interrupt();
+        } finally {
+            running.remove(serviceId);
+        }
+    }
+
+    private void checkWithinHostLimit(MonitoredService service) {
+        Semaphore host = hostPermits.computeIfAbsent(scenarioCache.hostOf(service),
+                key -> new Semaphore(key.equals(HealthCheckScenarioCache.NO_HOST) ? Integer.MAX_VALUE : maxPerHost, true));
+        try {
+            host.acquire();
+        } catch (InterruptedException e) {
+            log.debug("Health check for service '{}' cancelled before it started", service.getName());
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            executor.checkService(service);
+        } finally {
+            host.release();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        threads.shutdownNow();
+    }
+
+}
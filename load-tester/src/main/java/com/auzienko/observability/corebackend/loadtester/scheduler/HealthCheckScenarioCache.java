@@ -0,0 +1,105 @@
+package com.auzienko.observability.corebackend.loadtester.scheduler;
+
+import com.auzienko.observability.corebackend.domain.event.MonitoredServiceChangedEvent;
+import com.auzienko.observability.corebackend.domain.model.LoadTestScenario;
+import com.auzienko.observability.corebackend.domain.model.MonitoredService;
+import com.auzienko.observability.corebackend.loadtester.service.HealthCheckService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Health check scenarios by service, parsed and prepared once instead of on every check,
+ * together with the host they target.
+ * <p>
+ * Each entry remembers the JSON it was parsed from and is reparsed when the service's
+ * scenario no longer matches, so a stale entry is never used; registry events drop entries on
+ * update and unregister so they do not outlive the service.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HealthCheckScenarioCache {
+
+    public static final String NO_HOST = "";
+
+    private final ObjectMapper objectMapper;
+    private final HealthCheckService healthCheckService;
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * The service's scenario, ready for {@link HealthCheckService#check}.
+     */
+    public LoadTestScenario get(MonitoredService service) throws JsonProcessingException {
+        return entryFor(service).scenario();
+    }
+
+    /**
+     * Lower-cased host of the scenario's first step, or {@link #NO_HOST} when it cannot be told
+     * (e.g. a templated URL or a scenario that does not parse).
+     */
+    public String hostOf(MonitoredService service) {
+        try {
+            return entryFor(service).host();
+        } catch (Exception e) {
+            return NO_HOST;
+        }
+    }
+
+    public void warmUp(List<MonitoredService> services) {
+        int cached = 0;
+        for (MonitoredService service : services) {
+            try {
+                get(service);
+                cached++;
+            } catch (Exception e) {
+                log.warn("Cannot parse health check scenario of service '{}' ({}): {}",
+                        service.getName(), service.getId(), e.getMessage());
+            }
+        }
+        log.info("Cached health check scenarios for {} of {} services.", cached, services.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onServiceChanged(MonitoredServiceChangedEvent event) {
+        if (event.change() != MonitoredServiceChangedEvent.Change.REGISTERED) {
+            entries.remove(event.serviceId());
+        }
+    }
+
+    private Entry entryFor(MonitoredService service) throws JsonProcessingException {
+        Entry entry = entries.get(service.getId());
+        if (entry != null && entry.source().equals(service.getHealthCheckScenario())) {
+            return entry;
+        }
+
+        LoadTestScenario parsed = objectMapper.readValue(service.getHealthCheckScenario(), LoadTestScenario.class);
+        entry = new Entry(service.getHealthCheckScenario(), healthCheckService.prepare(parsed), firstHost(parsed));
+        entries.put(service.getId(), entry);
+        return entry;
+    }
+
+    private static String firstHost(LoadTestScenario scenario) {
+        try {
+            String url = scenario.getSteps().getFirst().getRequest().getUrl();
+            String host = URI.create(url).getHost();
+            return host != null ? host.toLowerCase() : NO_HOST;
+        } catch (RuntimeException e) {
+            return NO_HOST;
+        }
+    }
+
+    private record Entry(String source, LoadTestScenario scenario, String host) {
+    }
+
+}
@@ -1,29 +1,117 @@
 package com.auzienko.observability.corebackend.loadtester.scheduler;
 
+import com.auzienko.observability.corebackend.domain.event.MonitoredServiceChangedEvent;
 import com.auzienko.observability.corebackend.domain.model.MonitoredService;
 import com.auzienko.observability.corebackend.domain.repository.MonitoredServiceRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Runs each monitored service's health check at its own polling interval.
+ * <p>
+ * Next due times are kept on a {@link TimingWheel} advanced once per tick, so a tick only touches
+ * the services that are due. A service is placed at a random point of its interval when it is
+ * first scheduled, which spreads checks evenly instead of firing them all at once; from then on it
+ * keeps its own cadence. Registry changes arrive as {@link MonitoredServiceChangedEvent}s and are
+ * applied one service at a time; the full list is only read at startup.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class HealthCheckScheduler {
 
+    private static final int WHEEL_SLOTS = 512;
+
     private final MonitoredServiceRepository monitoredServiceRepository;
-    private final HealthCheckExecutor executor;
+    private final HealthCheckDispatcher dispatcher;
+    private final HealthCheckScenarioCache scenarioCache;
+    private final Duration defaultInterval;
 
-    @Scheduled(fixedRateString = "${app.monitoring.scheduler.fixed-rate-ms}")
-    public void performHealthChecks() {
-        log.info("Starting scheduled health checks...");
+    // Both guarded by this; every key on the wheel has an interval
+    private final TimingWheel<UUID> wheel;
+    private final Map<UUID, Duration> intervals = new HashMap<>();
+
+    public HealthCheckScheduler(MonitoredServiceRepository monitoredServiceRepository,
+                                HealthCheckDispatcher dispatcher,
+                                HealthCheckScenarioCache scenarioCache,
+                                @Value("${app.monitoring.scheduler.default-interval-seconds:60}") long defaultIntervalSeconds,
+                                @Value("${app.monitoring.scheduler.tick-ms:1000}") long tickMillis) {
+        this.monitoredServiceRepository = monitoredServiceRepository;
+        this.dispatcher = dispatcher;
+        this.scenarioCache = scenarioCache;
+        this.defaultInterval = Duration.ofSeconds(defaultIntervalSeconds);
+        this.wheel = new TimingWheel<>(WHEEL_SLOTS, tickMillis, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleRegisteredServices() {
         List<MonitoredService> services = monitoredServiceRepository.findAll();
+        scenarioCache.warmUp(services);
+        synchronized (this) {
+            services.forEach(this::place);
+        }
+        log.info("Scheduled health checks for {} services.", services.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onServiceChanged(MonitoredServiceChangedEvent event) {
+        switch (event.change()) {
+            case REGISTERED -> place(event.service());
+            case UPDATED -> {
+                // Keep the current phase unless the interval changed
+                if (!intervalOf(event.service()).equals(intervals.get(event.serviceId()))) {
+                    place(event.service());
+                }
+            }
+            case UNREGISTERED -> {
+                intervals.remove(event.serviceId());
+                wheel.cancel(event.serviceId());
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.monitoring.scheduler.tick-ms:1000}")
+    public void performHealthChecks() {
+        List<UUID> due = nextDue();
+        if (due.isEmpty()) {
+            return;
+        }
+
+        log.debug("Dispatching {} due health checks...", due.size());
+        dispatcher.dispatch(due);
+    }
+
+    private synchronized List<UUID> nextDue() {
+        long now = System.currentTimeMillis();
+        List<UUID> due = wheel.advance(now);
+        // Rescheduled before the check runs, so unregistering meanwhile still cancels it
+        for (UUID serviceId : due) {
+            wheel.schedule(serviceId, now + intervals.get(serviceId).toMillis());
+        }
+        return due;
+    }
+
+    private void place(MonitoredService service) {
+        Duration interval = intervalOf(service);
+        long jitterMillis = ThreadLocalRandom.current().nextLong(interval.toMillis());
+        intervals.put(service.getId(), interval);
+        wheel.schedule(service.getId(), System.currentTimeMillis() + jitterMillis);
+    }
 
-        services.parallelStream().forEach(executor::checkService);
-        log.info("Finished scheduled health checks for {} services.", services.size());
+    private Duration intervalOf(MonitoredService service) {
+        Integer seconds = service.getPollingIntervalSeconds();
+        return seconds != null && seconds > 0 ? Duration.ofSeconds(seconds) : defaultInterval;
     }
 
 }
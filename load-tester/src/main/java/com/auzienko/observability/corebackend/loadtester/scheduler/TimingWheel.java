@@ -0,0 +1,104 @@
+package com.auzienko.observability.corebackend.loadtester.scheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hashed timing wheel: deadlines are hashed by tick into a fixed ring of slots, so scheduling,
+ * cancelling and advancing by one tick only touch one slot, however many keys are scheduled.
+ * Deadlines more than one revolution away share a slot with nearer ones and are skipped until
+ * their tick comes round.
+ * <p>
+ * Not thread safe; callers synchronize.
+ */
+final class TimingWheel<K> {
+
+    private final long tickMillis;
+    private final long originMillis;
+    private final List<Set<K>> slots;
+    private final Map<K, Long> deadlineTicks = new HashMap<>();
+
+    // Last tick that has been expired
+    private long currentTick;
+
+    TimingWheel(int slotCount, long tickMillis, long nowMillis) {
+        if (slotCount <= 0 || tickMillis <= 0) {
+            throw new IllegalArgumentException("slotCount and tickMillis must be greater than 0");
+        }
+        this.tickMillis = tickMillis;
+        this.originMillis = nowMillis;
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(new LinkedHashSet<>());
+        }
+    }
+
+    /**
+     * Schedules {@code key} at {@code deadlineMillis}, replacing its previous deadline.
+     * Deadlines that have already passed fire on the next tick.
+     */
+    void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        long tick = Math.max(tickOf(deadlineMillis), currentTick + 1);
+        deadlineTicks.put(key, tick);
+        slot(tick).add(key);
+    }
+
+    boolean cancel(K key) {
+        Long tick = deadlineTicks.remove(key);
+        if (tick == null) {
+            return false;
+        }
+        slot(tick).remove(key);
+        return true;
+    }
+
+    boolean contains(K key) {
+        return deadlineTicks.containsKey(key);
+    }
+
+    int size() {
+        return deadlineTicks.size();
+    }
+
+    /**
+     * Moves the wheel up to {@code nowMillis} and removes the keys that became due, in slot order.
+     */
+    List<K> advance(long nowMillis) {
+        long targetTick = tickOf(nowMillis);
+        if (targetTick <= currentTick) {
+            return List.of();
+        }
+
+        List<K> due = new ArrayList<>();
+        // After a long pause a single pass over every slot finds everything that is due
+        long steps = Math.min(targetTick - currentTick, slots.size());
+        for (long tick = currentTick + 1; tick <= currentTick + steps; tick++) {
+            Iterator<K> keys = slot(tick).iterator();
+            while (keys.hasNext()) {
+                K key = keys.next();
+                if (deadlineTicks.get(key) <= targetTick) {
+                    keys.remove();
+                    deadlineTicks.remove(key);
+                    due.add(key);
+                }
+            }
+        }
+        currentTick = targetTick;
+        return due;
+    }
+
+    private long tickOf(long millis) {
+        return Math.floorDiv(millis - originMillis, tickMillis);
+    }
+
+    private Set<K> slot(long tick) {
+        return slots.get((int) Math.floorMod(tick, (long) slots.size()));
+    }
+
+}
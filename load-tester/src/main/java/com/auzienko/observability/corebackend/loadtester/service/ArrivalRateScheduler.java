@@ -0,0 +1,187 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.auzienko.observability.corebackend.domain.model.LoadTestScenario;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model dispatcher for CONSTANT_ARRIVAL_RATE scenarios.
+ * <p>
+ * Iterations are started on an absolute schedule ({@code start + i / rate}) on virtual threads,
+ * independent of how fast the target answers. When {@code maxInFlight} iterations are already
+ * running the dispatcher waits for a free slot and then catches up; the delay between the
+ * intended and the actual start is handed to the iteration so latency can be corrected for
+ * coordinated omission.
+ */
+@Component
+@Slf4j
+public class ArrivalRateScheduler {
+
+    private static final int DEFAULT_MAX_IN_FLIGHT = 1000;
+
+    @FunctionalInterface
+    public interface IterationTask {
+        void run(int slot, int iteration, long scheduleLagNanos, int stageIndex);
+    }
+
+    public void run(LoadTestScenario scenario, IterationTask task) {
+        if (StageSchedule.isStaged(scenario)) {
+            runStaged(scenario, StageSchedule.of(scenario), task);
+            return;
+        }
+        validate(scenario);
+
+        double iterationsPerSecond = resolveIterationRate(scenario);
+        int maxInFlight = scenario.getMaxInFlight() != null ? scenario.getMaxInFlight() : DEFAULT_MAX_IN_FLIGHT;
+        long maxIterations = scenario.getRuns() != null ? scenario.getRuns() : Long.MAX_VALUE;
+
+        log.info("Starting arrival-rate dispatch: rate={} it/s, maxInFlight={}, duration={}s, iterations={}",
+                iterationsPerSecond, maxInFlight, scenario.getDurationSeconds(), scenario.getRuns());
+
+        Semaphore slots = new Semaphore(maxInFlight);
+        long startNanos = System.nanoTime();
+        long endNanos = scenario.getDurationSeconds() != null
+                ? startNanos + TimeUnit.SECONDS.toNanos(scenario.getDurationSeconds())
+                : Long.MAX_VALUE;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long iteration = 0; iteration < maxIterations; iteration++) {
+                long intendedStartNanos = startNanos + (long) (iteration * 1_000_000_000d / iterationsPerSecond);
+                if (intendedStartNanos - endNanos >= 0 || !parkUntil(intendedStartNanos)) {
+                    break;
+                }
+
+                try {
+                    slots.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+
+                final long currentIteration = iteration;
+                executor.submit(() -> {
+                    try {
+                        long scheduleLagNanos = Math.max(0, System.nanoTime() - intendedStartNanos);
+                        // Reported iteration numbers wrap on very long runs; the schedule does not
+                        task.run((int) (currentIteration % maxInFlight), (int) currentIteration, scheduleLagNanos,
+                                StageSchedule.NO_STAGE);
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+
+            if (Thread.currentThread().isInterrupted()) {
+                log.warn("Arrival-rate dispatch interrupted, cancelling in-flight iterations");
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Same dispatch with a rate that follows the stage profile: iteration {@code n} is due when
+     * the integral of the target rate reaches {@code n} (see {@link StageSchedule#nanosAtIteration}),
+     * so a ramp starting from zero is followed from its first iteration on.
+     */
+    private void runStaged(LoadTestScenario scenario, StageSchedule schedule, IterationTask task) {
+        validateDispatch(scenario);
+        int maxInFlight = scenario.getMaxInFlight() != null ? scenario.getMaxInFlight() : DEFAULT_MAX_IN_FLIGHT;
+
+        log.info("Starting staged arrival-rate dispatch: stages={}, maxInFlight={}",
+                scenario.getStages().size(), maxInFlight);
+
+        Semaphore slots = new Semaphore(maxInFlight);
+        schedule.start();
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + schedule.totalDurationNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long iteration = 0; ; iteration++) {
+                long offsetNanos = schedule.nanosAtIteration(iteration);
+                long intendedStartNanos = startNanos + offsetNanos;
+                if (offsetNanos < 0 || intendedStartNanos - endNanos >= 0 || !parkUntil(intendedStartNanos)) {
+                    break;
+                }
+
+                try {
+                    slots.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+
+                final long currentIteration = iteration;
+                final int stageIndex = schedule.stageAt(offsetNanos);
+                executor.submit(() -> {
+                    try {
+                        long scheduleLagNanos = Math.max(0, System.nanoTime() - intendedStartNanos);
+                        task.run((int) (currentIteration % maxInFlight), (int) currentIteration, scheduleLagNanos,
+                                stageIndex);
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+
+            if (Thread.currentThread().isInterrupted()) {
+                log.warn("Arrival-rate dispatch interrupted, cancelling in-flight iterations");
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private void validate(LoadTestScenario scenario) {
+        if (scenario.getRuns() == null &&
+                (scenario.getDurationSeconds() == null || scenario.getDurationSeconds() <= 0)) {
+            throw new IllegalArgumentException("Either runs or durationSeconds must be specified");
+        }
+        validateDispatch(scenario);
+        if (resolveIterationRate(scenario) <= 0) {
+            throw new IllegalArgumentException(
+                    "targetIterationsPerSecond or targetRequestsPerSecond must be greater than 0");
+        }
+    }
+
+    /**
+     * Checks shared by the flat and the staged dispatch; a zero maxInFlight would never start an iteration.
+     */
+    private void validateDispatch(LoadTestScenario scenario) {
+        if (scenario.getSteps() == null || scenario.getSteps().isEmpty()) {
+            throw new IllegalArgumentException("scenario must contain at least one step");
+        }
+        if (scenario.getMaxInFlight() != null && scenario.getMaxInFlight() <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be greater than 0");
+        }
+    }
+
+    private double resolveIterationRate(LoadTestScenario scenario) {
+        if (scenario.getTargetIterationsPerSecond() != null) {
+            return scenario.getTargetIterationsPerSecond();
+        }
+        if (scenario.getTargetRequestsPerSecond() != null) {
+            return scenario.getTargetRequestsPerSecond() / scenario.getSteps().size();
+        }
+        return 0;
+    }
+
+    /**
+     * @return false if the dispatcher was interrupted while waiting
+     */
+    private boolean parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+        }
+        return !Thread.currentThread().isInterrupted();
+    }
+
+}
@@ -0,0 +1,247 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.auzienko.observability.corebackend.domain.model.EngineType;
+import com.auzienko.observability.corebackend.domain.model.ExecutionMode;
+import com.auzienko.observability.corebackend.domain.model.LoadTestScenario;
+import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
+import com.auzienko.observability.corebackend.loadtester.transport.AsyncHttpClientTransport;
+import com.auzienko.observability.corebackend.loadtester.transport.HttpTransport;
+import com.auzienko.observability.corebackend.loadtester.transport.TransportRequest;
+import com.auzienko.observability.corebackend.loadtester.transport.TransportResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Load engine on the non-blocking transport.
+ * <p>
+ * Virtual users are plain state machines rather than threads: each one sends its next step
+ * when the previous response arrives, so tens of thousands of users only cost one object each.
+ * Response handling (variable extraction, consumers) runs on the transport's I/O threads, so
+ * consumers used with this engine must be cheap and non-blocking.
+ */
+@Service
+@Slf4j
+public class AsyncLoadEngine implements LoadEngine {
+
+    private final HttpTransport transport;
+    private final ScenarioRuntime scenarioRuntime;
+    private final ArrivalRateScheduler arrivalRateScheduler;
+
+    public AsyncLoadEngine(
+            AsyncHttpClientTransport transport,
+            ScenarioRuntime scenarioRuntime,
+            ArrivalRateScheduler arrivalRateScheduler) {
+        this.transport = transport;
+        this.scenarioRuntime = scenarioRuntime;
+        this.arrivalRateScheduler = arrivalRateScheduler;
+    }
+
+    @Override
+    public EngineType type() {
+        return EngineType.ASYNC_IO;
+    }
+
+    @Override
+    public void execute(UUID serviceId, LoadTestScenario scenario, Consumer<RawRequestResult> resultConsumer) {
+        log.info("Starting async load test: serviceId={}, virtualUsers={}, duration={}s, runs={}",
+                serviceId, scenario.getVirtualUsers(), scenario.getDurationSeconds(), scenario.getRuns());
+
+        if (scenario.getExecutionMode() == ExecutionMode.CONSTANT_ARRIVAL_RATE) {
+            // Iterations block on their own virtual thread, but no platform thread is held per request
+            CompiledScenario plan = scenarioRuntime.compile(scenario, resultConsumer);
+            arrivalRateScheduler.run(scenario, (slot, iteration, scheduleLagNanos, stageIndex) ->
+                    runScheduledIteration(slot, iteration, plan, resultConsumer, scheduleLagNanos, stageIndex));
+            log.info("Async load test completed for service {}", serviceId);
+            return;
+        }
+
+        if (StageSchedule.isStaged(scenario)) {
+            StageSchedule schedule = StageSchedule.of(scenario);
+            CompiledScenario plan = scenarioRuntime.compile(scenario, resultConsumer);
+            schedule.run((workerId, worker) ->
+                    new VirtualUser(workerId, plan, Long.MAX_VALUE, resultConsumer, worker::finished, worker).advance());
+            log.info("Async load test completed for service {}", serviceId);
+            return;
+        }
+
+        scenarioRuntime.validate(scenario);
+        CompiledScenario plan = scenarioRuntime.compile(scenario, resultConsumer);
+
+        CountDownLatch finished = new CountDownLatch(scenario.getVirtualUsers());
+        long testEndTime = scenario.getDurationSeconds() != null
+                ? System.currentTimeMillis() + (scenario.getDurationSeconds() * 1000L)
+                : Long.MAX_VALUE;
+
+        List<VirtualUser> users = new ArrayList<>(scenario.getVirtualUsers());
+        for (int workerId = 0; workerId < scenario.getVirtualUsers(); workerId++) {
+            users.add(new VirtualUser(workerId, plan, testEndTime, resultConsumer, finished::countDown, null));
+        }
+        users.forEach(VirtualUser::advance);
+
+        try {
+            finished.await();
+            log.info("Async load test completed for service {}", serviceId);
+        } catch (InterruptedException e) {
+            log.warn("Async load test interrupted for service {}", serviceId);
+            users.forEach(VirtualUser::stop);
+            awaitStopped(finished, serviceId);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stopped users still complete the request they have in flight, and its result reaches the
+     * consumers; wait for them so nothing is emitted after execute() returns.
+     */
+    private void awaitStopped(CountDownLatch finished, UUID serviceId) {
+        try {
+            if (!finished.await(StageSchedule.STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("{} virtual users of service {} still had a request in flight after {}s",
+                        finished.getCount(), serviceId, StageSchedule.STOP_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            log.warn("Stopped waiting for {} virtual users of service {}", finished.getCount(), serviceId);
+        }
+    }
+
+    private void runScheduledIteration(int slot, int iteration, CompiledScenario plan,
+                                       Consumer<RawRequestResult> resultConsumer, long scheduleLagNanos,
+                                       int stageIndex) {
+        UserContext context = plan.newUserContext(slot);
+        List<CompiledStep> steps = plan.steps();
+        for (int stepIndex = 0; stepIndex < steps.size() && !Thread.currentThread().isInterrupted(); stepIndex++) {
+            CompiledStep step = steps.get(stepIndex);
+            TransportRequest request = scenarioRuntime.prepareRequest(step, context);
+            TransportResponse response = transport.exchange(request);
+            RawRequestResult result = scenarioRuntime.complete(slot, iteration, stepIndex, step, request, response, context);
+            result.setScheduleLagNanos(scheduleLagNanos);
+            result.setStageIndex(stageIndex);
+            emit(resultConsumer, result);
+        }
+    }
+
+    private void emit(Consumer<RawRequestResult> resultConsumer, RawRequestResult result) {
+        try {
+            resultConsumer.accept(result);
+        } catch (Exception e) {
+            log.error("Consumer failed to process result", e);
+        }
+    }
+
+    /**
+     * Callback-driven virtual user. Only one request per user is in flight at a time, so the
+     * user context is never touched concurrently.
+     */
+    private final class VirtualUser {
+
+        private final int workerId;
+        private final List<CompiledStep> steps;
+        private final Integer runs;
+        private final long testEndTime;
+        private final Consumer<RawRequestResult> resultConsumer;
+        private final Runnable onFinished;
+        // Set when the user belongs to a staged profile, which decides when it stops
+        private final StageSchedule.Worker stageWorker;
+        private final UserContext context;
+
+        private int iteration;
+        private int stepIndex;
+        private int stageIndex = StageSchedule.NO_STAGE;
+        private volatile boolean stopped;
+
+        private VirtualUser(int workerId, CompiledScenario plan, long testEndTime,
+                            Consumer<RawRequestResult> resultConsumer, Runnable onFinished,
+                            StageSchedule.Worker stageWorker) {
+            this.workerId = workerId;
+            this.steps = plan.steps();
+            this.runs = plan.scenario().getRuns();
+            this.testEndTime = testEndTime;
+            this.resultConsumer = resultConsumer;
+            this.onFinished = onFinished;
+            this.stageWorker = stageWorker;
+            this.context = plan.newUserContext(workerId);
+        }
+
+        void stop() {
+            stopped = true;
+        }
+
+        /**
+         * Send requests until one is genuinely in flight. Responses that complete synchronously
+         * (e.g. immediate connection failures) are handled in this loop instead of recursively,
+         * so a failing target cannot grow the stack.
+         */
+        void advance() {
+            while (true) {
+                if (isDone()) {
+                    onFinished.run();
+                    return;
+                }
+                if (stepIndex == 0 && stageWorker != null) {
+                    stageIndex = stageWorker.currentStage();
+                }
+
+                CompiledStep step = steps.get(stepIndex);
+                TransportRequest request;
+                try {
+                    request = scenarioRuntime.prepareRequest(step, context);
+                } catch (Exception e) {
+                    log.error("Worker {} encountered unexpected error", workerId, e);
+                    onFinished.run();
+                    return;
+                }
+
+                CompletableFuture<TransportResponse> pending = transport.send(request);
+                if (pending.isDone()) {
+                    onResponse(step, request, pending.join());
+                    continue;
+                }
+                pending.whenComplete((response, error) -> {
+                    onResponse(step, request, response != null ? response : failure(error));
+                    advance();
+                });
+                return;
+            }
+        }
+
+        private void onResponse(CompiledStep step, TransportRequest request, TransportResponse response) {
+            RawRequestResult result = scenarioRuntime.complete(workerId, iteration, stepIndex, step, request, response, context);
+            result.setStageIndex(stageIndex);
+            emit(resultConsumer, result);
+
+            if (++stepIndex == steps.size()) {
+                stepIndex = 0;
+                iteration++;
+            }
+        }
+
+        private boolean isDone() {
+            if (stopped) {
+                return true;
+            }
+            if (stepIndex != 0) {
+                return false;
+            }
+            if (stageWorker != null) {
+                return stageWorker.shouldStop();
+            }
+            return runs != null ? iteration >= runs : System.currentTimeMillis() >= testEndTime;
+        }
+
+        private TransportResponse failure(Throwable error) {
+            return TransportResponse.failure(Instant.now(), 0, null,
+                    HttpTransport.UNKNOWN_ERROR, error != null ? error.getMessage() : null);
+        }
+
+    }
+
+}
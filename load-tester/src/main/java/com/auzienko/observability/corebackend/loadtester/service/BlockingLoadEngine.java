@@ -0,0 +1,221 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.auzienko.observability.corebackend.domain.model.ExecutionMode;
+import com.auzienko.observability.corebackend.domain.model.LoadTestScenario;
+import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
+import com.auzienko.observability.corebackend.loadtester.transport.HttpTransport;
+import com.auzienko.observability.corebackend.loadtester.transport.TransportRequest;
+import com.auzienko.observability.corebackend.loadtester.transport.TransportResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Engine where every virtual user is a thread running its iterations one blocking request at
+ * a time. Subclasses only decide which kind of thread that is.
+ */
+@Slf4j
+abstract class BlockingLoadEngine implements LoadEngine {
+
+    private final HttpTransport transport;
+    private final ScenarioRuntime scenarioRuntime;
+    private final ArrivalRateScheduler arrivalRateScheduler;
+
+    BlockingLoadEngine(HttpTransport transport, ScenarioRuntime scenarioRuntime,
+                       ArrivalRateScheduler arrivalRateScheduler) {
+        this.transport = transport;
+        this.scenarioRuntime = scenarioRuntime;
+        this.arrivalRateScheduler = arrivalRateScheduler;
+    }
+
+    /**
+     * Executor for a fixed population of virtual users.
+     */
+    abstract ExecutorService newWorkerExecutor(int virtualUsers);
+
+    /**
+     * Executor for a staged profile, where virtual users come and go.
+     */
+    abstract ExecutorService newStagedExecutor();
+
+    @Override
+    public void execute(UUID serviceId, LoadTestScenario scenario, Consumer<RawRequestResult> resultConsumer) {
+        log.info("Starting load test execution: engine={}, serviceId={}, virtualUsers={}, duration={}s, runs={}",
+                type(), serviceId, scenario.getVirtualUsers(), scenario.getDurationSeconds(), scenario.getRuns());
+
+        if (scenario.getExecutionMode() == ExecutionMode.CONSTANT_ARRIVAL_RATE) {
+            runScheduledIterations(scenario, resultConsumer);
+        } else if (StageSchedule.isStaged(scenario)) {
+            runStaged(scenario, resultConsumer);
+        } else {
+            runVirtualUsers(scenario, resultConsumer);
+        }
+
+        log.info("Load test execution completed for service {}", serviceId);
+    }
+
+    private void runVirtualUsers(LoadTestScenario scenario, Consumer<RawRequestResult> resultConsumer) {
+        scenarioRuntime.validate(scenario);
+        CompiledScenario plan = scenarioRuntime.compile(scenario, resultConsumer);
+
+        ExecutorService executor = newWorkerExecutor(scenario.getVirtualUsers());
+        try {
+            List<Future<?>> futures = IntStream.range(0, scenario.getVirtualUsers())
+                    .<Future<?>>mapToObj(workerId -> executor.submit(() ->
+                            runWorker(workerId, plan, resultConsumer)))
+                    .toList();
+            awaitCompletion(futures);
+        } finally {
+            shutdownExecutor(executor);
+        }
+    }
+
+    private void runWorker(int workerId, CompiledScenario plan,
+                           Consumer<RawRequestResult> resultConsumer) {
+        try {
+            if (plan.scenario().getRuns() != null) {
+                runFixedIterations(workerId, plan, resultConsumer);
+            } else {
+                runDurationBased(workerId, plan, resultConsumer);
+            }
+        } catch (Exception e) {
+            log.error("Worker {} encountered unexpected error", workerId, e);
+        }
+    }
+
+    private void runFixedIterations(int workerId, CompiledScenario plan,
+                                    Consumer<RawRequestResult> resultConsumer) {
+        UserContext context = plan.newUserContext(workerId);
+
+        for (int iteration = 0; iteration < plan.scenario().getRuns() && !Thread.currentThread().isInterrupted(); iteration++) {
+            executeScenarioSteps(workerId, iteration, plan, context, resultConsumer, 0, StageSchedule.NO_STAGE);
+        }
+    }
+
+    private void runDurationBased(int workerId, CompiledScenario plan,
+                                  Consumer<RawRequestResult> resultConsumer) {
+        UserContext context = plan.newUserContext(workerId);
+        long testEndTime = System.currentTimeMillis() + (plan.scenario().getDurationSeconds() * 1000L);
+        int iteration = 0;
+
+        while (System.currentTimeMillis() < testEndTime && !Thread.currentThread().isInterrupted()) {
+            executeScenarioSteps(workerId, iteration++, plan, context, resultConsumer, 0, StageSchedule.NO_STAGE);
+        }
+    }
+
+    private void runScheduledIterations(LoadTestScenario scenario, Consumer<RawRequestResult> resultConsumer) {
+        CompiledScenario plan = scenarioRuntime.compile(scenario, resultConsumer);
+        arrivalRateScheduler.run(scenario, (slot, iteration, scheduleLagNanos, stageIndex) ->
+                executeScenarioSteps(slot, iteration, plan, plan.newUserContext(slot), resultConsumer,
+                        scheduleLagNanos, stageIndex));
+    }
+
+    private void runStaged(LoadTestScenario scenario, Consumer<RawRequestResult> resultConsumer) {
+        StageSchedule schedule = StageSchedule.of(scenario);
+        CompiledScenario plan = scenarioRuntime.compile(scenario, resultConsumer);
+
+        ExecutorService executor = newStagedExecutor();
+        try {
+            schedule.run((workerId, worker) -> executor.submit(() ->
+                    runStagedWorker(workerId, plan, worker, resultConsumer)));
+        } finally {
+            shutdownExecutor(executor);
+        }
+    }
+
+    private void runStagedWorker(int workerId, CompiledScenario plan, StageSchedule.Worker worker,
+                                 Consumer<RawRequestResult> resultConsumer) {
+        try {
+            UserContext context = plan.newUserContext(workerId);
+            int iteration = 0;
+            while (!worker.shouldStop() && !Thread.currentThread().isInterrupted()) {
+                executeScenarioSteps(workerId, iteration++, plan, context, resultConsumer, 0, worker.currentStage());
+            }
+        } catch (Exception e) {
+            log.error("Worker {} encountered unexpected error", workerId, e);
+        } finally {
+            worker.finished();
+        }
+    }
+
+    private void executeScenarioSteps(int workerId, int iteration, CompiledScenario plan,
+                                      UserContext context, Consumer<RawRequestResult> resultConsumer,
+                                      long scheduleLagNanos, int stageIndex) {
+        for (int stepIndex = 0; stepIndex < plan.steps().size(); stepIndex++) {
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+
+            CompiledStep step = plan.steps().get(stepIndex);
+            RawRequestResult result = executeStep(workerId, iteration, stepIndex, step, context);
+            result.setScheduleLagNanos(scheduleLagNanos);
+            result.setStageIndex(stageIndex);
+
+            // Emit result immediately to consumer
+            try {
+                resultConsumer.accept(result);
+            } catch (Exception e) {
+                log.error("Consumer failed to process result", e);
+            }
+        }
+    }
+
+    private RawRequestResult executeStep(int workerId, int iteration, int stepIndex,
+                                         CompiledStep step, UserContext context) {
+        TransportRequest request = scenarioRuntime.prepareRequest(step, context);
+        TransportResponse response = transport.exchange(request);
+        return scenarioRuntime.complete(workerId, iteration, stepIndex, step, request, response, context);
+    }
+
+    private void awaitCompletion(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                log.error("Worker task failed", e.getCause());
+            } catch (InterruptedException e) {
+                // shutdownExecutor() stops the workers and waits for them
+                Thread.currentThread().interrupt();
+                log.info("Interrupted while waiting for workers, stopping them");
+                break;
+            }
+        }
+    }
+
+    private void shutdownExecutor(ExecutorService executor) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Executor did not terminate in time, forcing shutdown");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            // Stopped: workers end after the request in flight, which interrupts do not cut short
+            executor.shutdownNow();
+            awaitStopped(executor);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Workers finishing their last request still emit its result; wait for them so nothing is
+     * emitted after execute() returns.
+     */
+    private void awaitStopped(ExecutorService executor) {
+        try {
+            if (!executor.awaitTermination(StageSchedule.STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Workers still had a request in flight after {}s", StageSchedule.STOP_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            log.warn("Stopped waiting for workers to finish their last request");
+        }
+    }
+
+}
@@ -0,0 +1,185 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.auzienko.observability.corebackend.domain.model.CapacityProbe;
+import com.auzienko.observability.corebackend.domain.model.CapacitySearch;
+import com.auzienko.observability.corebackend.domain.model.CapacitySearchResult;
+import com.auzienko.observability.corebackend.domain.model.ExecutionMode;
+import com.auzienko.observability.corebackend.domain.model.LoadTestScenario;
+import com.auzienko.observability.corebackend.loadtester.model.LoadTestMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Capacity search over short constant-arrival-rate probes (see {@link CapacitySearch}).
+ * <p>
+ * A probe passes when the corrected p99 (which includes time spent waiting for a free
+ * in-flight slot) and the error rate stay within the limits and the generator actually
+ * dispatched at least {@link #MIN_ACHIEVED_RATIO} of the target rate. Probing stops at the
+ * first failure of the geometric ramp, so the target is never pushed much past its limit.
+ */
+@Slf4j
+final class CapacitySearcher {
+
+    static final double DEFAULT_START_ITERATIONS_PER_SECOND = 10;
+    static final double DEFAULT_MAX_ITERATIONS_PER_SECOND = 10_000;
+    static final double DEFAULT_GROWTH_FACTOR = 2;
+    static final double DEFAULT_PRECISION_PERCENT = 5;
+    static final int DEFAULT_PROBE_DURATION_SECONDS = 10;
+
+    static final double MIN_ACHIEVED_RATIO = 0.9;
+    private static final int MAX_PROBES = 30;
+
+    /**
+     * Runs one probe scenario to completion and returns its metrics.
+     */
+    @FunctionalInterface
+    interface ProbeRunner {
+        LoadTestMetrics run(LoadTestScenario probe);
+    }
+
+    private final CapacitySearch search;
+    private final double startRate;
+    private final double maxRate;
+    private final double growthFactor;
+    private final double precision;
+    private final int probeSeconds;
+
+    private final List<CapacityProbe> probes = new ArrayList<>();
+    private CapacityProbe best;
+
+    private CapacitySearcher(CapacitySearch search) {
+        this.search = search;
+        this.startRate = orDefault(search.getStartIterationsPerSecond(), DEFAULT_START_ITERATIONS_PER_SECOND);
+        this.maxRate = orDefault(search.getMaxIterationsPerSecond(), DEFAULT_MAX_ITERATIONS_PER_SECOND);
+        this.growthFactor = orDefault(search.getGrowthFactor(), DEFAULT_GROWTH_FACTOR);
+        this.precision = orDefault(search.getPrecisionPercent(), DEFAULT_PRECISION_PERCENT) / 100;
+        this.probeSeconds = search.getProbeDurationSeconds() != null
+                ? search.getProbeDurationSeconds()
+                : DEFAULT_PROBE_DURATION_SECONDS;
+    }
+
+    static CapacitySearcher of(CapacitySearch search) {
+        LoadTestScenario scenario = search.getScenario();
+        if (scenario == null || scenario.getSteps() == null || scenario.getSteps().isEmpty()) {
+            throw new IllegalArgumentException("scenario must contain at least one step");
+        }
+        if (search.getMaxP99ResponseTimeMs() == null || search.getMaxP99ResponseTimeMs() <= 0) {
+            throw new IllegalArgumentException("maxP99ResponseTimeMs must be greater than 0");
+        }
+        if (search.getMaxErrorRatePercent() == null || search.getMaxErrorRatePercent() < 0) {
+            throw new IllegalArgumentException("maxErrorRatePercent must be 0 or greater");
+        }
+
+        CapacitySearcher searcher = new CapacitySearcher(search);
+        if (searcher.startRate <= 0 || searcher.maxRate < searcher.startRate) {
+            throw new IllegalArgumentException("startIterationsPerSecond must be greater than 0 and not above maxIterationsPerSecond");
+        }
+        if (searcher.growthFactor <= 1) {
+            throw new IllegalArgumentException("growthFactor must be greater than 1");
+        }
+        if (searcher.precision <= 0) {
+            throw new IllegalArgumentException("precisionPercent must be greater than 0");
+        }
+        if (searcher.probeSeconds <= 0) {
+            throw new IllegalArgumentException("probeDurationSeconds must be greater than 0");
+        }
+        return searcher;
+    }
+
+    CapacitySearchResult run(ProbeRunner runner) {
+        // Geometric ramp up to the first failure
+        double passed = 0;
+        double failed = 0;
+        for (double rate = startRate; canProbe(); rate = Math.min(rate * growthFactor, maxRate)) {
+            if (probe(runner, rate)) {
+                passed = rate;
+                if (rate >= maxRate) {
+                    break;
+                }
+            } else {
+                failed = rate;
+                break;
+            }
+        }
+
+        // Bisect between the last passing and the first failing rate
+        while (failed > 0 && passed > 0 && (failed - passed) / failed > precision && canProbe()) {
+            double rate = (passed + failed) / 2;
+            if (probe(runner, rate)) {
+                passed = rate;
+            } else {
+                failed = rate;
+            }
+        }
+
+        return toResult(passed >= maxRate);
+    }
+
+    private boolean canProbe() {
+        return probes.size() < MAX_PROBES && !Thread.currentThread().isInterrupted();
+    }
+
+    private boolean probe(ProbeRunner runner, double rate) {
+        LoadTestMetrics metrics = runner.run(probeScenario(rate));
+
+        int steps = search.getScenario().getSteps().size();
+        double achievedRate = (double) metrics.totalRequests() / steps / probeSeconds;
+        double errorRate = 100 - metrics.getSuccessRate();
+        long p99 = metrics.correctedLatency().p99Ms();
+        boolean passed = metrics.totalRequests() > 0
+                && p99 <= search.getMaxP99ResponseTimeMs()
+                && errorRate <= search.getMaxErrorRatePercent()
+                && achievedRate >= rate * MIN_ACHIEVED_RATIO;
+
+        CapacityProbe probe = new CapacityProbe()
+                .setTargetIterationsPerSecond(rate)
+                .setAchievedIterationsPerSecond(achievedRate)
+                .setP99ResponseTimeMs(p99)
+                .setErrorRatePercent(errorRate)
+                .setPassed(passed);
+        probes.add(probe);
+        if (passed && (best == null || rate > best.getTargetIterationsPerSecond())) {
+            best = probe;
+        }
+
+        log.info("Capacity probe {}: rate={} it/s, achieved={} it/s, p99={}ms, errors={}%, passed={}",
+                probes.size(), rate, achievedRate, p99, errorRate, passed);
+        return passed;
+    }
+
+    private LoadTestScenario probeScenario(double rate) {
+        LoadTestScenario scenario = search.getScenario();
+        return new LoadTestScenario()
+                .setName(scenario.getName())
+                .setSteps(scenario.getSteps())
+                .setTransport(scenario.getTransport())
+                .setEngine(scenario.getEngine())
+                .setMaxInFlight(scenario.getMaxInFlight())
+                .setExecutionMode(ExecutionMode.CONSTANT_ARRIVAL_RATE)
+                .setTargetIterationsPerSecond(rate)
+                .setDurationSeconds(probeSeconds);
+    }
+
+    private CapacitySearchResult toResult(boolean searchLimitReached) {
+        CapacitySearchResult result = new CapacitySearchResult();
+        int steps = search.getScenario().getSteps().size();
+        if (best != null) {
+            result.setMaxIterationsPerSecond(best.getTargetIterationsPerSecond());
+            result.setMaxRequestsPerSecond(best.getAchievedIterationsPerSecond() * steps);
+            result.setP99ResponseTimeMs(best.getP99ResponseTimeMs());
+            result.setErrorRatePercent(best.getErrorRatePercent());
+        }
+        result.setMaxP99ResponseTimeMs(search.getMaxP99ResponseTimeMs());
+        result.setMaxErrorRatePercent(search.getMaxErrorRatePercent());
+        result.setSearchLimitReached(searchLimitReached);
+        result.setProbes(List.copyOf(probes));
+        return result;
+    }
+
+    private static double orDefault(Double value, double defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+}
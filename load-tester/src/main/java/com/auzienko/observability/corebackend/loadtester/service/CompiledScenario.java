@@ -0,0 +1,17 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.auzienko.observability.corebackend.domain.model.LoadTestScenario;
+
+import java.util.List;
+
+/**
+ * A {@link LoadTestScenario} compiled for execution: one {@link CompiledStep} per step and the
+ * number of variable slots each {@link UserContext} needs.
+ */
+record CompiledScenario(LoadTestScenario scenario, List<CompiledStep> steps, int variableCount) {
+
+    UserContext newUserContext(int workerId) {
+        return new UserContext(workerId, variableCount);
+    }
+
+}
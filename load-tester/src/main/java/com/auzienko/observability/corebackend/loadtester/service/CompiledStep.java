@@ -0,0 +1,104 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.auzienko.observability.corebackend.domain.model.Step;
+import com.auzienko.observability.corebackend.loadtester.model.consumer.ResultField;
+import com.auzienko.observability.corebackend.loadtester.transport.TransportRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable request plan for one {@link Step}, built once per test by {@link ScenarioCompiler}.
+ * Everything that does not depend on the user context (method, static headers, static bodies)
+ * is resolved up front and shared by all requests.
+ */
+final class CompiledStep {
+
+    private final Step step;
+    private final HttpMethod method;
+    private final Template url;
+
+    // Shared read-only headers when no header value has placeholders, otherwise null
+    private final HttpHeaders staticHeaders;
+    private final List<HeaderTemplate> headerTemplates;
+
+    // Pre-serialized body when no body value has placeholders, otherwise null
+    private final String staticBody;
+    private final List<Object> bodyParts;
+
+    private final ResponseExtractor extractor;
+
+    private final Set<ResultField> capture;
+    private final boolean readResponseBody;
+
+    CompiledStep(Step step, HttpMethod method, Template url,
+                 HttpHeaders staticHeaders, List<HeaderTemplate> headerTemplates,
+                 String staticBody, List<Object> bodyParts,
+                 ResponseExtractor extractor, Set<ResultField> capture, boolean readResponseBody) {
+        this.step = step;
+        this.method = method;
+        this.url = url;
+        this.staticHeaders = staticHeaders;
+        this.headerTemplates = headerTemplates;
+        this.staticBody = staticBody;
+        this.bodyParts = bodyParts;
+        this.extractor = extractor;
+        this.capture = capture;
+        this.readResponseBody = readResponseBody;
+    }
+
+    String name() {
+        return step.getName();
+    }
+
+    ResponseExtractor extractor() {
+        return extractor;
+    }
+
+    boolean captures(ResultField field) {
+        return capture.contains(field);
+    }
+
+    TransportRequest toRequest(UserContext context) {
+        return new TransportRequest(method, url.render(context), headers(context), body(context),
+                readResponseBody, captures(ResultField.RESPONSE_HEADERS));
+    }
+
+    private HttpHeaders headers(UserContext context) {
+        if (staticHeaders != null) {
+            return staticHeaders;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        for (HeaderTemplate header : headerTemplates) {
+            headers.set(header.name(), header.value().render(context));
+        }
+        return headers;
+    }
+
+    private String body(UserContext context) {
+        if (bodyParts == null) {
+            return staticBody;
+        }
+        StringBuilder buffer = context.buffer();
+        for (Object part : bodyParts) {
+            if (part instanceof Template template) {
+                template.appendTo(buffer, context);
+            } else {
+                buffer.append((String) part);
+            }
+        }
+        return buffer.toString();
+    }
+
+    record HeaderTemplate(String name, Template value) {
+    }
+
+    /**
+     * A {@code Step.extract} entry: where to store the value and how to find it.
+     */
+    record Extraction(String variableName, int slot, String jsonPath) {
+    }
+
+}
@@ -3,27 +3,60 @@ package com.auzienko.observability.corebackend.loadtester.service;
 import com.auzienko.observability.corebackend.domain.model.LoadTestScenario;
 import com.auzienko.observability.corebackend.loadtester.model.LoadTestMetrics;
 import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
+import com.auzienko.observability.corebackend.loadtester.model.consumer.AsyncDeliveryConsumer;
 import com.auzienko.observability.corebackend.loadtester.model.consumer.CompositeConsumer;
 import com.auzienko.observability.corebackend.loadtester.model.consumer.MetricsConsumer;
-import com.auzienko.observability.corebackend.loadtester.model.consumer.StorageConsumer;
-import lombok.RequiredArgsConstructor;
+import com.auzienko.observability.corebackend.loadtester.model.consumer.SamplingConsumer;
+import com.auzienko.observability.corebackend.loadtester.spool.ResultSpoolReader;
+import com.auzienko.observability.corebackend.loadtester.spool.ResultSpoolWriter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class DetailedTestService {
 
-    private final LoadTesterExecutor executor;
+    // Failure samples kept per error type by executeWithFailureTracking
+    private static final int FAILURE_SAMPLES_PER_TYPE = 1000;
+    private static final int SLOWEST_EXEMPLARS = 100;
+    private static final String SPOOL_SUFFIX = ".spool";
+
+    private final LoadEngines loadEngines;
+    private final Path spoolDirectory;
+    private final Duration spoolRetention;
+    // Spools still being written; they are not readable until their run ends
+    private final Set<Path> spooling = ConcurrentHashMap.newKeySet();
+
+    public DetailedTestService(LoadEngines loadEngines,
+                               @Value("${app.load-tester.spool-directory:${java.io.tmpdir}/load-test-spool}") String spoolDirectory,
+                               @Value("${app.load-tester.spool-retention:1h}") Duration spoolRetention) {
+        this.loadEngines = loadEngines;
+        this.spoolDirectory = Path.of(spoolDirectory);
+        this.spoolRetention = spoolRetention;
+    }
 
     /**
-     * Execute test and store all results (including successful ones).
-     * Use for detailed analysis or debugging.
+     * Execute test and keep a sample of all results (including successful ones) in memory:
+     * up to {@code maxResultsToStore} per step and per error type, drawn uniformly from the
+     * whole run, plus the slowest requests. Keeps bodies and headers; use
+     * {@link #executeSpooled} for complete results of long runs.
      */
     public CompletableFuture<DetailedTestResult> executeDetailed(
             UUID serviceId,
@@ -34,20 +67,20 @@ public class DetailedTestService {
 
         return CompletableFuture.supplyAsync(() -> {
             MetricsConsumer metricsConsumer = new MetricsConsumer();
-            StorageConsumer storageConsumer = new StorageConsumer(false, maxResultsToStore);
-            CompositeConsumer composite = new CompositeConsumer(metricsConsumer, storageConsumer);
+            SamplingConsumer samplingConsumer = new SamplingConsumer(maxResultsToStore, SLOWEST_EXEMPLARS);
+            CompositeConsumer composite = new CompositeConsumer(metricsConsumer, samplingConsumer);
 
-            executor.execute(serviceId, scenario, composite);
+            execute(serviceId, scenario, composite);
 
             return new DetailedTestResult(
                     metricsConsumer.getMetrics(),
-                    storageConsumer.getResults()
+                    samplingConsumer.getResults()
             );
         });
     }
 
     /**
-     * Execute test but only store failures.
+     * Execute test but only store failures, sampled per error type over the whole run.
      * More memory efficient while keeping diagnostic data.
      */
     public CompletableFuture<DetailedTestResult> executeWithFailureTracking(
@@ -58,22 +91,128 @@ public class DetailedTestService {
 
         return CompletableFuture.supplyAsync(() -> {
             MetricsConsumer metricsConsumer = new MetricsConsumer();
-            StorageConsumer storageConsumer = new StorageConsumer(true, 1000); // Only failures
-            CompositeConsumer composite = new CompositeConsumer(metricsConsumer, storageConsumer);
+            SamplingConsumer samplingConsumer =
+                    new SamplingConsumer(FAILURE_SAMPLES_PER_TYPE, SLOWEST_EXEMPLARS, true); // Only failures
+            CompositeConsumer composite = new CompositeConsumer(metricsConsumer, samplingConsumer);
 
-            executor.execute(serviceId, scenario, composite);
+            execute(serviceId, scenario, composite);
 
             return new DetailedTestResult(
                     metricsConsumer.getMetrics(),
-                    storageConsumer.getResults()
+                    samplingConsumer.getResults()
             );
         });
     }
 
+    /**
+     * Execute test and spool every result to a memory-mapped file instead of the heap. The
+     * spool is deleted if the run fails; once the run has finished it can be read with
+     * {@link #openSpool} until {@link #sweepSpools} deletes it.
+     */
+    public SpooledRun executeSpooled(UUID serviceId, LoadTestScenario scenario) {
+        UUID spoolId = UUID.randomUUID();
+        Path spoolFile = spoolFile(serviceId, spoolId);
+        spooling.add(spoolFile);
+
+        log.info("Starting spooled test {} for service {}", spoolId, serviceId);
+
+        CompletableFuture<SpooledTestResult> result = CompletableFuture.supplyAsync(() -> {
+            MetricsConsumer metricsConsumer = new MetricsConsumer();
+
+            try (ResultSpoolWriter spool = new ResultSpoolWriter(spoolFile)) {
+                execute(serviceId, scenario, new CompositeConsumer(metricsConsumer, spool));
+                spool.close();
+                return new SpooledTestResult(metricsConsumer.getMetrics(), spoolFile, spool.getRecordCount());
+            } catch (RuntimeException e) {
+                log.error("Spooled test {} for service {} failed", spoolId, serviceId, e);
+                // A partial spool cannot be told apart from a complete one, so do not leave it behind
+                deleteSpool(spoolFile);
+                throw e;
+            } finally {
+                spooling.remove(spoolFile);
+            }
+        });
+        return new SpooledRun(spoolId, result);
+    }
+
+    /**
+     * Opens the spool of a finished run for reading; the caller closes it.
+     *
+     * @return empty while the run is still going, if it failed, or if there is no such spool
+     */
+    public Optional<ResultSpoolReader> openSpool(UUID serviceId, UUID spoolId) {
+        Path spoolFile = spoolFile(serviceId, spoolId);
+        // The dictionary is written last, so a spool without one was cut short by a restart
+        if (spooling.contains(spoolFile) || !Files.exists(spoolFile)
+                || !Files.exists(ResultSpoolReader.dictionaryFile(spoolFile))) {
+            return Optional.empty();
+        }
+        return Optional.of(new ResultSpoolReader(spoolFile));
+    }
+
+    /**
+     * Deletes spools of finished runs, and spools left behind by a restart, once they are
+     * older than the spool retention.
+     */
+    @Scheduled(fixedRate = 60_000)
+    public void sweepSpools() {
+        if (!Files.isDirectory(spoolDirectory)) {
+            return;
+        }
+        Instant deleteBefore = Instant.now().minus(spoolRetention);
+        try (Stream<Path> files = Files.find(spoolDirectory, 2, (file, attributes) ->
+                file.getFileName().toString().endsWith(SPOOL_SUFFIX)
+                        && attributes.lastModifiedTime().toInstant().isBefore(deleteBefore))) {
+            files.filter(file -> !spooling.contains(file)).forEach(file -> {
+                deleteSpool(file);
+                log.debug("Deleted expired result spool {}", file);
+            });
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Cannot sweep result spools in {}: {}", spoolDirectory, e.getMessage());
+        }
+    }
+
+    private Path spoolFile(UUID serviceId, UUID spoolId) {
+        return spoolDirectory.resolve(serviceId.toString()).resolve(spoolId + SPOOL_SUFFIX);
+    }
+
+    private void deleteSpool(Path spoolFile) {
+        try {
+            Files.deleteIfExists(spoolFile);
+            Files.deleteIfExists(ResultSpoolReader.dictionaryFile(spoolFile));
+        } catch (IOException e) {
+            log.warn("Cannot delete result spool {}: {}", spoolFile, e.getMessage());
+        }
+    }
+
+    private void execute(UUID serviceId, LoadTestScenario scenario, Consumer<RawRequestResult> consumer) {
+        if (scenario.getResultDelivery() != null) {
+            // Closing drains the buffer, so the consumers are complete when this returns
+            try (AsyncDeliveryConsumer delivery = new AsyncDeliveryConsumer(scenario.getResultDelivery(), consumer)) {
+                loadEngines.select(scenario).execute(serviceId, scenario, delivery);
+            }
+        } else {
+            loadEngines.select(scenario).execute(serviceId, scenario, consumer);
+        }
+    }
+
     public record DetailedTestResult(
             LoadTestMetrics metrics,
             List<RawRequestResult> rawResults
     ) {
     }
 
+    public record SpooledRun(
+            UUID spoolId,
+            CompletableFuture<SpooledTestResult> result
+    ) {
+    }
+
+    public record SpooledTestResult(
+            LoadTestMetrics metrics,
+            Path spoolFile,
+            long recordCount
+    ) {
+    }
+
 }
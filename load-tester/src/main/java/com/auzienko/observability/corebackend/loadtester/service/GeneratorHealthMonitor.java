@@ -0,0 +1,31 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.auzienko.observability.corebackend.domain.model.EngineType;
+import com.auzienko.observability.corebackend.loadtester.metrics.GeneratorHealthSampler;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.core5.pool.ConnPoolStats;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Starts {@link GeneratorHealthSampler}s wired to the connection pool of the engine a
+ * test runs on.
+ */
+@Component
+public class GeneratorHealthMonitor {
+
+    private final ConnPoolStats<HttpRoute> blockingPool;
+    private final ConnPoolStats<HttpRoute> asyncPool;
+
+    public GeneratorHealthMonitor(
+            @Qualifier("loadTestConnectionManager") ConnPoolStats<HttpRoute> blockingPool,
+            @Qualifier("loadTestAsyncConnectionManager") ConnPoolStats<HttpRoute> asyncPool) {
+        this.blockingPool = blockingPool;
+        this.asyncPool = asyncPool;
+    }
+
+    public GeneratorHealthSampler start(EngineType engine) {
+        return new GeneratorHealthSampler(engine == EngineType.ASYNC_IO ? asyncPool : blockingPool);
+    }
+
+}
@@ -1,9 +1,10 @@
 package com.auzienko.observability.corebackend.loadtester.service;
 
+import com.auzienko.observability.corebackend.domain.model.EngineType;
 import com.auzienko.observability.corebackend.domain.model.HealthCheckResult;
 import com.auzienko.observability.corebackend.domain.model.LoadTestScenario;
 import com.auzienko.observability.corebackend.domain.model.ServiceStatus;
-import com.auzienko.observability.corebackend.domain.repository.HealthCheckRepository;
+import com.auzienko.observability.corebackend.domain.repository.HealthCheckRecorder;
 import com.auzienko.observability.corebackend.loadtester.model.HealthCheckTestResult;
 import com.auzienko.observability.corebackend.loadtester.model.consumer.CompositeConsumer;
 import com.auzienko.observability.corebackend.loadtester.model.consumer.DebugConsumer;
@@ -21,34 +22,40 @@ import java.util.concurrent.CompletableFuture;
 @RequiredArgsConstructor
 public class HealthCheckService {
 
-    private final VirtualThreadLoadTestExecutor executor;
-    private final HealthCheckRepository healthCheckRepository;
+    private final LoadEngines loadEngines;
+    private final HealthCheckRecorder healthCheckRecorder;
 
     /**
      * Execute health check and save result.
      */
     @Async
     public CompletableFuture<HealthCheckTestResult> execute(UUID serviceId, LoadTestScenario scenario) {
-        log.info("Starting health check for service {}", serviceId);
+        return CompletableFuture.completedFuture(check(serviceId, prepare(scenario)));
+    }
 
-        return CompletableFuture.supplyAsync(() -> {
-            LoadTestScenario healthCheckScenario = toHealthCheckScenario(scenario);
+    /**
+     * Execute health check on the calling thread and record the result, which also updates
+     * the service status once written.
+     *
+     * @param healthCheckScenario a scenario returned by {@link #prepare}
+     */
+    public HealthCheckTestResult check(UUID serviceId, LoadTestScenario healthCheckScenario) {
+        log.info("Starting health check for service {}", serviceId);
 
-            HealthCheckConsumer consumer = new HealthCheckConsumer();
+        HealthCheckConsumer consumer = new HealthCheckConsumer();
 
-            executor.execute(serviceId, healthCheckScenario, consumer);
+        loadEngines.select(healthCheckScenario).execute(serviceId, healthCheckScenario, consumer);
 
-            HealthCheckTestResult consumerResult = consumer.getResult();
+        HealthCheckTestResult consumerResult = consumer.getResult();
 
-            HealthCheckResult domainResult = toDomainModel(serviceId, consumerResult);
+        HealthCheckResult domainResult = toDomainModel(serviceId, consumerResult);
 
-            healthCheckRepository.save(domainResult);
+        healthCheckRecorder.record(domainResult);
 
-            log.info("Health check completed: serviceId={}, healthy={}",
-                    serviceId, consumerResult.healthy());
+        log.info("Health check completed: serviceId={}, healthy={}",
+                serviceId, consumerResult.healthy());
 
-            return consumerResult;
-        });
+        return consumerResult;
     }
 
     /**
@@ -58,32 +65,35 @@ public class HealthCheckService {
     public CompletableFuture<HealthCheckTestResult> executeWithLogging(UUID serviceId, LoadTestScenario scenario) {
         log.info("Starting health check with logging for service {}", serviceId);
 
-        return CompletableFuture.supplyAsync(() -> {
-            LoadTestScenario healthCheckScenario = toHealthCheckScenario(scenario);
+        LoadTestScenario healthCheckScenario = prepare(scenario);
 
-            HealthCheckConsumer healthConsumer = new HealthCheckConsumer();
-            DebugConsumer debugConsumer = new DebugConsumer(false, true, true); // Only log failures
-            CompositeConsumer composite = new CompositeConsumer(healthConsumer, debugConsumer);
+        HealthCheckConsumer healthConsumer = new HealthCheckConsumer();
+        DebugConsumer debugConsumer = new DebugConsumer(false, true, true); // Only log failures
+        CompositeConsumer composite = new CompositeConsumer(healthConsumer, debugConsumer);
 
-            executor.execute(serviceId, healthCheckScenario, composite);
+        loadEngines.select(healthCheckScenario).execute(serviceId, healthCheckScenario, composite);
 
-            HealthCheckTestResult result = healthConsumer.getResult();
+        HealthCheckTestResult result = healthConsumer.getResult();
 
-            if (!result.healthy()) {
-                log.error("Health check failed for service {}: {}",
-                        serviceId, result.firstFailure().getErrorMessage());
-            }
+        if (!result.healthy()) {
+            log.error("Health check failed for service {}: {}",
+                    serviceId, result.firstFailure().getErrorMessage());
+        }
 
-            return result;
-        });
+        return CompletableFuture.completedFuture(result);
     }
 
-    private LoadTestScenario toHealthCheckScenario(LoadTestScenario scenario) {
+    /**
+     * Single run, single user copy of the scenario's steps. The result is only read, so it can
+     * be kept and shared between checks.
+     */
+    public LoadTestScenario prepare(LoadTestScenario scenario) {
         LoadTestScenario healthCheck = new LoadTestScenario();
         healthCheck.setSteps(scenario.getSteps());
         healthCheck.setRuns(1);
         healthCheck.setVirtualUsers(1);
         healthCheck.setDurationSeconds(null);
+        healthCheck.setEngine(EngineType.VIRTUAL_THREADS);
         return healthCheck;
     }
 
@@ -0,0 +1,46 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * General extractor for arbitrary JSONPath expressions. Paths are compiled once per scenario
+ * and the body is parsed once per response, however many variables the step extracts.
+ */
+@Slf4j
+final class JsonPathExtractor implements ResponseExtractor {
+
+    private final List<CompiledPath> paths;
+
+    JsonPathExtractor(List<CompiledPath> paths) {
+        this.paths = paths;
+    }
+
+    @Override
+    public void extract(String responseBody, UserContext context) {
+        DocumentContext document;
+        try {
+            document = JsonPath.parse(responseBody);
+        } catch (Exception e) {
+            log.warn("Failed to parse response for extraction: {}", e.getMessage());
+            return;
+        }
+
+        for (CompiledPath path : paths) {
+            try {
+                Object extractedValue = document.read(path.jsonPath());
+                context.setVariable(path.slot(), extractedValue);
+            } catch (Exception e) {
+                log.warn("Failed to extract '{}' with JSONPath '{}': {}",
+                        path.variableName(), path.jsonPath().getPath(), e.getMessage());
+            }
+        }
+    }
+
+    record CompiledPath(String variableName, int slot, JsonPath jsonPath) {
+    }
+
+}
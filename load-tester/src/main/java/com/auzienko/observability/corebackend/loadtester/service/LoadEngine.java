@@ -0,0 +1,37 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.auzienko.observability.corebackend.domain.model.EngineType;
+import com.auzienko.observability.corebackend.domain.model.LoadTestScenario;
+import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Runs a scenario and feeds every request result to a consumer.
+ * <p>
+ * Engines only differ in how virtual users are scheduled and which transport they send on;
+ * compiling the scenario and turning responses into results is shared through
+ * {@link ScenarioRuntime}, so the same scenario can be run on every engine and the results
+ * compared. {@link LoadEngines} picks the engine for a scenario.
+ */
+public interface LoadEngine {
+
+    EngineType type();
+
+    /**
+     * Run the scenario on the calling thread until it ends. Interrupting the calling thread
+     * stops the test; results of requests that completed are still delivered.
+     */
+    void execute(UUID serviceId, LoadTestScenario scenario, Consumer<RawRequestResult> resultConsumer);
+
+    /**
+     * Async version that returns immediately.
+     */
+    default CompletableFuture<Void> executeAsync(UUID serviceId, LoadTestScenario scenario,
+                                                 Consumer<RawRequestResult> resultConsumer) {
+        return CompletableFuture.runAsync(() -> execute(serviceId, scenario, resultConsumer));
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.auzienko.observability.corebackend.domain.model.EngineType;
+import com.auzienko.observability.corebackend.domain.model.LoadTestScenario;
+import com.auzienko.observability.corebackend.domain.model.TransportType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of the available {@link LoadEngine}s.
+ * <p>
+ * A scenario runs on the engine it names; otherwise the async transport implies
+ * {@link EngineType#ASYNC_IO} and everything else runs on {@code app.load-tester.engine}.
+ */
+@Component
+public class LoadEngines {
+
+    private final Map<EngineType, LoadEngine> engines = new EnumMap<>(EngineType.class);
+    private final EngineType defaultEngine;
+
+    public LoadEngines(List<LoadEngine> engines,
+                       @Value("${app.load-tester.engine:PLATFORM_THREADS}") EngineType defaultEngine) {
+        engines.forEach(engine -> this.engines.put(engine.type(), engine));
+        this.defaultEngine = defaultEngine;
+    }
+
+    public LoadEngine get(EngineType type) {
+        LoadEngine engine = engines.get(type);
+        if (engine == null) {
+            throw new IllegalArgumentException("No load engine registered for " + type);
+        }
+        return engine;
+    }
+
+    public LoadEngine select(LoadTestScenario scenario) {
+        if (scenario.getEngine() != null) {
+            return get(scenario.getEngine());
+        }
+        if (scenario.getTransport() == TransportType.ASYNC) {
+            return get(EngineType.ASYNC_IO);
+        }
+        return get(defaultEngine);
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.auzienko.observability.corebackend.loadtester.model.LoadTestRun;
+import com.auzienko.observability.corebackend.loadtester.model.consumer.MetricsConsumer;
+import com.auzienko.observability.corebackend.loadtester.model.consumer.TimeSeriesConsumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory registry of load test runs started through {@link LoadTestService#start}.
+ * Runs are not shared between instances and do not survive a restart; their results do,
+ * through {@link com.auzienko.observability.corebackend.domain.repository.LoadTestRepository}.
+ * Every second it closes the time series windows of running tests and checks their
+ * thresholds; finished runs are forgotten after {@link #RETENTION}.
+ */
+@Component
+@Slf4j
+public class LoadTestRunRegistry {
+
+    static final Duration RETENTION = Duration.ofHours(1);
+
+    private final Map<UUID, LoadTestRun> runs = new ConcurrentHashMap<>();
+
+    public LoadTestRun register(UUID serviceId) {
+        LoadTestRun run = new LoadTestRun(UUID.randomUUID(), serviceId, Instant.now(),
+                new MetricsConsumer(), new TimeSeriesConsumer());
+        runs.put(run.getRunId(), run);
+        return run;
+    }
+
+    public Optional<LoadTestRun> find(UUID runId) {
+        return Optional.ofNullable(runs.get(runId));
+    }
+
+    /**
+     * @return runs of the service, most recently started first
+     */
+    public List<LoadTestRun> findByService(UUID serviceId) {
+        return runs.values().stream()
+                .filter(run -> run.getServiceId().equals(serviceId))
+                .sorted(Comparator.comparing(LoadTestRun::getStartedAt).reversed())
+                .toList();
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void tick() {
+        Instant evictBefore = Instant.now().minus(RETENTION);
+        runs.values().forEach(run -> {
+            if (!run.isFinished()) {
+                run.getTimeSeries().tick();
+                run.checkThresholds();
+            } else if (run.getFinishedAt().isBefore(evictBefore)) {
+                runs.remove(run.getRunId());
+                log.debug("Evicted load test run {}", run.getRunId());
+            }
+        });
+    }
+
+}
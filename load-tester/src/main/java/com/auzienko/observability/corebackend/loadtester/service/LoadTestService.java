@@ -1,34 +1,56 @@
 package com.auzienko.observability.corebackend.loadtester.service;
 
+import com.auzienko.observability.corebackend.domain.model.CapacitySearch;
+import com.auzienko.observability.corebackend.domain.model.CapacitySearchResult;
+import com.auzienko.observability.corebackend.domain.model.EngineType;
+import com.auzienko.observability.corebackend.domain.model.ExecutionMode;
 import com.auzienko.observability.corebackend.domain.model.LoadTestResult;
 import com.auzienko.observability.corebackend.domain.model.LoadTestScenario;
+import com.auzienko.observability.corebackend.domain.model.LoadTestStatus;
+import com.auzienko.observability.corebackend.domain.repository.CapacitySearchRepository;
 import com.auzienko.observability.corebackend.domain.repository.LoadTestRepository;
+import com.auzienko.observability.corebackend.loadtester.metrics.GeneratorHealthSampler;
+import com.auzienko.observability.corebackend.loadtester.model.GeneratorHealth;
 import com.auzienko.observability.corebackend.loadtester.model.LoadTestMetrics;
+import com.auzienko.observability.corebackend.loadtester.model.LoadTestRun;
+import com.auzienko.observability.corebackend.loadtester.model.LoadTestRunState;
+import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
+import com.auzienko.observability.corebackend.loadtester.model.consumer.AsyncDeliveryConsumer;
 import com.auzienko.observability.corebackend.loadtester.model.consumer.CompositeConsumer;
 import com.auzienko.observability.corebackend.loadtester.model.consumer.DebugConsumer;
+import com.auzienko.observability.corebackend.loadtester.model.consumer.FailureFingerprintConsumer;
 import com.auzienko.observability.corebackend.loadtester.model.consumer.MetricsConsumer;
 import com.auzienko.observability.corebackend.loadtester.model.consumer.ProgressConsumer;
+import com.auzienko.observability.corebackend.loadtester.model.consumer.ThresholdConsumer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 /**
  * High-level service for load testing.
- * Orchestrates executor + consumers + persistence.
+ * Orchestrates load engine + consumers + persistence.
  */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class LoadTestService {
 
-    private final LoadTesterExecutor executor;
+    private final LoadEngines loadEngines;
     private final LoadTestRepository loadTestRepository;
+    private final CapacitySearchRepository capacitySearchRepository;
+    private final LoadTestRunRegistry runRegistry;
+    private final GeneratorHealthMonitor generatorHealthMonitor;
 
     /**
      * Execute load test and save aggregated results to DB.
@@ -37,25 +59,117 @@ public class LoadTestService {
     public CompletableFuture<LoadTestResult> executeAndSave(UUID serviceId, LoadTestScenario scenario) {
         log.info("Starting load test for service {}", serviceId);
 
-        return CompletableFuture.supplyAsync(() -> {
-            Instant startTime = Instant.now();
+        return CompletableFuture.supplyAsync(() -> runAndSave(serviceId, scenario, new MetricsConsumer()));
+    }
 
-            MetricsConsumer metricsConsumer = new MetricsConsumer();
+    /**
+     * Start a load test in the background and return its run right away. The run can be
+     * followed and cancelled while it executes; aggregated results are saved to DB when it
+     * ends, including the partial results of a cancelled run.
+     */
+    public LoadTestRun start(UUID serviceId, LoadTestScenario scenario) {
+        LoadTestRun run = runRegistry.register(serviceId);
+        log.info("Starting load test run {} for service {}", run.getRunId(), serviceId);
+
+        Thread runner = Thread.ofPlatform()
+                .name("load-test-" + run.getRunId())
+                .unstarted(() -> executeRun(run, scenario));
+        run.start(runner);
+        return run;
+    }
 
-            executor.execute(serviceId, scenario, metricsConsumer);
+    public Optional<LoadTestRun> findRun(UUID runId) {
+        return runRegistry.find(runId);
+    }
 
-            long durationMs = System.currentTimeMillis() - startTime.toEpochMilli();
+    public List<LoadTestRun> findRuns(UUID serviceId) {
+        return runRegistry.findByService(serviceId);
+    }
 
-            LoadTestMetrics metrics = metricsConsumer.getMetrics();
+    /**
+     * @return false if the run is unknown or already finished
+     */
+    public boolean cancel(UUID runId) {
+        boolean cancelled = runRegistry.find(runId).map(LoadTestRun::cancel).orElse(false);
+        if (cancelled) {
+            log.info("Cancelling load test run {}", runId);
+        }
+        return cancelled;
+    }
 
-            LoadTestResult result = toLoadTestResult(serviceId, startTime, durationMs, metrics);
-            LoadTestResult saved = loadTestRepository.save(result);
+    private void executeRun(LoadTestRun run, LoadTestScenario scenario) {
+        try {
+            Consumer<RawRequestResult> consumer = new CompositeConsumer(run.getMetrics(), run.getTimeSeries());
+            if (scenario.getThresholds() != null && !scenario.getThresholds().isEmpty()) {
+                ThresholdConsumer thresholds = new ThresholdConsumer(scenario.getThresholds());
+                consumer = new CompositeConsumer(run.getMetrics(), run.getTimeSeries(), thresholds);
+                run.watchThresholds(thresholds);
+            }
+
+            LoadTestResult result = runTest(run.getServiceId(), scenario, run.getMetrics(), consumer);
+            if (run.getAbortReason() != null) {
+                result.setStatus(LoadTestStatus.ABORTED);
+                result.setAbortReason(run.getAbortReason());
+            } else {
+                result.setStatus(run.isCancelRequested() ? LoadTestStatus.CANCELLED : LoadTestStatus.COMPLETED);
+            }
+            LoadTestResult saved = save(result);
+
+            run.finish(switch (saved.getStatus()) {
+                case ABORTED -> LoadTestRunState.ABORTED;
+                case CANCELLED -> LoadTestRunState.CANCELLED;
+                case COMPLETED -> LoadTestRunState.COMPLETED;
+            }, saved.getId());
+        } catch (Exception e) {
+            log.error("Load test run {} failed", run.getRunId(), e);
+            run.finish(LoadTestRunState.FAILED, null);
+        }
+    }
 
-            log.info("Load test completed: serviceId={}, totalRequests={}, successRate={}%",
-                    serviceId, result.getTotalRequests(), metrics.getSuccessRate());
+    private LoadTestResult runAndSave(UUID serviceId, LoadTestScenario scenario, MetricsConsumer metricsConsumer) {
+        LoadTestResult result = runTest(serviceId, scenario, metricsConsumer, metricsConsumer);
+        result.setStatus(LoadTestStatus.COMPLETED);
+        return save(result);
+    }
 
-            return saved;
-        });
+    /**
+     * Execute the test and aggregate its metrics, failure fingerprints and the health of the
+     * load generator into an unsaved result.
+     */
+    private LoadTestResult runTest(UUID serviceId, LoadTestScenario scenario,
+                                   MetricsConsumer metricsConsumer, Consumer<RawRequestResult> consumer) {
+        Instant startTime = Instant.now();
+        FailureFingerprintConsumer failureConsumer = new FailureFingerprintConsumer();
+        GeneratorHealth generatorHealth;
+
+        try (GeneratorHealthSampler sampler = generatorHealthMonitor.start(loadEngines.select(scenario).type())) {
+            execute(serviceId, scenario, new CompositeConsumer(consumer, failureConsumer), sampler);
+
+            // Cancellation interrupts the executing thread; clear the flag so the partial results can be saved
+            Thread.interrupted();
+            generatorHealth = sampler.finish();
+        }
+
+        long durationMs = System.currentTimeMillis() - startTime.toEpochMilli();
+        LoadTestResult result = toLoadTestResult(serviceId, startTime, durationMs, metricsConsumer.getMetrics());
+        result.setFailures(failureConsumer.getFingerprints());
+        result.setGeneratorSaturated(generatorHealth.isSaturated());
+        result.setGeneratorSaturationReason(generatorHealth.saturationReason());
+        return result;
+    }
+
+    private LoadTestResult save(LoadTestResult result) {
+        LoadTestResult saved = loadTestRepository.save(result);
+
+        log.info("Load test {}: serviceId={}, totalRequests={}, successfulRequests={}{}",
+                result.getStatus(), result.getServiceId(), result.getTotalRequests(), result.getSuccessfulRequests(),
+                result.getAbortReason() != null ? ", reason=" + result.getAbortReason() : "");
+        if (result.isGeneratorSaturated()) {
+            log.warn("Load generator was saturated during the test of service {}, results understate the target: {}",
+                    result.getServiceId(), result.getGeneratorSaturationReason());
+        }
+
+        return saved;
     }
 
     /**
@@ -67,11 +181,34 @@ public class LoadTestService {
 
         return CompletableFuture.supplyAsync(() -> {
             MetricsConsumer metricsConsumer = new MetricsConsumer();
-            executor.execute(serviceId, scenario, metricsConsumer);
+            execute(serviceId, scenario, metricsConsumer);
             return metricsConsumer.getMetrics();
         });
     }
 
+    /**
+     * Run the same scenario once on each of the given engines, one after another, without
+     * saving. Differences in the metrics come from the engines, not from the scenario.
+     */
+    @Async
+    public CompletableFuture<Map<EngineType, LoadTestMetrics>> compareEngines(
+            UUID serviceId,
+            LoadTestScenario scenario,
+            List<EngineType> engines) {
+
+        log.info("Comparing engines {} for service {}", engines, serviceId);
+
+        return CompletableFuture.supplyAsync(() -> {
+            Map<EngineType, LoadTestMetrics> results = new EnumMap<>(EngineType.class);
+            for (EngineType engine : engines) {
+                MetricsConsumer metricsConsumer = new MetricsConsumer();
+                execute(serviceId, scenario.copy().setEngine(engine), metricsConsumer);
+                results.put(engine, metricsConsumer.getMetrics());
+            }
+            return results;
+        });
+    }
+
     /**
      * Execute load test with real-time progress updates.
      */
@@ -84,27 +221,13 @@ public class LoadTestService {
         log.info("Starting load test with progress tracking for service {}", serviceId);
 
         return CompletableFuture.supplyAsync(() -> {
-            Instant startTime = Instant.now();
-
-            long expectedTotal = calculateExpectedTotal(scenario);
-
-            // Composite consumer: metrics + progress
             MetricsConsumer metricsConsumer = new MetricsConsumer();
-            ProgressConsumer progressConsumer = new ProgressConsumer(
-                    expectedTotal,
-                    progressCallback,
-                    500 // Update every 500ms
-            );
-
-            CompositeConsumer composite = new CompositeConsumer(metricsConsumer, progressConsumer);
-
-            executor.execute(serviceId, scenario, composite);
+            ProgressConsumer progressConsumer = createProgressConsumer(scenario, progressCallback);
 
-            long durationMs = System.currentTimeMillis() - startTime.toEpochMilli();
-            LoadTestMetrics metrics = metricsConsumer.getMetrics();
-            LoadTestResult result = toLoadTestResult(serviceId, startTime, durationMs, metrics);
-
-            return loadTestRepository.save(result);
+            LoadTestResult result = runTest(serviceId, scenario, metricsConsumer,
+                    new CompositeConsumer(metricsConsumer, progressConsumer));
+            result.setStatus(LoadTestStatus.COMPLETED);
+            return save(result);
         });
     }
 
@@ -125,11 +248,66 @@ public class LoadTestService {
             DebugConsumer debugConsumer = new DebugConsumer(logSuccessful, logBodies, logBodies);
             CompositeConsumer composite = new CompositeConsumer(metricsConsumer, debugConsumer);
 
-            executor.execute(serviceId, scenario, composite);
+            execute(serviceId, scenario, composite);
             return metricsConsumer.getMetrics();
         });
     }
 
+    /**
+     * Search for the highest arrival rate the service sustains within the search's p99 and
+     * error rate limits, and save the result. See {@link CapacitySearch}.
+     */
+    @Async
+    public CompletableFuture<CapacitySearchResult> searchCapacity(UUID serviceId, CapacitySearch search) {
+        log.info("Starting capacity search for service {}", serviceId);
+
+        return CompletableFuture.supplyAsync(() -> {
+            CapacitySearcher searcher = CapacitySearcher.of(search);
+            Instant startTime = Instant.now();
+
+            CapacitySearchResult result = searcher.run(probe -> {
+                MetricsConsumer metricsConsumer = new MetricsConsumer();
+                execute(serviceId, probe, metricsConsumer);
+                return metricsConsumer.getMetrics();
+            });
+            result.setServiceId(serviceId);
+            result.setExecutedAt(startTime);
+
+            log.info("Capacity search completed: serviceId={}, maxIterationsPerSecond={}, probes={}",
+                    serviceId, result.getMaxIterationsPerSecond(), result.getProbes().size());
+
+            return capacitySearchRepository.save(result);
+        }).whenComplete((result, error) -> {
+            // Callers are not expected to wait for the search
+            if (error != null) {
+                log.error("Capacity search failed for service {}", serviceId, error);
+            }
+        });
+    }
+
+    public List<CapacitySearchResult> findCapacityResults(UUID serviceId) {
+        return capacitySearchRepository.findByServiceId(serviceId);
+    }
+
+    private void execute(UUID serviceId, LoadTestScenario scenario, Consumer<RawRequestResult> consumer) {
+        execute(serviceId, scenario, consumer, null);
+    }
+
+    private void execute(UUID serviceId, LoadTestScenario scenario, Consumer<RawRequestResult> consumer,
+                         GeneratorHealthSampler sampler) {
+        if (scenario.getResultDelivery() != null) {
+            // Closing drains the buffer, so the consumers are complete when this returns
+            try (AsyncDeliveryConsumer delivery = new AsyncDeliveryConsumer(scenario.getResultDelivery(), consumer)) {
+                if (sampler != null) {
+                    sampler.watchQueue(delivery::getQueueDepth, delivery.getCapacity());
+                }
+                loadEngines.select(scenario).execute(serviceId, scenario, delivery);
+            }
+        } else {
+            loadEngines.select(scenario).execute(serviceId, scenario, consumer);
+        }
+    }
+
     private LoadTestResult toLoadTestResult(UUID serviceId, Instant startTime,
                                             long durationMs, LoadTestMetrics metrics) {
         LoadTestResult result = new LoadTestResult();
@@ -141,6 +319,8 @@ public class LoadTestService {
         result.setMedianResponseTimeMs(metrics.p50ResponseTimeMs());
         result.setP95ResponseTimeMs(metrics.p95ResponseTimeMs());
         result.setP99ResponseTimeMs(metrics.p99ResponseTimeMs());
+        result.setCorrectedP95ResponseTimeMs(metrics.correctedLatency().p95Ms());
+        result.setCorrectedP99ResponseTimeMs(metrics.correctedLatency().p99Ms());
         result.setMinResponseTimeMs(metrics.minResponseTimeMs());
         result.setMaxResponseTimeMs(metrics.maxResponseTimeMs());
 
@@ -152,15 +332,34 @@ public class LoadTestService {
         return result;
     }
 
-    private long calculateExpectedTotal(LoadTestScenario scenario) {
-        int stepsPerIteration = scenario.getSteps().size();
+    private ProgressConsumer createProgressConsumer(LoadTestScenario scenario, Consumer<Double> progressCallback) {
+        long callbackIntervalMs = 500; // Update every 500ms
+
+        Duration expectedDuration = expectedDuration(scenario);
+        if (expectedDuration != null) {
+            return new ProgressConsumer(expectedDuration, progressCallback, callbackIntervalMs);
+        }
+        return new ProgressConsumer(calculateExpectedTotal(scenario), progressCallback, callbackIntervalMs);
+    }
 
+    /**
+     * @return the planned length of a time-bounded test, or null when the test is bounded by runs
+     */
+    private Duration expectedDuration(LoadTestScenario scenario) {
+        if (StageSchedule.isStaged(scenario)) {
+            return Duration.ofNanos(StageSchedule.of(scenario).totalDurationNanos());
+        }
         if (scenario.getRuns() != null) {
-            return (long) scenario.getRuns() * scenario.getVirtualUsers() * stepsPerIteration;
-        } else {
-            // Estimate for duration-based (rough)
-            return (long) scenario.getDurationSeconds() * scenario.getVirtualUsers() * 10;
+            return null;
         }
+        return Duration.ofSeconds(scenario.getDurationSeconds());
+    }
+
+    private long calculateExpectedTotal(LoadTestScenario scenario) {
+        int stepsPerIteration = scenario.getSteps().size();
+        return scenario.getExecutionMode() == ExecutionMode.CONSTANT_ARRIVAL_RATE
+                ? (long) scenario.getRuns() * stepsPerIteration
+                : (long) scenario.getRuns() * scenario.getVirtualUsers() * stepsPerIteration;
     }
 
 }
@@ -0,0 +1,39 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.auzienko.observability.corebackend.domain.model.EngineType;
+import com.auzienko.observability.corebackend.loadtester.transport.RestTemplateTransport;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Blocking engine on a fixed pool of platform threads, one per virtual user.
+ */
+@Service
+public class PlatformThreadLoadEngine extends BlockingLoadEngine {
+
+    public PlatformThreadLoadEngine(
+            RestTemplateTransport transport,
+            ScenarioRuntime scenarioRuntime,
+            ArrivalRateScheduler arrivalRateScheduler) {
+        super(transport, scenarioRuntime, arrivalRateScheduler);
+    }
+
+    @Override
+    public EngineType type() {
+        return EngineType.PLATFORM_THREADS;
+    }
+
+    @Override
+    ExecutorService newWorkerExecutor(int virtualUsers) {
+        return Executors.newFixedThreadPool(virtualUsers);
+    }
+
+    @Override
+    ExecutorService newStagedExecutor() {
+        // Workers come and go with the profile, so threads are created on demand
+        return Executors.newCachedThreadPool();
+    }
+
+}
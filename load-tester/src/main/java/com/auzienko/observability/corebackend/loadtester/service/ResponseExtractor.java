@@ -0,0 +1,14 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+/**
+ * Extracts the variables of one step from a response body into the user context.
+ * Built once per step by {@link ScenarioCompiler}.
+ */
+interface ResponseExtractor {
+
+    ResponseExtractor NONE = (responseBody, context) -> {
+    };
+
+    void extract(String responseBody, UserContext context);
+
+}
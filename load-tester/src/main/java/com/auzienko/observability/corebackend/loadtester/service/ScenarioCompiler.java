@@ -0,0 +1,169 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.auzienko.observability.corebackend.domain.model.HttpRequest;
+import com.auzienko.observability.corebackend.domain.model.LoadTestScenario;
+import com.auzienko.observability.corebackend.domain.model.Step;
+import com.auzienko.observability.corebackend.loadtester.model.consumer.ResultField;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.InvalidPathException;
+import com.jayway.jsonpath.JsonPath;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns a {@link LoadTestScenario} into a {@link CompiledScenario}.
+ * <p>
+ * Variable names (from {@code extract} and from placeholders) are numbered in order of first
+ * appearance; that number is the slot in every {@link UserContext}. Bodies are pre-serialized:
+ * a body without placeholders becomes one shared JSON string, a templated body becomes
+ * JSON fragments with only the templated string values left to render. Extraction paths are
+ * compiled into a {@link ResponseExtractor}, streaming when every path is a plain field path.
+ */
+@Slf4j
+final class ScenarioCompiler {
+
+    static final String JSONPATH_PREFIX = "jsonpath:";
+
+    private final ObjectMapper objectMapper;
+    private final Set<ResultField> capture;
+    private final Map<String, Integer> slots = new HashMap<>();
+
+    /**
+     * @param capture optional result fields the consumers need
+     */
+    ScenarioCompiler(ObjectMapper objectMapper, Set<ResultField> capture) {
+        this.objectMapper = objectMapper;
+        this.capture = capture;
+    }
+
+    CompiledScenario compile(LoadTestScenario scenario) {
+        if (scenario.getSteps() == null || scenario.getSteps().isEmpty()) {
+            throw new IllegalArgumentException("scenario must contain at least one step");
+        }
+        List<CompiledStep> steps = new ArrayList<>(scenario.getSteps().size());
+        for (Step step : scenario.getSteps()) {
+            steps.add(compileStep(step));
+        }
+        return new CompiledScenario(scenario, List.copyOf(steps), slots.size());
+    }
+
+    private CompiledStep compileStep(Step step) {
+        HttpRequest request = step.getRequest();
+        HttpMethod method = HttpMethod.valueOf(request.getMethod().toUpperCase());
+        Template url = Template.parse(request.getUrl(), this::slot);
+
+        HttpHeaders staticHeaders = null;
+        List<CompiledStep.HeaderTemplate> headerTemplates = null;
+        Map<String, String> headers = request.getHeaders() != null ? request.getHeaders() : Map.of();
+        if (headers.values().stream().noneMatch(Template::hasPlaceholders)) {
+            HttpHeaders resolved = new HttpHeaders();
+            headers.forEach(resolved::set);
+            staticHeaders = HttpHeaders.readOnlyHttpHeaders(resolved);
+        } else {
+            headerTemplates = new ArrayList<>();
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                headerTemplates.add(new CompiledStep.HeaderTemplate(
+                        header.getKey(), Template.parse(header.getValue(), this::slot)));
+            }
+        }
+
+        String staticBody = null;
+        List<Object> bodyParts = null;
+        Map<String, Object> body = request.getBody();
+        if (body != null && !body.isEmpty()) {
+            boolean templated = body.values().stream()
+                    .anyMatch(value -> value instanceof String s && Template.hasPlaceholders(s));
+            if (templated) {
+                bodyParts = compileBody(body);
+            } else {
+                staticBody = serialize(body);
+            }
+        }
+
+        ResponseExtractor extractor = compileExtractor(step.getExtract());
+        // The body is still needed for extraction even if no consumer reads it
+        boolean readResponseBody = capture.contains(ResultField.RESPONSE_BODY) || extractor != ResponseExtractor.NONE;
+
+        return new CompiledStep(step, method, url, staticHeaders, headerTemplates,
+                staticBody, bodyParts, extractor, capture, readResponseBody);
+    }
+
+    private List<Object> compileBody(Map<String, Object> body) {
+        List<Object> parts = new ArrayList<>();
+        StringBuilder literal = new StringBuilder("{");
+        boolean first = true;
+        for (Map.Entry<String, Object> entry : body.entrySet()) {
+            if (!first) {
+                literal.append(',');
+            }
+            first = false;
+            literal.append(serialize(entry.getKey())).append(':');
+
+            if (entry.getValue() instanceof String value && Template.hasPlaceholders(value)) {
+                literal.append('"');
+                parts.add(literal.toString());
+                parts.add(Template.parseJsonString(value, this::slot));
+                literal = new StringBuilder("\"");
+            } else {
+                literal.append(serialize(entry.getValue()));
+            }
+        }
+        parts.add(literal.append('}').toString());
+        return List.copyOf(parts);
+    }
+
+    private ResponseExtractor compileExtractor(Map<String, String> extract) {
+        if (extract == null || extract.isEmpty()) {
+            return ResponseExtractor.NONE;
+        }
+        List<CompiledStep.Extraction> extractions = new ArrayList<>();
+        for (Map.Entry<String, String> entry : extract.entrySet()) {
+            String expression = entry.getValue();
+            if (expression != null && expression.startsWith(JSONPATH_PREFIX)) {
+                extractions.add(new CompiledStep.Extraction(entry.getKey(), slot(entry.getKey()),
+                        expression.substring(JSONPATH_PREFIX.length())));
+            }
+        }
+        if (extractions.isEmpty()) {
+            return ResponseExtractor.NONE;
+        }
+
+        StreamingJsonExtractor streaming = StreamingJsonExtractor.create(objectMapper, extractions);
+        if (streaming != null) {
+            return streaming;
+        }
+
+        List<JsonPathExtractor.CompiledPath> paths = new ArrayList<>();
+        for (CompiledStep.Extraction extraction : extractions) {
+            try {
+                paths.add(new JsonPathExtractor.CompiledPath(extraction.variableName(), extraction.slot(),
+                        JsonPath.compile(extraction.jsonPath())));
+            } catch (InvalidPathException e) {
+                log.warn("Ignoring extraction of '{}': invalid JSONPath '{}': {}",
+                        extraction.variableName(), extraction.jsonPath(), e.getMessage());
+            }
+        }
+        return paths.isEmpty() ? ResponseExtractor.NONE : new JsonPathExtractor(List.copyOf(paths));
+    }
+
+    private int slot(String variableName) {
+        return slots.computeIfAbsent(variableName, name -> slots.size());
+    }
+
+    private String serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize request body", e);
+        }
+    }
+
+}
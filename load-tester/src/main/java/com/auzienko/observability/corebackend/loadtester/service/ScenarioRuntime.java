@@ -0,0 +1,119 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.auzienko.observability.corebackend.domain.model.LoadTestScenario;
+import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
+import com.auzienko.observability.corebackend.loadtester.model.consumer.CaptureRequirements;
+import com.auzienko.observability.corebackend.loadtester.model.consumer.ResultField;
+import com.auzienko.observability.corebackend.loadtester.transport.TransportRequest;
+import com.auzienko.observability.corebackend.loadtester.transport.TransportResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Step handling shared by all load engines: compiles the scenario once per test, turns a
+ * {@link CompiledStep} into a {@link TransportRequest} for a given user context, and a
+ * {@link TransportResponse} back into a {@link RawRequestResult}, extracting variables for
+ * the following steps. Results carry only the optional fields the consumers declared (see
+ * {@link CaptureRequirements}) and are reused per user unless a consumer retains them.
+ * Engines only decide how requests are scheduled and on which transport they are sent.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ScenarioRuntime {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Checks the settings a fixed population of virtual users needs.
+     */
+    void validate(LoadTestScenario scenario) {
+        if (scenario.getRuns() == null &&
+                (scenario.getDurationSeconds() == null || scenario.getDurationSeconds() <= 0)) {
+            throw new IllegalArgumentException("Either runs or durationSeconds must be specified");
+        }
+        if (scenario.getVirtualUsers() == null || scenario.getVirtualUsers() <= 0) {
+            throw new IllegalArgumentException("virtualUsers must be greater than 0");
+        }
+        if (scenario.getSteps() == null || scenario.getSteps().isEmpty()) {
+            throw new IllegalArgumentException("scenario must contain at least one step");
+        }
+    }
+
+    /**
+     * Compile the scenario for one test, capturing only the result fields the consumer needs.
+     */
+    CompiledScenario compile(LoadTestScenario scenario, Consumer<RawRequestResult> resultConsumer) {
+        return new ScenarioCompiler(objectMapper, CaptureRequirements.of(resultConsumer)).compile(scenario);
+    }
+
+    TransportRequest prepareRequest(CompiledStep step, UserContext context) {
+        return step.toRequest(context);
+    }
+
+    RawRequestResult complete(int workerId, int iteration, int stepIndex, CompiledStep step,
+                              TransportRequest request, TransportResponse response, UserContext context) {
+        if (response.isSuccess()) {
+            // Extract variables for next steps
+            extractVariables(response.body(), step.extractor(), context);
+        }
+
+        RawRequestResult result = step.captures(ResultField.RETAINED)
+                ? new RawRequestResult()
+                : context.reusableResult();
+
+        result.setWorkerId(workerId);
+        result.setIteration(iteration);
+        result.setStepIndex(stepIndex);
+        result.setStepName(step.name());
+        result.setStageIndex(StageSchedule.NO_STAGE);
+        result.setUrl(request.url());
+        result.setMethod(request.method().name());
+        result.setRequestHeaders(step.captures(ResultField.REQUEST_HEADERS) ? extractHeaders(request.headers()) : null);
+        result.setRequestBody(step.captures(ResultField.REQUEST_BODY) ? request.body() : null);
+        result.setStartTime(response.startTime());
+        result.setDurationNanos(response.durationNanos());
+        result.setScheduleLagNanos(0);
+        result.setPhases(response.phases());
+        result.setStatusCode(response.statusCode());
+        result.setResponseHeaders(response.isSuccess() && step.captures(ResultField.RESPONSE_HEADERS)
+                ? extractHeaders(response.headers())
+                : null);
+        result.setResponseBody(step.captures(ResultField.RESPONSE_BODY) ? response.body() : null);
+        result.setResponseBytes(response.bodyBytes());
+        result.setSuccess(response.isSuccess());
+        result.setErrorType(response.errorType());
+        result.setErrorMessage(response.errorMessage());
+        return result;
+    }
+
+    private Map<String, String> extractHeaders(HttpHeaders headers) {
+        if (headers == null || headers.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, String> result = new HashMap<>();
+        headers.forEach((key, values) -> {
+            if (values != null && !values.isEmpty()) {
+                result.put(key, String.join(", ", values));
+            }
+        });
+        return result;
+    }
+
+    private void extractVariables(String responseBody, ResponseExtractor extractor, UserContext context) {
+        if (extractor == ResponseExtractor.NONE || responseBody == null || responseBody.isEmpty()) {
+            return;
+        }
+        extractor.extract(responseBody, context);
+    }
+
+}
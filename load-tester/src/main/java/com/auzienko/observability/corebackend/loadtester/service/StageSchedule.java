@@ -0,0 +1,275 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.auzienko.observability.corebackend.domain.model.ExecutionMode;
+import com.auzienko.observability.corebackend.domain.model.LoadStage;
+import com.auzienko.observability.corebackend.domain.model.LoadTestScenario;
+import com.auzienko.observability.corebackend.domain.model.StageInterpolation;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Staged load profile of a scenario ({@link LoadTestScenario#getStages()}).
+ * <p>
+ * Gives the target virtual users or iteration rate at any point of the run and, for the
+ * closed model, drives the worker population: every tick workers are launched or retired
+ * until the active count matches the target. Retired workers finish their current iteration
+ * before they stop, so no request is cut off.
+ */
+@Slf4j
+final class StageSchedule {
+
+    static final int NO_STAGE = -1;
+    // How long an interrupted run waits for workers to finish the iteration in progress
+    static final long STOP_TIMEOUT_SECONDS = 10;
+
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final List<LoadStage> stages;
+    private final boolean openModel;
+    private final long[] stageEndNanos;
+    private final double[] startTargets;
+    // Iterations due by the end of each stage (open model), the integral of the target rate
+    private final double[] iterationsAtEnd;
+
+    private volatile long startNanos;
+
+    private StageSchedule(List<LoadStage> stages, boolean openModel) {
+        this.stages = stages;
+        this.openModel = openModel;
+        this.stageEndNanos = new long[stages.size()];
+        this.startTargets = new double[stages.size()];
+        this.iterationsAtEnd = new double[stages.size()];
+
+        long end = 0;
+        double previousTarget = 0;
+        for (int i = 0; i < stages.size(); i++) {
+            end += TimeUnit.SECONDS.toNanos(stages.get(i).getDurationSeconds());
+            stageEndNanos[i] = end;
+            startTargets[i] = previousTarget;
+            previousTarget = target(stages.get(i), openModel);
+        }
+
+        double iterations = 0;
+        for (int i = 0; i < stages.size(); i++) {
+            iterations += averageTarget(i) * stages.get(i).getDurationSeconds();
+            iterationsAtEnd[i] = iterations;
+        }
+    }
+
+    static boolean isStaged(LoadTestScenario scenario) {
+        return scenario.getStages() != null && !scenario.getStages().isEmpty();
+    }
+
+    static StageSchedule of(LoadTestScenario scenario) {
+        boolean openModel = scenario.getExecutionMode() == ExecutionMode.CONSTANT_ARRIVAL_RATE;
+        for (LoadStage stage : scenario.getStages()) {
+            if (stage.getDurationSeconds() == null || stage.getDurationSeconds() <= 0) {
+                throw new IllegalArgumentException("stage durationSeconds must be greater than 0");
+            }
+            if (openModel && (stage.getTargetIterationsPerSecond() == null || stage.getTargetIterationsPerSecond() < 0)) {
+                throw new IllegalArgumentException("stage targetIterationsPerSecond must be 0 or greater");
+            }
+            if (!openModel && (stage.getTargetVirtualUsers() == null || stage.getTargetVirtualUsers() < 0)) {
+                throw new IllegalArgumentException("stage targetVirtualUsers must be 0 or greater");
+            }
+        }
+        return new StageSchedule(List.copyOf(scenario.getStages()), openModel);
+    }
+
+    long totalDurationNanos() {
+        return stageEndNanos[stageEndNanos.length - 1];
+    }
+
+    /**
+     * Offset from the start of the profile at which the integral of the target rate reaches
+     * {@code iteration}, i.e. when that iteration is due, or -1 if the profile ends first.
+     * Stretches with a zero rate are skipped, so no iteration starts in them.
+     */
+    long nanosAtIteration(long iteration) {
+        for (int i = 0; i < stages.size(); i++) {
+            if (iterationsAtEnd[i] <= iteration) {
+                continue;
+            }
+            LoadStage stage = stages.get(i);
+            double duration = stage.getDurationSeconds();
+            double remaining = iteration - (i == 0 ? 0 : iterationsAtEnd[i - 1]);
+            double endRate = target(stage, openModel);
+            double startRate = stage.getInterpolation() == StageInterpolation.STEP ? endRate : startTargets[i];
+
+            // Solve startRate * t + (endRate - startRate) / (2 * duration) * t^2 = remaining
+            double halfSlope = (endRate - startRate) / (2 * duration);
+            double seconds;
+            if (remaining <= 0) {
+                seconds = 0;
+            } else if (halfSlope == 0) {
+                seconds = remaining / startRate;
+            } else {
+                // Root in the form that stays accurate when startRate is close to 0
+                double discriminant = Math.max(0, startRate * startRate + 4 * halfSlope * remaining);
+                seconds = 2 * remaining / (startRate + Math.sqrt(discriminant));
+            }
+            long stageStart = i == 0 ? 0 : stageEndNanos[i - 1];
+            return Math.min(stageStart + (long) (seconds * 1_000_000_000d), stageEndNanos[i] - 1);
+        }
+        return -1;
+    }
+
+    private double averageTarget(int index) {
+        LoadStage stage = stages.get(index);
+        double target = target(stage, openModel);
+        return stage.getInterpolation() == StageInterpolation.STEP
+                ? target
+                : (startTargets[index] + target) / 2;
+    }
+
+    /**
+     * Marks the start of the run; stage times are relative to it.
+     */
+    void start() {
+        startNanos = System.nanoTime();
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * @return the stage running at {@code elapsedNanos}, or {@link #NO_STAGE} once the profile has ended
+     */
+    int stageAt(long elapsedNanos) {
+        for (int i = 0; i < stageEndNanos.length; i++) {
+            if (elapsedNanos < stageEndNanos[i]) {
+                return i;
+            }
+        }
+        return NO_STAGE;
+    }
+
+    int currentStage() {
+        return stageAt(elapsedNanos());
+    }
+
+    int targetVirtualUsersAt(long elapsedNanos) {
+        return (int) Math.round(targetAt(elapsedNanos));
+    }
+
+    private double targetAt(long elapsedNanos) {
+        int index = stageAt(elapsedNanos);
+        if (index == NO_STAGE) {
+            return 0;
+        }
+        LoadStage stage = stages.get(index);
+        double target = target(stage, openModel);
+        if (stage.getInterpolation() == StageInterpolation.STEP) {
+            return target;
+        }
+
+        long stageStart = index == 0 ? 0 : stageEndNanos[index - 1];
+        double progress = (double) (elapsedNanos - stageStart) / (stageEndNanos[index] - stageStart);
+        return startTargets[index] + (target - startTargets[index]) * progress;
+    }
+
+    private static double target(LoadStage stage, boolean openModel) {
+        return openModel ? stage.getTargetIterationsPerSecond() : stage.getTargetVirtualUsers();
+    }
+
+    /**
+     * Starts a virtual user that keeps iterating until {@link Worker#shouldStop()} and
+     * calls {@link Worker#finished()} when it is done.
+     */
+    @FunctionalInterface
+    interface WorkerLauncher {
+        void launch(int workerId, Worker worker);
+    }
+
+    /**
+     * Closed model driver: adjusts the worker population to the profile until it ends, then
+     * waits for the remaining workers to finish their iteration. When interrupted, the wait is
+     * bounded by {@link #STOP_TIMEOUT_SECONDS}.
+     */
+    void run(WorkerLauncher launcher) {
+        Phaser running = new Phaser(1);
+        Deque<Worker> active = new ArrayDeque<>();
+        // Never reused: a retired worker may still be finishing its iteration
+        int nextWorkerId = 0;
+
+        start();
+        try {
+            for (long tick = 0; ; tick += TICK_NANOS) {
+                long elapsed = elapsedNanos();
+                if (elapsed >= totalDurationNanos()) {
+                    break;
+                }
+
+                int target = targetVirtualUsersAt(elapsed);
+                while (active.size() < target) {
+                    Worker worker = new Worker(running);
+                    running.register();
+                    active.push(worker);
+                    launcher.launch(nextWorkerId++, worker);
+                }
+                while (active.size() > target) {
+                    active.pop().retire();
+                }
+
+                long sleepNanos = tick + TICK_NANOS - elapsedNanos();
+                if (sleepNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                }
+            }
+
+            active.forEach(Worker::retire);
+            running.arriveAndAwaitAdvance();
+        } catch (InterruptedException e) {
+            log.warn("Staged load interrupted, retiring {} workers", active.size());
+            active.forEach(Worker::retire);
+            awaitRetired(running);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitRetired(Phaser running) {
+        int phase = running.arrive();
+        try {
+            running.awaitAdvanceInterruptibly(phase, STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            log.warn("{} workers still running after {}s", running.getUnarrivedParties(), STOP_TIMEOUT_SECONDS);
+        } catch (InterruptedException e) {
+            log.warn("Stopped waiting for {} workers", running.getUnarrivedParties());
+        }
+    }
+
+    final class Worker {
+
+        private final Phaser running;
+        private volatile boolean retired;
+
+        private Worker(Phaser running) {
+            this.running = running;
+        }
+
+        boolean shouldStop() {
+            return retired || elapsedNanos() >= totalDurationNanos();
+        }
+
+        int currentStage() {
+            return StageSchedule.this.currentStage();
+        }
+
+        void retire() {
+            retired = true;
+        }
+
+        void finished() {
+            running.arriveAndDeregister();
+        }
+
+    }
+
+}
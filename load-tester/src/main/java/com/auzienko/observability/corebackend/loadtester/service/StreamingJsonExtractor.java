@@ -0,0 +1,142 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Extractor for steps whose expressions are all plain field paths ({@code $.data.token}).
+ * <p>
+ * The requested paths form a trie that is matched against the Jackson token stream: fields
+ * outside the trie are skipped without building anything, and parsing stops as soon as every
+ * value has been found. Only the extracted values themselves are materialized.
+ */
+@Slf4j
+final class StreamingJsonExtractor implements ResponseExtractor {
+
+    private static final Pattern SIMPLE_PATH = Pattern.compile("\\$(\\.[A-Za-z_][A-Za-z0-9_-]*)+");
+
+    private final ObjectMapper objectMapper;
+    private final Node root = new Node();
+    private final List<Target> targets = new ArrayList<>();
+
+    private StreamingJsonExtractor(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    static boolean isSimplePath(String jsonPath) {
+        return SIMPLE_PATH.matcher(jsonPath).matches();
+    }
+
+    /**
+     * @return the extractor, or null if the paths cannot be matched by streaming
+     * (not simple field paths, or one path is a prefix of another)
+     */
+    static StreamingJsonExtractor create(ObjectMapper objectMapper, List<CompiledStep.Extraction> extractions) {
+        StreamingJsonExtractor extractor = new StreamingJsonExtractor(objectMapper);
+        for (CompiledStep.Extraction extraction : extractions) {
+            if (!isSimplePath(extraction.jsonPath()) || !extractor.add(extraction)) {
+                return null;
+            }
+        }
+        return extractor;
+    }
+
+    private boolean add(CompiledStep.Extraction extraction) {
+        String[] fields = extraction.jsonPath().substring(2).split("\\.");
+        Node node = root;
+        for (String field : fields) {
+            if (node.target != null) {
+                return false;
+            }
+            node = node.children.computeIfAbsent(field, name -> new Node());
+        }
+        if (node.target != null || !node.children.isEmpty()) {
+            return false;
+        }
+        node.target = new Target(extraction, targets.size());
+        targets.add(node.target);
+        return true;
+    }
+
+    @Override
+    public void extract(String responseBody, UserContext context) {
+        boolean[] found = new boolean[targets.size()];
+        try (JsonParser parser = objectMapper.createParser(responseBody)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                readObject(parser, root, context, found, new int[]{targets.size()});
+            }
+        } catch (IOException e) {
+            log.warn("Failed to parse response for extraction: {}", e.getMessage());
+            return;
+        }
+
+        for (Target target : targets) {
+            if (!found[target.index]) {
+                log.warn("Failed to extract '{}' with JSONPath '{}': path not found",
+                        target.extraction.variableName(), target.extraction.jsonPath());
+            }
+        }
+    }
+
+    /**
+     * Reads the current object up to its end, or until nothing is left to find.
+     *
+     * @return true when every target has been found and parsing can stop
+     */
+    private boolean readObject(JsonParser parser, Node node, UserContext context,
+                               boolean[] found, int[] remaining) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            Node child = node.children.get(parser.currentName());
+            JsonToken token = parser.nextToken();
+
+            if (child == null) {
+                parser.skipChildren();
+            } else if (child.target != null) {
+                context.setVariable(child.target.extraction.slot(), readValue(parser, token));
+                if (!found[child.target.index]) {
+                    found[child.target.index] = true;
+                    if (--remaining[0] == 0) {
+                        return true;
+                    }
+                }
+            } else if (token == JsonToken.START_OBJECT) {
+                if (readObject(parser, child, context, found, remaining)) {
+                    return true;
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return false;
+    }
+
+    private Object readValue(JsonParser parser, JsonToken token) throws IOException {
+        return switch (token) {
+            case VALUE_STRING -> parser.getText();
+            case VALUE_NUMBER_INT -> parser.getNumberValue();
+            case VALUE_NUMBER_FLOAT -> parser.getDoubleValue();
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            case VALUE_NULL -> null;
+            default -> parser.readValueAs(Object.class);
+        };
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private Target target;
+    }
+
+    private record Target(CompiledStep.Extraction extraction, int index) {
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.ToIntFunction;
+
+/**
+ * A string with {@code ${...}} placeholders, tokenized once when the scenario is compiled.
+ * <p>
+ * Rendering is a sequence of appends: literal segments are copied as-is, {@code ${randomUUID}}
+ * and {@code ${timestamp}} are generated, everything else is looked up by slot in the
+ * {@link UserContext}. A placeholder whose variable has not been extracted yet is rendered
+ * unchanged, as before.
+ */
+final class Template {
+
+    private static final String RANDOM_UUID = "randomUUID";
+    private static final String TIMESTAMP = "timestamp";
+
+    private static final int LITERAL = 0;
+    private static final int VARIABLE = 1;
+    private static final int UUID_VALUE = 2;
+    private static final int TIMESTAMP_VALUE = 3;
+
+    private final int[] kinds;
+    private final String[] literals;
+    private final int[] slots;
+    private final boolean jsonEscaped;
+
+    private Template(int[] kinds, String[] literals, int[] slots, boolean jsonEscaped) {
+        this.kinds = kinds;
+        this.literals = literals;
+        this.slots = slots;
+        this.jsonEscaped = jsonEscaped;
+    }
+
+    /**
+     * @param slotResolver assigns the {@link UserContext} slot for a variable name
+     */
+    static Template parse(String input, ToIntFunction<String> slotResolver) {
+        return parse(input, slotResolver, false);
+    }
+
+    /**
+     * Template for the content of a JSON string: literal segments are escaped once here,
+     * variable values are escaped when rendered.
+     */
+    static Template parseJsonString(String input, ToIntFunction<String> slotResolver) {
+        return parse(input, slotResolver, true);
+    }
+
+    static boolean hasPlaceholders(String input) {
+        return input != null && input.contains("${");
+    }
+
+    private static Template parse(String input, ToIntFunction<String> slotResolver, boolean jsonEscaped) {
+        List<Integer> kinds = new ArrayList<>();
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+
+        int position = 0;
+        while (position < input.length()) {
+            int start = input.indexOf("${", position);
+            int end = start < 0 ? -1 : input.indexOf('}', start + 2);
+            if (end < 0) {
+                break;
+            }
+            if (start > position) {
+                addLiteral(input.substring(position, start), jsonEscaped, kinds, literals, slots);
+            }
+
+            String name = input.substring(start + 2, end);
+            int kind = switch (name) {
+                case RANDOM_UUID -> UUID_VALUE;
+                case TIMESTAMP -> TIMESTAMP_VALUE;
+                default -> VARIABLE;
+            };
+            kinds.add(kind);
+            literals.add(escape(input.substring(start, end + 1), jsonEscaped));
+            slots.add(kind == VARIABLE ? slotResolver.applyAsInt(name) : -1);
+            position = end + 1;
+        }
+        if (position < input.length()) {
+            addLiteral(input.substring(position), jsonEscaped, kinds, literals, slots);
+        }
+
+        return new Template(
+                kinds.stream().mapToInt(Integer::intValue).toArray(),
+                literals.toArray(String[]::new),
+                slots.stream().mapToInt(Integer::intValue).toArray(),
+                jsonEscaped);
+    }
+
+    private static void addLiteral(String literal, boolean jsonEscaped,
+                                   List<Integer> kinds, List<String> literals, List<Integer> slots) {
+        kinds.add(LITERAL);
+        literals.add(escape(literal, jsonEscaped));
+        slots.add(-1);
+    }
+
+    String render(UserContext context) {
+        StringBuilder buffer = context.buffer();
+        appendTo(buffer, context);
+        return buffer.toString();
+    }
+
+    void appendTo(StringBuilder buffer, UserContext context) {
+        for (int i = 0; i < kinds.length; i++) {
+            switch (kinds[i]) {
+                case LITERAL -> buffer.append(literals[i]);
+                case UUID_VALUE -> buffer.append(UUID.randomUUID());
+                case TIMESTAMP_VALUE -> buffer.append(System.currentTimeMillis());
+                default -> {
+                    Object value = context.getVariable(slots[i]);
+                    if (value == null) {
+                        // Not extracted (yet): keep the placeholder as written
+                        buffer.append(literals[i]);
+                    } else if (jsonEscaped) {
+                        JsonStringEncoder.getInstance().quoteAsString(String.valueOf(value), buffer);
+                    } else {
+                        buffer.append(value);
+                    }
+                }
+            }
+        }
+    }
+
+    private static String escape(String literal, boolean jsonEscaped) {
+        return jsonEscaped ? new String(JsonStringEncoder.getInstance().quoteAsString(literal)) : literal;
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
+import lombok.Getter;
+
+/**
+ * Per virtual user state carried between steps (extracted variables).
+ * Variables live in a slot table assigned by the {@link CompiledScenario}.
+ * Not thread-safe: a context is only ever used by one virtual user at a time.
+ */
+class UserContext {
+
+    @Getter
+    private final int workerId;
+
+    private final Object[] variables;
+
+    // Reused for rendering templates, emptied on every use
+    private final StringBuilder buffer = new StringBuilder(256);
+
+    // Reused for every result of this user when no consumer retains results
+    private final RawRequestResult result = new RawRequestResult();
+
+    UserContext(int workerId, int variableCount) {
+        this.workerId = workerId;
+        this.variables = new Object[variableCount];
+    }
+
+    Object getVariable(int slot) {
+        return variables[slot];
+    }
+
+    void setVariable(int slot, Object value) {
+        variables[slot] = value;
+    }
+
+    RawRequestResult reusableResult() {
+        return result;
+    }
+
+    StringBuilder buffer() {
+        buffer.setLength(0);
+        return buffer;
+    }
+
+}
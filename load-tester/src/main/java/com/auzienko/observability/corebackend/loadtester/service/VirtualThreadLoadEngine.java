@@ -0,0 +1,39 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.auzienko.observability.corebackend.domain.model.EngineType;
+import com.auzienko.observability.corebackend.loadtester.transport.RestTemplateTransport;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Blocking engine with one virtual thread per virtual user. A blocked request only parks its
+ * virtual thread, so the number of users is bounded by the connection pool, not by threads.
+ */
+@Service
+public class VirtualThreadLoadEngine extends BlockingLoadEngine {
+
+    public VirtualThreadLoadEngine(
+            RestTemplateTransport transport,
+            ScenarioRuntime scenarioRuntime,
+            ArrivalRateScheduler arrivalRateScheduler) {
+        super(transport, scenarioRuntime, arrivalRateScheduler);
+    }
+
+    @Override
+    public EngineType type() {
+        return EngineType.VIRTUAL_THREADS;
+    }
+
+    @Override
+    ExecutorService newWorkerExecutor(int virtualUsers) {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @Override
+    ExecutorService newStagedExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+}
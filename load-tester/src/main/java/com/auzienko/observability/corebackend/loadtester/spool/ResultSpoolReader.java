@@ -0,0 +1,181 @@
+package com.auzienko.observability.corebackend.loadtester.spool;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams the records of a closed spool written by {@link ResultSpoolWriter}.
+ * The file is mapped read-only, so only the pages being read occupy memory.
+ */
+public class ResultSpoolReader implements AutoCloseable {
+
+    public static final String TRUNCATED = "<truncated>";
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer[] chunks;
+    private final long count;
+    private final String[] strings;
+
+    public ResultSpoolReader(Path file) {
+        this.file = file;
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            long size = channel.size();
+            if (size < SpoolFormat.HEADER_SIZE) {
+                throw new IllegalStateException("Not a result spool: " + file);
+            }
+
+            int chunkCount = (int) ((size + SpoolFormat.CHUNK_SIZE - 1) / SpoolFormat.CHUNK_SIZE);
+            this.chunks = new MappedByteBuffer[chunkCount];
+            for (int i = 0; i < chunkCount; i++) {
+                long position = (long) i * SpoolFormat.CHUNK_SIZE;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(SpoolFormat.CHUNK_SIZE, size - position));
+            }
+
+            MappedByteBuffer header = chunks[0];
+            if (header.getLong(0) != SpoolFormat.MAGIC || header.getInt(8) != SpoolFormat.VERSION) {
+                throw new IllegalStateException("Unsupported result spool: " + file);
+            }
+            this.count = header.getLong(SpoolFormat.COUNT_OFFSET);
+            this.strings = readDictionary(SpoolFormat.dictionaryFile(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open result spool " + file, e);
+        }
+    }
+
+    /**
+     * String dictionary written next to {@code spoolFile}; it belongs to the spool.
+     */
+    public static Path dictionaryFile(Path spoolFile) {
+        return SpoolFormat.dictionaryFile(spoolFile);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public SpooledResult get(long index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Record " + index + " of " + count);
+        }
+        long offset = SpoolFormat.HEADER_SIZE + index * SpoolFormat.RECORD_SIZE;
+        return read(chunks[(int) (offset / SpoolFormat.CHUNK_SIZE)], (int) (offset % SpoolFormat.CHUNK_SIZE));
+    }
+
+    public void forEach(Consumer<SpooledResult> action) {
+        for (long i = 0; i < count; i++) {
+            action.accept(get(i));
+        }
+    }
+
+    /**
+     * Records in the order they completed. The stream is only valid while the reader is open.
+     */
+    public Stream<SpooledResult> stream() {
+        Spliterator<SpooledResult> spliterator = new Spliterators.AbstractSpliterator<>(count,
+                Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL | Spliterator.IMMUTABLE) {
+            private long next;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super SpooledResult> action) {
+                if (next >= count) {
+                    return false;
+                }
+                action.accept(get(next++));
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * Write all records as CSV with a header row.
+     */
+    public void exportCsv(Writer out) throws IOException {
+        out.write("startTime,durationNanos,scheduleLagNanos,responseBytes,workerId,iteration,"
+                + "stepIndex,stageIndex,stepName,statusCode,success,errorType,errorMessage\n");
+        for (long i = 0; i < count; i++) {
+            SpooledResult r = get(i);
+            out.write((r.startTime() != null ? r.startTime() : "") + "," + r.durationNanos() + "," + r.scheduleLagNanos() + ","
+                    + r.responseBytes() + "," + r.workerId() + "," + r.iteration() + ","
+                    + r.stepIndex() + "," + r.stageIndex() + "," + csv(r.stepName()) + ","
+                    + (r.statusCode() != null ? r.statusCode() : "") + "," + r.success() + ","
+                    + csv(r.errorType()) + "," + csv(r.errorMessage()) + "\n");
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close result spool " + file, e);
+        }
+    }
+
+    private SpooledResult read(MappedByteBuffer chunk, int position) {
+        long startNanos = chunk.getLong(position + SpoolFormat.START_TIME);
+        short statusCode = chunk.getShort(position + SpoolFormat.STATUS_CODE);
+        return new SpooledResult(
+                startNanos != 0 ? Instant.ofEpochSecond(0, startNanos) : null,
+                chunk.getLong(position + SpoolFormat.DURATION),
+                chunk.getLong(position + SpoolFormat.SCHEDULE_LAG),
+                chunk.getLong(position + SpoolFormat.RESPONSE_BYTES),
+                chunk.getInt(position + SpoolFormat.WORKER_ID),
+                chunk.getInt(position + SpoolFormat.ITERATION),
+                chunk.getShort(position + SpoolFormat.STEP_INDEX),
+                chunk.getShort(position + SpoolFormat.STAGE_INDEX),
+                statusCode >= 0 ? Integer.valueOf(statusCode) : null,
+                chunk.get(position + SpoolFormat.SUCCESS) != 0,
+                string(chunk.getInt(position + SpoolFormat.STEP_NAME)),
+                string(chunk.getInt(position + SpoolFormat.ERROR_TYPE)),
+                string(chunk.getInt(position + SpoolFormat.ERROR_MESSAGE)));
+    }
+
+    private String string(int id) {
+        if (id == SpoolFormat.NO_STRING) {
+            return null;
+        }
+        if (id == SpoolFormat.DICTIONARY_FULL) {
+            return TRUNCATED;
+        }
+        return strings[id];
+    }
+
+    private static String[] readDictionary(Path dictionaryFile) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(dictionaryFile))) {
+            String[] strings = new String[in.readInt()];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = in.readUTF();
+            }
+            return strings;
+        }
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+}
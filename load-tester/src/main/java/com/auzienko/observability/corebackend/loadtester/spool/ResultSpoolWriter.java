@@ -0,0 +1,200 @@
+package com.auzienko.observability.corebackend.loadtester.spool;
+
+import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
+import com.auzienko.observability.corebackend.loadtester.model.consumer.CaptureRequirements;
+import com.auzienko.observability.corebackend.loadtester.model.consumer.ResultField;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Consumer that appends every result as a fixed-width record to a memory-mapped spool file
+ * (see {@link SpoolFormat}), so full-fidelity runs cost almost no heap: the page cache holds
+ * the data and the OS writes it back. Request and response bodies and headers are not kept.
+ * <p>
+ * Any number of workers can write concurrently; each claims its record with one atomic
+ * increment and writes it in place. {@link #close()} waits for writes in progress, trims the
+ * file, records the count in the header and writes the string dictionary.
+ * Read the spool back with {@link ResultSpoolReader}.
+ */
+@Slf4j
+public class ResultSpoolWriter implements Consumer<RawRequestResult>, CaptureRequirements, AutoCloseable {
+
+    public static final int MAX_DICTIONARY_SIZE = 100_000;
+    // Error messages often embed request specifics; cap them so they cannot bloat the dictionary
+    private static final int MAX_STRING_LENGTH = 1000;
+
+    @Getter
+    private final Path file;
+    private final FileChannel channel;
+
+    private volatile MappedByteBuffer[] chunks = new MappedByteBuffer[0];
+    private final AtomicLong nextRecord = new AtomicLong();
+    private final AtomicInteger activeWriters = new AtomicInteger();
+    private volatile boolean closed;
+
+    private final Map<String, Integer> dictionary = new ConcurrentHashMap<>();
+    private final List<String> strings = new ArrayList<>();
+
+    public ResultSpoolWriter(Path file) {
+        this.file = file;
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer header = chunk(0);
+            header.putLong(0, SpoolFormat.MAGIC);
+            header.putInt(8, SpoolFormat.VERSION);
+            header.putInt(12, SpoolFormat.RECORD_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create result spool " + file, e);
+        }
+    }
+
+    @Override
+    public void accept(RawRequestResult result) {
+        activeWriters.incrementAndGet();
+        try {
+            if (closed) {
+                return;
+            }
+            long offset = SpoolFormat.HEADER_SIZE + nextRecord.getAndIncrement() * SpoolFormat.RECORD_SIZE;
+            MappedByteBuffer chunk = chunk((int) (offset / SpoolFormat.CHUNK_SIZE));
+            write(chunk, (int) (offset % SpoolFormat.CHUNK_SIZE), result);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write to result spool " + file, e);
+        } finally {
+            activeWriters.decrementAndGet();
+        }
+    }
+
+    @Override
+    public Set<ResultField> requiredFields() {
+        return EnumSet.noneOf(ResultField.class);
+    }
+
+    public long getRecordCount() {
+        return nextRecord.get();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        while (activeWriters.get() > 0) {
+            Thread.onSpinWait();
+        }
+
+        long count = nextRecord.get();
+        try {
+            MappedByteBuffer[] mapped = chunks;
+            mapped[0].putLong(SpoolFormat.COUNT_OFFSET, count);
+            for (MappedByteBuffer chunk : mapped) {
+                chunk.force();
+            }
+            channel.truncate(SpoolFormat.HEADER_SIZE + count * SpoolFormat.RECORD_SIZE);
+            channel.close();
+            writeDictionary();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot finish result spool " + file, e);
+        }
+        log.info("Spooled {} results to {}", count, file);
+    }
+
+    private void write(MappedByteBuffer chunk, int position, RawRequestResult result) {
+        Instant startTime = result.getStartTime();
+        chunk.putLong(position + SpoolFormat.START_TIME,
+                startTime != null ? startTime.getEpochSecond() * 1_000_000_000L + startTime.getNano() : 0);
+        chunk.putLong(position + SpoolFormat.DURATION, result.getDurationNanos());
+        chunk.putLong(position + SpoolFormat.SCHEDULE_LAG, result.getScheduleLagNanos());
+        chunk.putLong(position + SpoolFormat.RESPONSE_BYTES, result.getResponseBytes());
+        chunk.putInt(position + SpoolFormat.WORKER_ID, result.getWorkerId());
+        chunk.putInt(position + SpoolFormat.ITERATION, result.getIteration());
+        chunk.putShort(position + SpoolFormat.STEP_INDEX, (short) result.getStepIndex());
+        chunk.putShort(position + SpoolFormat.STAGE_INDEX, (short) result.getStageIndex());
+        chunk.putShort(position + SpoolFormat.STATUS_CODE,
+                result.getStatusCode() != null ? result.getStatusCode().shortValue() : -1);
+        chunk.put(position + SpoolFormat.SUCCESS, (byte) (result.isSuccess() ? 1 : 0));
+        chunk.putInt(position + SpoolFormat.STEP_NAME, intern(result.getStepName()));
+        chunk.putInt(position + SpoolFormat.ERROR_TYPE, intern(result.getErrorType()));
+        chunk.putInt(position + SpoolFormat.ERROR_MESSAGE, intern(result.getErrorMessage()));
+    }
+
+    private MappedByteBuffer chunk(int index) throws IOException {
+        MappedByteBuffer[] mapped = chunks;
+        if (index < mapped.length) {
+            return mapped[index];
+        }
+        synchronized (this) {
+            mapped = chunks;
+            if (index >= mapped.length) {
+                MappedByteBuffer[] grown = Arrays.copyOf(mapped, index + 1);
+                for (int i = mapped.length; i <= index; i++) {
+                    // Mapping past the end grows the file
+                    grown[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+                            (long) i * SpoolFormat.CHUNK_SIZE, SpoolFormat.CHUNK_SIZE);
+                }
+                chunks = grown;
+                mapped = grown;
+            }
+            return mapped[index];
+        }
+    }
+
+    private int intern(String value) {
+        if (value == null) {
+            return SpoolFormat.NO_STRING;
+        }
+        Integer id = dictionary.get(value);
+        if (id != null) {
+            return id;
+        }
+        synchronized (strings) {
+            id = dictionary.get(value);
+            if (id != null) {
+                return id;
+            }
+            if (strings.size() >= MAX_DICTIONARY_SIZE) {
+                return SpoolFormat.DICTIONARY_FULL;
+            }
+            id = strings.size();
+            strings.add(value.length() > MAX_STRING_LENGTH ? value.substring(0, MAX_STRING_LENGTH) : value);
+            dictionary.put(value, id);
+            return id;
+        }
+    }
+
+    private void writeDictionary() throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                Files.newOutputStream(SpoolFormat.dictionaryFile(file)))) {
+            synchronized (strings) {
+                out.writeInt(strings.size());
+                for (String value : strings) {
+                    out.writeUTF(value);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.auzienko.observability.corebackend.loadtester.spool;
+
+import java.nio.file.Path;
+
+/**
+ * Layout of a result spool.
+ * <p>
+ * The data file is a {@value #HEADER_SIZE}-byte header followed by fixed-width
+ * {@value #RECORD_SIZE}-byte records in completion order. Strings (step names, error types
+ * and messages) are stored as ids into a dictionary kept in a side file with the
+ * {@value #DICTIONARY_SUFFIX} suffix, written when the spool is closed.
+ * <pre>
+ * header:  0 magic (long)  8 version (int)  12 record size (int)  16 record count (long)
+ * record:  0 start time, epoch nanos (long)   8 duration nanos (long)
+ *         16 schedule lag nanos (long)       24 response bytes (long)
+ *         32 worker id (int)                 36 iteration (int)
+ *         40 step index (short)              42 stage index (short)
+ *         44 status code, -1 if none (short) 46 success (byte)
+ *         48 step name id (int)              52 error type id (int)
+ *         56 error message id (int)          60 unused
+ * </pre>
+ */
+final class SpoolFormat {
+
+    static final long MAGIC = 0x4C5453504F4F4C31L; // "LTSPOOL1"
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 64;
+    static final String DICTIONARY_SUFFIX = ".dict";
+
+    static final int COUNT_OFFSET = 16;
+
+    static final int START_TIME = 0;
+    static final int DURATION = 8;
+    static final int SCHEDULE_LAG = 16;
+    static final int RESPONSE_BYTES = 24;
+    static final int WORKER_ID = 32;
+    static final int ITERATION = 36;
+    static final int STEP_INDEX = 40;
+    static final int STAGE_INDEX = 42;
+    static final int STATUS_CODE = 44;
+    static final int SUCCESS = 46;
+    static final int STEP_NAME = 48;
+    static final int ERROR_TYPE = 52;
+    static final int ERROR_MESSAGE = 56;
+
+    // Dictionary id of a missing string
+    static final int NO_STRING = -1;
+    // Dictionary id used once the dictionary is full
+    static final int DICTIONARY_FULL = -2;
+
+    // Records are mapped in chunks of this size; a multiple of RECORD_SIZE so no record straddles two
+    static final int CHUNK_SIZE = 64 * 1024 * 1024;
+
+    private SpoolFormat() {
+    }
+
+    static Path dictionaryFile(Path spoolFile) {
+        return spoolFile.resolveSibling(spoolFile.getFileName() + DICTIONARY_SUFFIX);
+    }
+
+}
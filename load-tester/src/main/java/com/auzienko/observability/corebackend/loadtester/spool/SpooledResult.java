@@ -0,0 +1,24 @@
+package com.auzienko.observability.corebackend.loadtester.spool;
+
+import java.time.Instant;
+
+/**
+ * One request result read back from a spool. Strings are resolved from the dictionary;
+ * {@link ResultSpoolReader#TRUNCATED} marks strings dropped because the dictionary was full.
+ */
+public record SpooledResult(
+        Instant startTime,
+        long durationNanos,
+        long scheduleLagNanos,
+        long responseBytes,
+        int workerId,
+        int iteration,
+        int stepIndex,
+        int stageIndex,
+        Integer statusCode,
+        boolean success,
+        String stepName,
+        String errorType,
+        String errorMessage
+) {
+}
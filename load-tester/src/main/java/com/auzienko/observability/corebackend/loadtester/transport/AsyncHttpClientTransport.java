@@ -0,0 +1,217 @@
+package com.auzienko.observability.corebackend.loadtester.transport;
+
+import org.apache.hc.client5.http.async.methods.AbstractBinResponseConsumer;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.async.methods.SimpleRequestProducer;
+import org.apache.hc.client5.http.async.methods.SimpleResponseConsumer;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriBuilderFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking transport on top of the HttpClient5 async (I/O reactor) client.
+ * <p>
+ * No thread is held while a request is in flight; the returned future is completed on
+ * an I/O dispatcher thread. Concurrency is bounded by the async connection pool and, for
+ * HTTP/2 targets, by the maximum number of concurrent streams per connection.
+ */
+@Component
+public class AsyncHttpClientTransport implements HttpTransport {
+
+    private final CloseableHttpAsyncClient httpClient;
+
+    // Same URI template expansion and encoding as RestTemplate#exchange(String, ...)
+    private final UriBuilderFactory uriBuilderFactory = new DefaultUriBuilderFactory();
+
+    public AsyncHttpClientTransport(@Qualifier("loadTestAsyncHttpClient") CloseableHttpAsyncClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> send(TransportRequest request) {
+        CompletableFuture<TransportResponse> future = new CompletableFuture<>();
+
+        Instant startTime = Instant.now();
+        long startNanos = System.nanoTime();
+
+        SimpleHttpRequest httpRequest;
+        try {
+            httpRequest = toHttpRequest(request);
+        } catch (Exception e) {
+            future.complete(TransportResponse.failure(startTime, System.nanoTime() - startNanos, null,
+                    UNKNOWN_ERROR, e.getMessage()));
+            return future;
+        }
+
+        if (request.readResponseBody()) {
+            httpClient.execute(
+                    SimpleRequestProducer.create(httpRequest),
+                    SimpleResponseConsumer.create(),
+                    new ResponseCallback<>(future, startTime, startNanos) {
+                        @Override
+                        TransportResponse toTransportResponse(SimpleHttpResponse response, long durationNanos) {
+                            byte[] body = response.getBodyBytes();
+                            return buildResponse(request, response, startTime,
+                                    durationNanos, decodeBody(response), body != null ? body.length : 0);
+                        }
+                    });
+        } else {
+            httpClient.execute(
+                    SimpleRequestProducer.create(httpRequest),
+                    new CountingResponseConsumer(),
+                    new ResponseCallback<>(future, startTime, startNanos) {
+                        @Override
+                        TransportResponse toTransportResponse(CountedResponse response, long durationNanos) {
+                            return buildResponse(request, response.head(), startTime,
+                                    durationNanos, null, response.bodyBytes());
+                        }
+                    });
+        }
+
+        return future;
+    }
+
+    private SimpleHttpRequest toHttpRequest(TransportRequest request) {
+        SimpleHttpRequest httpRequest = SimpleRequestBuilder.create(request.method().name())
+                .setUri(uriBuilderFactory.expand(request.url()))
+                .build();
+
+        HttpHeaders headers = request.headers();
+        if (headers != null) {
+            headers.forEach((name, values) -> values.forEach(value -> httpRequest.addHeader(name, value)));
+        }
+
+        if (request.body() != null) {
+            ContentType contentType = headers != null && headers.getContentType() != null
+                    ? ContentType.parse(headers.getContentType().toString())
+                    : ContentType.TEXT_PLAIN;
+            httpRequest.setBody(request.body(), contentType);
+        }
+        return httpRequest;
+    }
+
+    private TransportResponse buildResponse(TransportRequest request, HttpResponse response, Instant startTime,
+                                            long durationNanos, String body, long bodyBytes) {
+        int statusCode = response.getCode();
+        if (statusCode >= 400) {
+            String errorType = statusCode >= 500 ? HTTP_SERVER_ERROR : HTTP_CLIENT_ERROR;
+            return TransportResponse.failure(startTime, durationNanos, statusCode, errorType,
+                    statusCode + " " + response.getReasonPhrase());
+        }
+
+        HttpHeaders headers = null;
+        if (request.readResponseHeaders()) {
+            headers = new HttpHeaders();
+            for (Header header : response.getHeaders()) {
+                headers.add(header.getName(), header.getValue());
+            }
+        }
+
+        return TransportResponse.success(startTime, durationNanos, statusCode, headers, body, bodyBytes);
+    }
+
+    private String decodeBody(SimpleHttpResponse response) {
+        byte[] body = response.getBodyBytes();
+        if (body == null) {
+            return null;
+        }
+        ContentType contentType = response.getContentType();
+        Charset charset = contentType != null && contentType.getCharset() != null
+                ? contentType.getCharset()
+                : StandardCharsets.UTF_8;
+        return new String(body, charset);
+    }
+
+    /**
+     * Completes the transport future; failures and cancellation become failure responses.
+     */
+    private abstract static class ResponseCallback<T> implements FutureCallback<T> {
+
+        private final CompletableFuture<TransportResponse> future;
+        private final Instant startTime;
+        private final long startNanos;
+
+        ResponseCallback(CompletableFuture<TransportResponse> future, Instant startTime, long startNanos) {
+            this.future = future;
+            this.startTime = startTime;
+            this.startNanos = startNanos;
+        }
+
+        abstract TransportResponse toTransportResponse(T response, long durationNanos);
+
+        @Override
+        public void completed(T response) {
+            future.complete(toTransportResponse(response, System.nanoTime() - startNanos));
+        }
+
+        @Override
+        public void failed(Exception e) {
+            String errorType = e instanceof IOException ? CONNECTION_ERROR : UNKNOWN_ERROR;
+            future.complete(TransportResponse.failure(startTime, System.nanoTime() - startNanos, null,
+                    errorType, e.getMessage()));
+        }
+
+        @Override
+        public void cancelled() {
+            future.complete(TransportResponse.failure(startTime, System.nanoTime() - startNanos, null,
+                    UNKNOWN_ERROR, "Request cancelled"));
+        }
+
+    }
+
+    private record CountedResponse(HttpResponse head, long bodyBytes) {
+    }
+
+    /**
+     * Reads the response body without buffering it, keeping only its size.
+     */
+    private static final class CountingResponseConsumer extends AbstractBinResponseConsumer<CountedResponse> {
+
+        private HttpResponse head;
+        private long bodyBytes;
+
+        @Override
+        protected void start(HttpResponse response, ContentType contentType) {
+            this.head = response;
+            this.bodyBytes = 0;
+        }
+
+        @Override
+        protected int capacityIncrement() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        protected void data(ByteBuffer src, boolean endOfStream) {
+            bodyBytes += src.remaining();
+            src.position(src.limit());
+        }
+
+        @Override
+        protected CountedResponse buildResult() {
+            return new CountedResponse(head, bodyBytes);
+        }
+
+        @Override
+        public void releaseResources() {
+        }
+
+    }
+
+}
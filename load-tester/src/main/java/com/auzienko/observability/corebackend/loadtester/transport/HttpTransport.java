@@ -0,0 +1,29 @@
+package com.auzienko.observability.corebackend.loadtester.transport;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Pluggable HTTP transport used by the load test executors.
+ * Implementations never complete exceptionally: failures are returned as
+ * {@link TransportResponse#failure} so every request yields exactly one result.
+ */
+public interface HttpTransport {
+
+    String CONNECTION_ERROR = "CONNECTION_ERROR";
+    String HTTP_CLIENT_ERROR = "HTTP_CLIENT_ERROR";
+    String HTTP_SERVER_ERROR = "HTTP_SERVER_ERROR";
+    String UNKNOWN_ERROR = "UNKNOWN_ERROR";
+
+    /**
+     * Send the request, completing the future when the response has been received.
+     */
+    CompletableFuture<TransportResponse> send(TransportRequest request);
+
+    /**
+     * Send the request and wait for the response on the calling thread.
+     */
+    default TransportResponse exchange(TransportRequest request) {
+        return send(request).join();
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.auzienko.observability.corebackend.loadtester.transport;
+
+import com.auzienko.observability.corebackend.loadtester.model.PhaseTimings;
+
+/**
+ * Collects the connection phases of the blocking exchange running on the current thread.
+ * <p>
+ * The classic HttpClient leases, connects and executes on the calling thread, so
+ * {@link TimedConnectionManager} and {@link TimedTlsSocketStrategy} report into a thread-local
+ * recording that {@link RestTemplateTransport} opens before the exchange and reads afterwards.
+ * Reports made while no recording is open (e.g. outside load tests) are ignored.
+ */
+public final class PhaseRecorder {
+
+    private static final ThreadLocal<Recording> CURRENT = ThreadLocal.withInitial(Recording::new);
+
+    private PhaseRecorder() {
+    }
+
+    static Recording begin() {
+        Recording recording = CURRENT.get();
+        recording.reset();
+        recording.active = true;
+        return recording;
+    }
+
+    static void recordPoolWait(long nanos) {
+        Recording recording = CURRENT.get();
+        if (recording.active) {
+            recording.poolWaitNanos += nanos;
+            recording.leased = true;
+        }
+    }
+
+    static void recordConnect(long nanos) {
+        Recording recording = CURRENT.get();
+        if (recording.active) {
+            recording.connectNanos = add(recording.connectNanos, nanos);
+        }
+    }
+
+    static void recordTls(long nanos) {
+        Recording recording = CURRENT.get();
+        if (recording.active) {
+            recording.tlsNanos = add(recording.tlsNanos, nanos);
+        }
+    }
+
+    private static long add(long total, long nanos) {
+        return total == PhaseTimings.NOT_MEASURED ? nanos : total + nanos;
+    }
+
+    static final class Recording {
+
+        private boolean active;
+        // Every exchange leases a connection, so no lease means the client is not instrumented
+        private boolean leased;
+        private long poolWaitNanos;
+        // Includes the TLS handshake, which the connection manager performs as part of connect
+        private long connectNanos;
+        private long tlsNanos;
+
+        private void reset() {
+            leased = false;
+            poolWaitNanos = 0;
+            connectNanos = PhaseTimings.NOT_MEASURED;
+            tlsNanos = PhaseTimings.NOT_MEASURED;
+        }
+
+        /**
+         * Close the recording.
+         *
+         * @param headNanos nanos from the start of the exchange until the response head arrived,
+         *                  or {@link PhaseTimings#NOT_MEASURED} if none did
+         * @param bodyNanos nanos spent reading the response body, or {@link PhaseTimings#NOT_MEASURED}
+         * @return the phases, or null if the client did not report any
+         */
+        PhaseTimings finish(long headNanos, long bodyNanos) {
+            active = false;
+            if (!leased) {
+                return null;
+            }
+            long tcp = connectNanos;
+            if (connectNanos != PhaseTimings.NOT_MEASURED && tlsNanos != PhaseTimings.NOT_MEASURED) {
+                tcp = connectNanos - tlsNanos;
+            }
+            long setup = poolWaitNanos + Math.max(connectNanos, 0);
+            long firstByte = headNanos != PhaseTimings.NOT_MEASURED
+                    ? Math.max(headNanos - setup, 0)
+                    : PhaseTimings.NOT_MEASURED;
+            return new PhaseTimings(poolWaitNanos, tcp, tlsNanos, firstByte, bodyNanos);
+        }
+
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.auzienko.observability.corebackend.loadtester.transport;
+
+import com.auzienko.observability.corebackend.loadtester.model.PhaseTimings;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Blocking transport on top of the pooled {@code loadTestRestTemplate}.
+ * The request is executed on the calling thread. Error statuses are still turned into
+ * exceptions by the template's error handler and mapped to error types below.
+ * Responses carry {@link PhaseTimings} when the template's client reports into the
+ * {@link PhaseRecorder}.
+ */
+@Component
+public class RestTemplateTransport implements HttpTransport {
+
+    private final RestTemplate restTemplate;
+
+    public RestTemplateTransport(@Qualifier("loadTestRestTemplate") RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> send(TransportRequest request) {
+        return CompletableFuture.completedFuture(exchange(request));
+    }
+
+    @Override
+    public TransportResponse exchange(TransportRequest request) {
+        HttpEntity<String> requestEntity = new HttpEntity<>(request.body(), request.headers());
+
+        PhaseRecorder.Recording phases = PhaseRecorder.begin();
+        Instant startTime = Instant.now();
+        long startNanos = System.nanoTime();
+
+        try {
+            return restTemplate.execute(request.url(), request.method(),
+                    restTemplate.httpEntityCallback(requestEntity, String.class),
+                    response -> readResponse(request, response, phases, startTime, startNanos));
+
+        } catch (ResourceAccessException e) {
+            return failure(phases, startTime, startNanos, null, CONNECTION_ERROR, e.getMessage());
+        } catch (HttpClientErrorException e) {
+            return failure(phases, startTime, startNanos, e.getStatusCode().value(),
+                    HTTP_CLIENT_ERROR, e.getMessage());
+        } catch (HttpServerErrorException e) {
+            return failure(phases, startTime, startNanos, e.getStatusCode().value(),
+                    HTTP_SERVER_ERROR, e.getMessage());
+        } catch (Exception e) {
+            return failure(phases, startTime, startNanos, null, UNKNOWN_ERROR, e.getMessage());
+        }
+    }
+
+    private TransportResponse failure(PhaseRecorder.Recording phases, Instant startTime, long startNanos,
+                                      Integer statusCode, String errorType, String errorMessage) {
+        long durationNanos = System.nanoTime() - startNanos;
+        // An error status means a response head arrived; the error handler has read the body by now
+        long headNanos = statusCode != null ? durationNanos : PhaseTimings.NOT_MEASURED;
+        return TransportResponse.failure(startTime, durationNanos, statusCode, errorType, errorMessage)
+                .withPhases(phases.finish(headNanos, PhaseTimings.NOT_MEASURED));
+    }
+
+    private TransportResponse readResponse(TransportRequest request, ClientHttpResponse response,
+                                           PhaseRecorder.Recording phases, Instant startTime, long startNanos)
+            throws IOException {
+        long headNanos = System.nanoTime() - startNanos;
+        HttpHeaders headers = response.getHeaders();
+        String body = null;
+        long bodyBytes;
+        if (request.readResponseBody()) {
+            byte[] bytes = response.getBody().readAllBytes();
+            bodyBytes = bytes.length;
+            if (bytes.length > 0) {
+                MediaType contentType = headers.getContentType();
+                Charset charset = contentType != null && contentType.getCharset() != null
+                        ? contentType.getCharset()
+                        : StandardCharsets.UTF_8;
+                body = new String(bytes, charset);
+            }
+        } else {
+            // Nobody needs the body: read it to release the connection, but only count it
+            bodyBytes = response.getBody().transferTo(OutputStream.nullOutputStream());
+        }
+        long durationNanos = System.nanoTime() - startNanos;
+
+        return TransportResponse.success(startTime, durationNanos, response.getStatusCode().value(),
+                        request.readResponseHeaders() ? headers : null, body, bodyBytes)
+                .withPhases(phases.finish(headNanos, durationNanos - headNanos));
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.auzienko.observability.corebackend.loadtester.transport;
+
+import org.apache.hc.client5.http.ssl.TlsSocketStrategy;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+import javax.net.ssl.SSLSocket;
+import java.io.IOException;
+import java.net.Socket;
+
+/**
+ * TLS strategy decorator that reports the handshake time of new connections to the
+ * {@link PhaseRecorder}.
+ */
+public class TimedTlsSocketStrategy implements TlsSocketStrategy {
+
+    private final TlsSocketStrategy delegate;
+
+    public TimedTlsSocketStrategy(TlsSocketStrategy delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public SSLSocket upgrade(Socket socket, String target, int port, Object attachment, HttpContext context)
+            throws IOException {
+        long startNanos = System.nanoTime();
+        try {
+            // The default strategy completes the handshake and verifies the host before returning
+            return delegate.upgrade(socket, target, port, attachment, context);
+        } finally {
+            PhaseRecorder.recordTls(System.nanoTime() - startNanos);
+        }
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.auzienko.observability.corebackend.loadtester.transport;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+/**
+ * A request to send. When {@code readResponseBody} is false the response body is drained
+ * and only counted; when {@code readResponseHeaders} is false response headers are not copied.
+ */
+public record TransportRequest(
+
+        HttpMethod method,
+        String url,
+        HttpHeaders headers,
+        String body,
+        boolean readResponseBody,
+        boolean readResponseHeaders
+
+) {
+}
@@ -0,0 +1,47 @@
+package com.auzienko.observability.corebackend.loadtester.transport;
+
+import com.auzienko.observability.corebackend.loadtester.model.PhaseTimings;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Instant;
+
+/**
+ * Outcome of a single exchange. Transport failures and HTTP error statuses are reported
+ * through {@code errorType}/{@code errorMessage} instead of exceptions. {@code headers} and
+ * {@code body} are null when the request did not ask for them; {@code bodyBytes} is always set.
+ * {@code phases} is null when the transport does not measure request phases.
+ */
+public record TransportResponse(
+
+        Instant startTime,
+        long durationNanos,
+        Integer statusCode,
+        HttpHeaders headers,
+        String body,
+        long bodyBytes,
+        String errorType,
+        String errorMessage,
+        PhaseTimings phases
+
+) {
+
+    public static TransportResponse success(Instant startTime, long durationNanos, int statusCode,
+                                            HttpHeaders headers, String body, long bodyBytes) {
+        return new TransportResponse(startTime, durationNanos, statusCode, headers, body, bodyBytes, null, null, null);
+    }
+
+    public static TransportResponse failure(Instant startTime, long durationNanos, Integer statusCode,
+                                            String errorType, String errorMessage) {
+        return new TransportResponse(startTime, durationNanos, statusCode, null, null, 0, errorType, errorMessage, null);
+    }
+
+    public TransportResponse withPhases(PhaseTimings phases) {
+        return new TransportResponse(startTime, durationNanos, statusCode, headers, body, bodyBytes,
+                errorType, errorMessage, phases);
+    }
+
+    public boolean isSuccess() {
+        return errorType == null;
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.auzienko.observability.corebackend.loadtester.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    private static final double[] QUANTILES = {0.0, 0.1, 0.5, 0.9, 0.95, 0.99, 0.999, 1.0};
+
+    @ParameterizedTest(name = "{0} significant digits")
+    @ValueSource(ints = {1, 2, 3, 4, 5})
+    @DisplayName("should report quantiles within the configured precision of a sorted reference")
+    void getValueAtQuantile_shouldMatchSortedReference(int significantDigits) {
+        // ARRANGE
+        LatencyHistogram histogram = new LatencyHistogram(significantDigits);
+        long[] values = latencies(new Random(significantDigits), 50_000);
+
+        // ACT
+        for (long value : values) {
+            histogram.recordValue(value);
+        }
+
+        // ASSERT
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        long unit = (long) Math.pow(10, significantDigits);
+        for (double quantile : QUANTILES) {
+            long expected = sorted[(int) Math.max(0, Math.ceil(quantile * sorted.length) - 1)];
+            assertThat(histogram.getValueAtQuantile(quantile))
+                    .as("quantile %s", quantile)
+                    .isBetween(expected, expected + Math.max(0, expected / unit - 1));
+        }
+        assertThat(histogram.getTotalCount()).isEqualTo(values.length);
+        assertThat(histogram.getMinValue()).isEqualTo(sorted[0]);
+        assertThat(histogram.getMaxValue()).isEqualTo(sorted[sorted.length - 1]);
+        assertThat(histogram.getMean()).isCloseTo(Arrays.stream(values).average().orElseThrow(), within(1e-6));
+    }
+
+    @Test
+    @DisplayName("should record small values exactly")
+    void recordValue_shouldKeepSmallValuesExact() {
+        // ARRANGE
+        LatencyHistogram histogram = new LatencyHistogram(3);
+
+        // ACT
+        for (long value = 0; value < 2000; value++) {
+            histogram.recordValue(value);
+        }
+
+        // ASSERT
+        assertThat(histogram.getValueAtQuantile(0.5)).isEqualTo(999);
+        assertThat(histogram.getValueAtQuantile(0.001)).isEqualTo(1);
+        assertThat(histogram.getValueAtQuantile(1.0)).isEqualTo(1999);
+    }
+
+    @Test
+    @DisplayName("should clamp negative values to zero and keep the exact maximum above the trackable range")
+    void recordValue_shouldHandleOutOfRangeValues() {
+        // ARRANGE
+        LatencyHistogram histogram = new LatencyHistogram(2, TimeUnit.SECONDS.toNanos(1));
+
+        // ACT
+        histogram.recordValue(-5);
+        histogram.recordValue(TimeUnit.SECONDS.toNanos(30));
+
+        // ASSERT
+        assertThat(histogram.getMinValue()).isZero();
+        assertThat(histogram.getMaxValue()).isEqualTo(TimeUnit.SECONDS.toNanos(30));
+        assertThat(histogram.getValueAtQuantile(0.0)).isZero();
+        assertThat(histogram.getValueAtQuantile(1.0)).isGreaterThanOrEqualTo(TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    @DisplayName("should equal a single histogram of all values after adding another one")
+    void add_shouldMergeCounts() {
+        // ARRANGE
+        Random random = new Random(42);
+        long[] first = latencies(random, 10_000);
+        long[] second = latencies(random, 20_000);
+        LatencyHistogram left = new LatencyHistogram();
+        LatencyHistogram right = left.emptyCopy();
+        LatencyHistogram all = left.emptyCopy();
+        for (long value : first) {
+            left.recordValue(value);
+            all.recordValue(value);
+        }
+        for (long value : second) {
+            right.recordValue(value);
+            all.recordValue(value);
+        }
+
+        // ACT
+        left.add(right);
+        left.add(left.emptyCopy());
+
+        // ASSERT
+        assertThat(left.getTotalCount()).isEqualTo(all.getTotalCount());
+        assertThat(left.getMinValue()).isEqualTo(all.getMinValue());
+        assertThat(left.getMaxValue()).isEqualTo(all.getMaxValue());
+        assertThat(left.getMean()).isEqualTo(all.getMean());
+        for (double quantile : QUANTILES) {
+            assertThat(left.getValueAtQuantile(quantile)).isEqualTo(all.getValueAtQuantile(quantile));
+        }
+    }
+
+    @Test
+    @DisplayName("should refuse to add a histogram with a different layout")
+    void add_shouldRejectDifferentLayout() {
+        // ARRANGE
+        LatencyHistogram histogram = new LatencyHistogram(3);
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> histogram.add(new LatencyHistogram(2)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> histogram.add(new LatencyHistogram(3, TimeUnit.SECONDS.toNanos(1))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("should forget all values on reset and record from scratch afterwards")
+    void reset_shouldClearCounts() {
+        // ARRANGE
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value : latencies(new Random(7), 1000)) {
+            histogram.recordValue(value);
+        }
+
+        // ACT
+        histogram.reset();
+
+        // ASSERT
+        assertThat(histogram.getTotalCount()).isZero();
+        assertThat(histogram.getMinValue()).isZero();
+        assertThat(histogram.getMaxValue()).isZero();
+        assertThat(histogram.getMean()).isZero();
+        assertThat(histogram.getValueAtQuantile(0.99)).isZero();
+
+        histogram.recordValue(5_000_000);
+        histogram.recordValue(7_000_000);
+        assertThat(histogram.getMinValue()).isEqualTo(5_000_000);
+        assertThat(histogram.getMaxValue()).isEqualTo(7_000_000);
+        assertThat(histogram.getValueAtQuantile(0.5)).isBetween(5_000_000L, 5_005_000L);
+    }
+
+    /**
+     * Log-uniform between 1µs and 10s, like response times spanning several orders of magnitude.
+     */
+    private static long[] latencies(Random random, int count) {
+        double low = Math.log(TimeUnit.MICROSECONDS.toNanos(1));
+        double high = Math.log(TimeUnit.SECONDS.toNanos(10));
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = (long) Math.exp(low + random.nextDouble() * (high - low));
+        }
+        return values;
+    }
+
+}
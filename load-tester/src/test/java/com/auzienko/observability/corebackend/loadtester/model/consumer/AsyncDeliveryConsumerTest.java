@@ -0,0 +1,253 @@
+package com.auzienko.observability.corebackend.loadtester.model.consumer;
+
+import com.auzienko.observability.corebackend.domain.model.OverflowPolicy;
+import com.auzienko.observability.corebackend.domain.model.ResultDelivery;
+import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncDeliveryConsumerTest {
+
+    @AfterEach
+    void clearInterrupt() {
+        Thread.interrupted();
+    }
+
+    @Test
+    @DisplayName("should deliver every published result by the time close returns")
+    void close_shouldDrainPublishedResults() {
+        // ARRANGE
+        Recorder recorder = new Recorder();
+        AsyncDeliveryConsumer delivery = new AsyncDeliveryConsumer(settings(1024, OverflowPolicy.BLOCK), recorder);
+
+        // ACT
+        for (int i = 0; i < 10_000; i++) {
+            delivery.accept(result(0, i));
+        }
+        delivery.close();
+
+        // ASSERT
+        assertThat(recorder.iterations(0)).hasSize(10_000).isSorted();
+        assertThat(delivery.getDroppedCount()).isZero();
+        assertThat(delivery.getQueueDepth()).isZero();
+    }
+
+    @Test
+    @DisplayName("should finish draining and keep the interrupt when closed from an interrupted thread")
+    void close_shouldDrainWhenInterrupted() {
+        // ARRANGE
+        CountDownLatch release = new CountDownLatch(1);
+        Recorder recorder = new Recorder(release);
+        AsyncDeliveryConsumer delivery = new AsyncDeliveryConsumer(settings(64, OverflowPolicy.BLOCK), recorder);
+        for (int i = 0; i < 50; i++) {
+            delivery.accept(result(0, i));
+        }
+        Thread.ofVirtual().start(() -> {
+            sleep(100);
+            release.countDown();
+        });
+
+        // ACT
+        Thread.currentThread().interrupt();
+        delivery.close();
+
+        // ASSERT
+        assertThat(Thread.interrupted()).isTrue();
+        assertThat(recorder.iterations(0)).hasSize(50);
+    }
+
+    @Test
+    @DisplayName("should deliver every result from concurrent producers once, in each producer's order")
+    void accept_shouldDeliverFromConcurrentProducers() throws InterruptedException {
+        // ARRANGE
+        int producers = 8;
+        int perProducer = 20_000;
+        Recorder recorder = new Recorder();
+        AsyncDeliveryConsumer delivery = new AsyncDeliveryConsumer(settings(256, OverflowPolicy.BLOCK), recorder);
+
+        // ACT
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int workerId = p;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    delivery.accept(result(workerId, i));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        delivery.close();
+
+        // ASSERT
+        assertThat(delivery.getDroppedCount()).isZero();
+        for (int p = 0; p < producers; p++) {
+            assertThat(recorder.iterations(p)).hasSize(perProducer).isSorted().doesNotHaveDuplicates();
+        }
+    }
+
+    @Test
+    @DisplayName("should make the producer wait for space under BLOCK and drop nothing")
+    void accept_shouldWaitWhenFullUnderBlock() throws InterruptedException {
+        // ARRANGE
+        CountDownLatch release = new CountDownLatch(1);
+        Recorder recorder = new Recorder(release);
+        AsyncDeliveryConsumer delivery = new AsyncDeliveryConsumer(settings(4, OverflowPolicy.BLOCK), recorder);
+
+        // ACT
+        Thread producer = Thread.ofPlatform().start(() -> {
+            for (int i = 0; i < 6; i++) {
+                delivery.accept(result(0, i));
+            }
+        });
+        producer.join(200);
+
+        // ASSERT
+        assertThat(producer.isAlive()).isTrue();
+        assertThat(delivery.getQueueDepth()).isEqualTo(4);
+
+        release.countDown();
+        producer.join();
+        delivery.close();
+        assertThat(recorder.iterations(0)).containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(delivery.getDroppedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("should drop and count every result that finds the buffer full under DROP")
+    void accept_shouldDropWhenFullUnderDrop() {
+        // ARRANGE
+        CountDownLatch release = new CountDownLatch(1);
+        Recorder recorder = new Recorder(release);
+        AsyncDeliveryConsumer delivery = new AsyncDeliveryConsumer(settings(4, OverflowPolicy.DROP), recorder);
+
+        // ACT
+        for (int i = 0; i < 10; i++) {
+            delivery.accept(result(0, i));
+        }
+        release.countDown();
+        delivery.close();
+
+        // ASSERT
+        assertThat(recorder.iterations(0)).containsExactly(0, 1, 2, 3);
+        assertThat(delivery.getDroppedCount()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("should wait for every sampleRate-th overflowing result under SAMPLE and drop the rest")
+    void accept_shouldSampleWhenFullUnderSample() throws InterruptedException {
+        // ARRANGE
+        CountDownLatch release = new CountDownLatch(1);
+        Recorder recorder = new Recorder(release);
+        AsyncDeliveryConsumer delivery = new AsyncDeliveryConsumer(
+                settings(4, OverflowPolicy.SAMPLE).setSampleRate(3), recorder);
+
+        // ACT: results 4 and 5 overflow and are dropped, 6 is the third overflow and waits
+        Thread producer = Thread.ofPlatform().start(() -> {
+            for (int i = 0; i < 7; i++) {
+                delivery.accept(result(0, i));
+            }
+        });
+        producer.join(200);
+
+        // ASSERT
+        assertThat(producer.isAlive()).isTrue();
+        assertThat(delivery.getDroppedCount()).isEqualTo(2);
+
+        release.countDown();
+        producer.join();
+        delivery.close();
+        assertThat(recorder.iterations(0)).containsExactly(0, 1, 2, 3, 6);
+        assertThat(delivery.getDroppedCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should count results published after close as dropped")
+    void accept_shouldDropAfterClose() {
+        // ARRANGE
+        Recorder recorder = new Recorder();
+        AsyncDeliveryConsumer delivery = new AsyncDeliveryConsumer(settings(4, OverflowPolicy.BLOCK), recorder);
+        delivery.close();
+
+        // ACT
+        delivery.accept(result(0, 0));
+
+        // ASSERT
+        assertThat(recorder.iterations(0)).isEmpty();
+        assertThat(delivery.getDroppedCount()).isEqualTo(1);
+    }
+
+    private static ResultDelivery settings(int bufferSize, OverflowPolicy overflowPolicy) {
+        return new ResultDelivery()
+                .setBufferSize(bufferSize)
+                .setOverflowPolicy(overflowPolicy);
+    }
+
+    private static RawRequestResult result(int workerId, int iteration) {
+        RawRequestResult result = new RawRequestResult();
+        result.setWorkerId(workerId);
+        result.setIteration(iteration);
+        return result;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Copying consumer that records worker and iteration of each result, optionally holding
+     * the delivery thread on its first result until released.
+     */
+    private static final class Recorder implements Consumer<RawRequestResult>, CaptureRequirements {
+
+        private final CountDownLatch release;
+        // Only touched by the delivery thread until close() has joined it
+        private final List<RawRequestResult> received = new ArrayList<>();
+
+        Recorder() {
+            this(new CountDownLatch(0));
+        }
+
+        Recorder(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void accept(RawRequestResult result) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            received.add(result(result.getWorkerId(), result.getIteration()));
+        }
+
+        @Override
+        public Set<ResultField> requiredFields() {
+            return Set.of();
+        }
+
+        List<Integer> iterations(int workerId) {
+            return received.stream()
+                    .filter(r -> r.getWorkerId() == workerId)
+                    .map(RawRequestResult::getIteration)
+                    .toList();
+        }
+
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.auzienko.observability.corebackend.loadtester.model.consumer;
+
+import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
+import com.auzienko.observability.corebackend.loadtester.model.TimeWindowMetrics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class TimeSeriesConsumerTest {
+
+    @Test
+    @DisplayName("should close windows and complete without waiting for a blocked listener")
+    void complete_shouldNotWaitForBlockedListener() throws InterruptedException {
+        // ARRANGE
+        CountDownLatch release = new CountDownLatch(1);
+        Recorder listener = new Recorder(release);
+        TimeSeriesConsumer timeSeries = new TimeSeriesConsumer();
+        timeSeries.subscribe(listener);
+        timeSeries.accept(result());
+
+        // ACT
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            timeSeries.tick();
+            timeSeries.complete();
+            // A worker reaching a new second takes the same lock
+            timeSeries.accept(result());
+        });
+        release.countDown();
+
+        // ASSERT
+        assertThat(listener.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(listener.windows).isEqualTo(timeSeries.getWindows());
+        assertThat(listener.windows).extracting(TimeWindowMetrics::windowStart).isSorted();
+        assertThat(listener.windows.stream().mapToLong(TimeWindowMetrics::requests).sum()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should replay the history and then complete a listener subscribing after the run")
+    void subscribe_shouldReplayHistoryOfCompletedSeries() throws InterruptedException {
+        // ARRANGE
+        TimeSeriesConsumer timeSeries = new TimeSeriesConsumer();
+        timeSeries.accept(result());
+        timeSeries.complete();
+        Recorder listener = new Recorder(new CountDownLatch(0));
+
+        // ACT
+        timeSeries.subscribe(listener);
+
+        // ASSERT
+        assertThat(listener.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(listener.windows).isNotEmpty().isEqualTo(timeSeries.getWindows());
+    }
+
+    @Test
+    @DisplayName("should stop delivering to an unsubscribed listener")
+    void unsubscribe_shouldStopDelivery() throws InterruptedException {
+        // ARRANGE
+        Recorder listener = new Recorder(new CountDownLatch(0));
+        TimeSeriesConsumer timeSeries = new TimeSeriesConsumer();
+        timeSeries.subscribe(listener);
+
+        // ACT
+        timeSeries.unsubscribe(listener);
+        timeSeries.accept(result());
+        timeSeries.complete();
+
+        // ASSERT
+        assertThat(listener.completed.await(200, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(listener.windows).isEmpty();
+    }
+
+    private static RawRequestResult result() {
+        RawRequestResult result = new RawRequestResult();
+        result.setSuccess(true);
+        result.setDurationNanos(TimeUnit.MILLISECONDS.toNanos(5));
+        return result;
+    }
+
+    /**
+     * Records windows, blocking in the first one until released.
+     */
+    private static class Recorder implements TimeSeriesListener {
+
+        final List<TimeWindowMetrics> windows = new CopyOnWriteArrayList<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        Recorder(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void onWindow(TimeWindowMetrics window) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            windows.add(window);
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.auzienko.observability.corebackend.loadtester.scheduler;
+
+import com.auzienko.observability.corebackend.domain.model.LoadTestScenario;
+import com.auzienko.observability.corebackend.domain.model.MonitoredService;
+import com.auzienko.observability.corebackend.loadtester.service.HealthCheckService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class HealthCheckScenarioCacheTest {
+
+    private static final String SCENARIO = """
+            {"steps": [{"name": "health", "request": {"method": "GET", "url": "http://Orders.internal:8080/health"}}]}
+            """;
+
+    @Mock
+    private HealthCheckService healthCheckService;
+
+    private HealthCheckScenarioCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new HealthCheckScenarioCache(new ObjectMapper(), healthCheckService);
+    }
+
+    @Test
+    @DisplayName("should parse the scenario once for both the scenario and its host")
+    void hostOf_shouldReuseParsedScenario() throws Exception {
+        // ARRANGE
+        given(healthCheckService.prepare(any(LoadTestScenario.class))).willAnswer(invocation -> invocation.getArgument(0));
+        MonitoredService service = service(SCENARIO);
+
+        // ACT
+        LoadTestScenario scenario = cache.get(service);
+        String host = cache.hostOf(service);
+
+        // ASSERT
+        assertThat(scenario.getSteps()).hasSize(1);
+        assertThat(host).isEqualTo("orders.internal");
+        assertThat(cache.hostOf(service)).isEqualTo("orders.internal");
+        verify(healthCheckService, times(1)).prepare(any(LoadTestScenario.class));
+    }
+
+    @Test
+    @DisplayName("should reparse when the service's scenario changes")
+    void hostOf_shouldReparseChangedScenario() {
+        // ARRANGE
+        given(healthCheckService.prepare(any(LoadTestScenario.class))).willAnswer(invocation -> invocation.getArgument(0));
+        MonitoredService service = service(SCENARIO);
+        cache.hostOf(service);
+
+        // ACT
+        service.setHealthCheckScenario(SCENARIO.replace("Orders.internal", "payments.internal"));
+
+        // ASSERT
+        assertThat(cache.hostOf(service)).isEqualTo("payments.internal");
+        verify(healthCheckService, times(2)).prepare(any(LoadTestScenario.class));
+    }
+
+    @Test
+    @DisplayName("should report no host for templated URLs and scenarios that do not parse")
+    void hostOf_shouldFallBackToNoHost() {
+        // ARRANGE
+        given(healthCheckService.prepare(any(LoadTestScenario.class))).willAnswer(invocation -> invocation.getArgument(0));
+        MonitoredService templated = service(SCENARIO.replace("http://Orders.internal:8080", "{{baseUrl}}"));
+        MonitoredService broken = service("{not json");
+
+        // ACT & ASSERT
+        assertThat(cache.hostOf(templated)).isEqualTo(HealthCheckScenarioCache.NO_HOST);
+        assertThat(cache.hostOf(broken)).isEqualTo(HealthCheckScenarioCache.NO_HOST);
+    }
+
+    private static MonitoredService service(String scenario) {
+        MonitoredService service = new MonitoredService();
+        service.setId(UUID.randomUUID());
+        service.setName("orders");
+        service.setHealthCheckScenario(scenario);
+        return service;
+    }
+
+}
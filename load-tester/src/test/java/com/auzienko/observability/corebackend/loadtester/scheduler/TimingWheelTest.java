@@ -0,0 +1,116 @@
+package com.auzienko.observability.corebackend.loadtester.scheduler;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    // 8 slots of 100ms: one revolution is 800ms
+    private final TimingWheel<String> wheel = new TimingWheel<>(8, 100, 0);
+
+    @Test
+    @DisplayName("should fire a key only once its tick is reached")
+    void advance_shouldFireDueKeys() {
+        // ARRANGE
+        wheel.schedule("a", 250);
+        wheel.schedule("b", 399);
+
+        // ACT & ASSERT
+        assertThat(wheel.advance(199)).isEmpty();
+        assertThat(wheel.advance(250)).containsExactly("a");
+        assertThat(wheel.advance(399)).containsExactly("b");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("should keep deadlines more than one revolution away until their own tick")
+    void advance_shouldSkipLaterRevolutions() {
+        // ARRANGE: same slot as "near", two revolutions later
+        wheel.schedule("near", 300);
+        wheel.schedule("far", 300 + 2 * 800);
+
+        // ACT & ASSERT
+        assertThat(wheel.advance(300)).containsExactly("near");
+        assertThat(wheel.advance(1100)).isEmpty();
+        assertThat(wheel.contains("far")).isTrue();
+        assertThat(wheel.advance(1899)).isEmpty();
+        assertThat(wheel.advance(1900)).containsExactly("far");
+    }
+
+    @Test
+    @DisplayName("should fire past deadlines on the next tick")
+    void schedule_shouldFirePastDeadlinesNextTick() {
+        // ARRANGE
+        wheel.advance(500);
+
+        // ACT
+        wheel.schedule("late", 120);
+        wheel.schedule("now", 550);
+
+        // ASSERT
+        assertThat(wheel.advance(599)).isEmpty();
+        assertThat(wheel.advance(600)).containsExactlyInAnyOrder("late", "now");
+    }
+
+    @Test
+    @DisplayName("should not fire cancelled keys and only fire rescheduled keys at their new deadline")
+    void cancelAndReschedule_shouldReplaceDeadline() {
+        // ARRANGE
+        wheel.schedule("cancelled", 200);
+        wheel.schedule("moved", 200);
+
+        // ACT
+        assertThat(wheel.cancel("cancelled")).isTrue();
+        assertThat(wheel.cancel("cancelled")).isFalse();
+        wheel.schedule("moved", 700);
+
+        // ASSERT
+        assertThat(wheel.contains("cancelled")).isFalse();
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(699)).isEmpty();
+        assertThat(wheel.advance(700)).containsExactly("moved");
+    }
+
+    @Test
+    @DisplayName("should fire everything due after a pause longer than the wheel, and nothing later")
+    void advance_shouldCatchUpAfterLongPause() {
+        // ARRANGE: one key per slot in the first revolution, plus keys beyond the pause
+        List<String> expected = new ArrayList<>();
+        for (int tick = 1; tick <= 8; tick++) {
+            wheel.schedule("due-" + tick, tick * 100L);
+            expected.add("due-" + tick);
+        }
+        wheel.schedule("due-later", 2_950);
+        expected.add("due-later");
+        wheel.schedule("not-yet", 3_100);
+        wheel.schedule("next-revolution", 3_000 + 800);
+
+        // ACT: pause of almost four revolutions
+        List<String> due = wheel.advance(3_050);
+
+        // ASSERT
+        assertThat(due).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(wheel.size()).isEqualTo(2);
+        assertThat(wheel.advance(3_100)).containsExactly("not-yet");
+        assertThat(wheel.advance(3_799)).isEmpty();
+        assertThat(wheel.advance(3_800)).containsExactly("next-revolution");
+    }
+
+    @Test
+    @DisplayName("should not move backwards when the clock does")
+    void advance_shouldIgnoreEarlierTimes() {
+        // ARRANGE
+        wheel.advance(400);
+        wheel.schedule("a", 500);
+
+        // ACT & ASSERT
+        assertThat(wheel.advance(100)).isEmpty();
+        assertThat(wheel.advance(500)).containsExactly("a");
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.auzienko.observability.corebackend.domain.model.ExecutionMode;
+import com.auzienko.observability.corebackend.domain.model.HttpRequest;
+import com.auzienko.observability.corebackend.domain.model.LoadStage;
+import com.auzienko.observability.corebackend.domain.model.LoadTestScenario;
+import com.auzienko.observability.corebackend.domain.model.Step;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class ArrivalRateSchedulerTest {
+
+    private final ArrivalRateScheduler scheduler = new ArrivalRateScheduler();
+
+    @Test
+    @DisplayName("should reject a staged run with no in-flight slots instead of waiting for one forever")
+    void run_shouldRejectStagedRunWithoutInFlightSlots() {
+        // ARRANGE
+        LoadTestScenario scenario = new LoadTestScenario()
+                .setExecutionMode(ExecutionMode.CONSTANT_ARRIVAL_RATE)
+                .setMaxInFlight(0)
+                .setSteps(List.of(new Step().setRequest(new HttpRequest().setMethod("GET").setUrl("http://localhost/"))))
+                .setStages(List.of(new LoadStage().setDurationSeconds(1).setTargetIterationsPerSecond(10.0)));
+
+        // ACT & ASSERT
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+                assertThatThrownBy(() -> scheduler.run(scenario, (slot, iteration, lag, stage) -> {
+                }))
+                        .isInstanceOf(IllegalArgumentException.class)
+                        .hasMessageContaining("maxInFlight"));
+    }
+
+}
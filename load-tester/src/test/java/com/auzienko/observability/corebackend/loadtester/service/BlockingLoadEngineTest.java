@@ -0,0 +1,127 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.auzienko.observability.corebackend.domain.model.EngineType;
+import com.auzienko.observability.corebackend.domain.model.HttpRequest;
+import com.auzienko.observability.corebackend.domain.model.LoadTestScenario;
+import com.auzienko.observability.corebackend.domain.model.Step;
+import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
+import com.auzienko.observability.corebackend.loadtester.transport.HttpTransport;
+import com.auzienko.observability.corebackend.loadtester.transport.TransportRequest;
+import com.auzienko.observability.corebackend.loadtester.transport.TransportResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlockingLoadEngineTest {
+
+    private static final int VIRTUAL_USERS = 4;
+
+    @Test
+    @DisplayName("should deliver the results of requests in flight before returning from an interrupted run")
+    void execute_shouldWaitForRequestsInFlightWhenInterrupted() throws InterruptedException {
+        // ARRANGE
+        UninterruptibleTransport transport = new UninterruptibleTransport(TimeUnit.MILLISECONDS.toNanos(300));
+        LoadEngine engine = engine(transport);
+        AtomicInteger delivered = new AtomicInteger();
+        AtomicBoolean returned = new AtomicBoolean();
+        AtomicInteger lateResults = new AtomicInteger();
+
+        Thread runner = Thread.ofPlatform().start(() -> {
+            engine.execute(UUID.randomUUID(), scenario(), result -> {
+                delivered.incrementAndGet();
+                if (returned.get()) {
+                    lateResults.incrementAndGet();
+                }
+            });
+            returned.set(true);
+        });
+        while (transport.started.get() < VIRTUAL_USERS) {
+            Thread.sleep(10);
+        }
+
+        // ACT
+        runner.interrupt();
+        runner.join(TimeUnit.SECONDS.toMillis(10));
+
+        // ASSERT
+        assertThat(returned).isTrue();
+        assertThat(delivered.get()).isEqualTo(transport.started.get());
+        Thread.sleep(400);
+        assertThat(lateResults).hasValue(0);
+    }
+
+    private static LoadEngine engine(HttpTransport transport) {
+        return new BlockingLoadEngine(transport, new ScenarioRuntime(new ObjectMapper()), new ArrivalRateScheduler()) {
+
+            @Override
+            ExecutorService newWorkerExecutor(int virtualUsers) {
+                return Executors.newFixedThreadPool(virtualUsers);
+            }
+
+            @Override
+            ExecutorService newStagedExecutor() {
+                return Executors.newCachedThreadPool();
+            }
+
+            @Override
+            public EngineType type() {
+                return EngineType.PLATFORM_THREADS;
+            }
+
+        };
+    }
+
+    private static LoadTestScenario scenario() {
+        return new LoadTestScenario()
+                .setVirtualUsers(VIRTUAL_USERS)
+                .setDurationSeconds(60)
+                .setSteps(List.of(new Step()
+                        .setName("get")
+                        .setRequest(new HttpRequest().setMethod("GET").setUrl("http://localhost/health"))));
+    }
+
+    /**
+     * Takes a fixed time per request and, like a blocking HTTP call, ignores interrupts meanwhile.
+     */
+    private static class UninterruptibleTransport implements HttpTransport {
+
+        final AtomicInteger started = new AtomicInteger();
+        private final long latencyNanos;
+
+        UninterruptibleTransport(long latencyNanos) {
+            this.latencyNanos = latencyNanos;
+        }
+
+        @Override
+        public CompletableFuture<TransportResponse> send(TransportRequest request) {
+            started.incrementAndGet();
+            long deadline = System.nanoTime() + latencyNanos;
+            boolean interrupted = Thread.interrupted();
+            for (long left = latencyNanos; left > 0; left = deadline - System.nanoTime()) {
+                LockSupport.parkNanos(left);
+                interrupted |= Thread.interrupted();
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return CompletableFuture.completedFuture(
+                    TransportResponse.success(Instant.now(), latencyNanos, 200, new HttpHeaders(), "", 0));
+        }
+
+    }
+
+}
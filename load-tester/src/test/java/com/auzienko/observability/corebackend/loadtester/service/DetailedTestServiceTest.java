@@ -0,0 +1,144 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.auzienko.observability.corebackend.domain.model.LoadTestScenario;
+import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
+import com.auzienko.observability.corebackend.loadtester.spool.ResultSpoolReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class DetailedTestServiceTest {
+
+    @Mock
+    private LoadEngines loadEngines;
+
+    @Mock
+    private LoadEngine loadEngine;
+
+    @TempDir
+    Path spoolDirectory;
+
+    private DetailedTestService detailedTestService;
+
+    @BeforeEach
+    void setUp() {
+        detailedTestService = new DetailedTestService(loadEngines, spoolDirectory.toString(), Duration.ofHours(1));
+    }
+
+    @Test
+    @DisplayName("should delete the spool when the run fails")
+    void executeSpooled_shouldDeleteSpoolOnFailure() throws Exception {
+        // ARRANGE
+        LoadTestScenario scenario = new LoadTestScenario();
+        given(loadEngines.select(scenario)).willReturn(loadEngine);
+        willAnswer(invocation -> {
+            Consumer<RawRequestResult> consumer = invocation.getArgument(2);
+            consumer.accept(new RawRequestResult());
+            throw new IllegalStateException("engine failed");
+        }).given(loadEngine).execute(any(UUID.class), any(LoadTestScenario.class), any());
+
+        // ACT & ASSERT
+        UUID serviceId = UUID.randomUUID();
+        DetailedTestService.SpooledRun run = detailedTestService.executeSpooled(serviceId, scenario);
+        assertThatThrownBy(() -> run.result().join())
+                .isInstanceOf(CompletionException.class)
+                .hasRootCauseMessage("engine failed");
+        try (var files = Files.list(spoolDirectory.resolve(serviceId.toString()))) {
+            assertThat(files).isEmpty();
+        }
+        assertThat(detailedTestService.openSpool(serviceId, run.spoolId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should keep the spool and open it for reading when the run succeeds")
+    void executeSpooled_shouldKeepSpoolOnSuccess() {
+        // ARRANGE
+        LoadTestScenario scenario = new LoadTestScenario();
+        given(loadEngines.select(scenario)).willReturn(loadEngine);
+        willAnswer(invocation -> {
+            Consumer<RawRequestResult> consumer = invocation.getArgument(2);
+            consumer.accept(new RawRequestResult());
+            consumer.accept(new RawRequestResult());
+            return null;
+        }).given(loadEngine).execute(any(UUID.class), any(LoadTestScenario.class), any());
+
+        // ACT
+        UUID serviceId = UUID.randomUUID();
+        DetailedTestService.SpooledRun run = detailedTestService.executeSpooled(serviceId, scenario);
+        DetailedTestService.SpooledTestResult result = run.result().join();
+
+        // ASSERT
+        assertThat(result.recordCount()).isEqualTo(2);
+        assertThat(result.spoolFile()).exists();
+        try (ResultSpoolReader reader = detailedTestService.openSpool(serviceId, run.spoolId()).orElseThrow()) {
+            assertThat(reader.count()).isEqualTo(2);
+        }
+        assertThat(detailedTestService.openSpool(UUID.randomUUID(), run.spoolId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should treat a spool without its dictionary as absent")
+    void openSpool_shouldIgnoreSpoolWithoutDictionary() throws Exception {
+        // ARRANGE
+        UUID serviceId = UUID.randomUUID();
+        DetailedTestService.SpooledRun run = runSpooled(serviceId);
+        Path spoolFile = run.result().join().spoolFile();
+
+        // ACT
+        Files.delete(ResultSpoolReader.dictionaryFile(spoolFile));
+
+        // ASSERT
+        assertThat(detailedTestService.openSpool(serviceId, run.spoolId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should delete spools older than the retention and keep recent ones")
+    void sweepSpools_shouldDeleteExpiredSpools() throws Exception {
+        // ARRANGE
+        UUID serviceId = UUID.randomUUID();
+        Path expired = runSpooled(serviceId).result().join().spoolFile();
+        Path recent = runSpooled(serviceId).result().join().spoolFile();
+        Files.setLastModifiedTime(expired, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+
+        // ACT
+        detailedTestService.sweepSpools();
+
+        // ASSERT
+        assertThat(expired).doesNotExist();
+        assertThat(ResultSpoolReader.dictionaryFile(expired)).doesNotExist();
+        assertThat(recent).exists();
+        assertThat(ResultSpoolReader.dictionaryFile(recent)).exists();
+    }
+
+    private DetailedTestService.SpooledRun runSpooled(UUID serviceId) {
+        LoadTestScenario scenario = new LoadTestScenario();
+        given(loadEngines.select(scenario)).willReturn(loadEngine);
+        willAnswer(invocation -> {
+            Consumer<RawRequestResult> consumer = invocation.getArgument(2);
+            consumer.accept(new RawRequestResult());
+            return null;
+        }).given(loadEngine).execute(any(UUID.class), any(LoadTestScenario.class), any());
+        return detailedTestService.executeSpooled(serviceId, scenario);
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.auzienko.observability.corebackend.domain.model.ExecutionMode;
+import com.auzienko.observability.corebackend.domain.model.LoadStage;
+import com.auzienko.observability.corebackend.domain.model.LoadTestScenario;
+import com.auzienko.observability.corebackend.domain.model.StageInterpolation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class StageScheduleTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("should start iterations on a ramp from zero where the rate integral reaches them")
+    void nanosAtIteration_shouldIntegrateRampFromZero() {
+        // ARRANGE: 0 -> 10 it/s over 10s, so n iterations are due at sqrt(2n) seconds
+        StageSchedule schedule = openSchedule(stage(10, 10.0, StageInterpolation.LINEAR));
+
+        // ACT & ASSERT
+        assertThat(schedule.nanosAtIteration(0)).isZero();
+        assertThat(schedule.nanosAtIteration(1)).isCloseTo(seconds(Math.sqrt(2)), within(MILLIS));
+        assertThat(schedule.nanosAtIteration(8)).isCloseTo(seconds(4), within(MILLIS));
+        assertThat(schedule.nanosAtIteration(49)).isCloseTo(seconds(Math.sqrt(98)), within(MILLIS));
+        assertThat(schedule.nanosAtIteration(50)).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("should space iterations evenly on a constant stage and continue into the next one")
+    void nanosAtIteration_shouldFollowConsecutiveStages() {
+        // ARRANGE: 5 it/s for 2s, then ramp 5 -> 15 it/s over 1s (10 iterations)
+        StageSchedule schedule = openSchedule(
+                stage(2, 5.0, StageInterpolation.STEP),
+                stage(1, 15.0, StageInterpolation.LINEAR));
+
+        // ACT & ASSERT
+        assertThat(schedule.nanosAtIteration(3)).isCloseTo(seconds(0.6), within(MILLIS));
+        assertThat(schedule.nanosAtIteration(10)).isCloseTo(seconds(2), within(MILLIS));
+        // 5t + 5t^2 = 10 -> t = 1
+        assertThat(schedule.nanosAtIteration(19)).isLessThan(seconds(3));
+        assertThat(schedule.nanosAtIteration(20)).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("should not start iterations in a stage with a zero rate")
+    void nanosAtIteration_shouldSkipIdleStages() {
+        // ARRANGE
+        StageSchedule schedule = openSchedule(
+                stage(5, 0.0, StageInterpolation.STEP),
+                stage(1, 2.0, StageInterpolation.STEP));
+
+        // ACT & ASSERT
+        assertThat(schedule.nanosAtIteration(0)).isEqualTo(seconds(5));
+        assertThat(schedule.nanosAtIteration(1)).isCloseTo(seconds(5.5), within(MILLIS));
+        assertThat(schedule.nanosAtIteration(2)).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("should give each launched worker a new id, also after others were retired")
+    void run_shouldLaunchWorkersWithDistinctIds() {
+        // ARRANGE: 3 users, down to 1, then back up to 3
+        StageSchedule schedule = StageSchedule.of(new LoadTestScenario()
+                .setExecutionMode(ExecutionMode.CLOSED)
+                .setStages(List.of(
+                        new LoadStage().setDurationSeconds(1).setTargetVirtualUsers(3).setInterpolation(StageInterpolation.STEP),
+                        new LoadStage().setDurationSeconds(1).setTargetVirtualUsers(1).setInterpolation(StageInterpolation.STEP),
+                        new LoadStage().setDurationSeconds(1).setTargetVirtualUsers(3).setInterpolation(StageInterpolation.STEP))));
+        List<Integer> launched = new CopyOnWriteArrayList<>();
+
+        // ACT
+        schedule.run((workerId, worker) -> {
+            launched.add(workerId);
+            Thread.ofVirtual().start(() -> {
+                while (!worker.shouldStop()) {
+                    Thread.onSpinWait();
+                }
+                worker.finished();
+            });
+        });
+
+        // ASSERT
+        assertThat(launched).hasSize(5).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("should wait for retired workers to finish their iteration when interrupted")
+    void run_shouldAwaitWorkersWhenInterrupted() throws InterruptedException {
+        // ARRANGE: workers need 300ms to notice retirement, as if finishing a slow request
+        StageSchedule schedule = StageSchedule.of(new LoadTestScenario()
+                .setExecutionMode(ExecutionMode.CLOSED)
+                .setStages(List.of(new LoadStage().setDurationSeconds(60).setTargetVirtualUsers(4)
+                        .setInterpolation(StageInterpolation.STEP))));
+        AtomicInteger finished = new AtomicInteger();
+        AtomicInteger finishedWhenReturned = new AtomicInteger(-1);
+
+        Thread driver = Thread.ofPlatform().start(() -> {
+            schedule.run((workerId, worker) -> Thread.ofVirtual().start(() -> {
+                while (!worker.shouldStop()) {
+                    sleep(300);
+                }
+                finished.incrementAndGet();
+                worker.finished();
+            }));
+            finishedWhenReturned.set(finished.get());
+        });
+
+        // ACT
+        Thread.sleep(200);
+        driver.interrupt();
+        driver.join(TimeUnit.SECONDS.toMillis(StageSchedule.STOP_TIMEOUT_SECONDS));
+
+        // ASSERT
+        assertThat(driver.isAlive()).isFalse();
+        assertThat(finishedWhenReturned.get()).isEqualTo(4);
+    }
+
+    private static StageSchedule openSchedule(LoadStage... stages) {
+        return StageSchedule.of(new LoadTestScenario()
+                .setExecutionMode(ExecutionMode.CONSTANT_ARRIVAL_RATE)
+                .setStages(List.of(stages)));
+    }
+
+    private static LoadStage stage(int durationSeconds, double targetIterationsPerSecond, StageInterpolation interpolation) {
+        return new LoadStage()
+                .setDurationSeconds(durationSeconds)
+                .setTargetIterationsPerSecond(targetIterationsPerSecond)
+                .setInterpolation(interpolation);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long seconds(double seconds) {
+        return (long) (seconds * TimeUnit.SECONDS.toNanos(1));
+    }
+
+}
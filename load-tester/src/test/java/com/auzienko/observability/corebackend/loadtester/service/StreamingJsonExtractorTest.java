@@ -0,0 +1,138 @@
+package com.auzienko.observability.corebackend.loadtester.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingJsonExtractorTest {
+
+    private static final Object UNSET = new Object();
+
+    private static final List<String> PATHS = List.of(
+            "$.token", "$.data.user.id", "$.data.user.name", "$.data.flags", "$.data.items.id",
+            "$.missing", "$.data.missing.deeper", "$.score", "$.nothing");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("should extract nested values and stop matching fields outside the requested paths")
+    void extract_shouldReadNestedPaths() {
+        // ARRANGE
+        StreamingJsonExtractor extractor = extractor("$.token", "$.data.user.id", "$.data.user.roles");
+        UserContext context = context(3);
+
+        // ACT
+        extractor.extract("""
+                {"data": {"other": {"id": 1}, "user": {"name": "ann", "id": 42, "roles": ["admin", "ops"]}},
+                 "token": "abc"}
+                """, context);
+
+        // ASSERT
+        assertThat(context.getVariable(0)).isEqualTo("abc");
+        assertThat(context.getVariable(1)).isEqualTo(42);
+        assertThat(context.getVariable(2)).isEqualTo(List.of("admin", "ops"));
+    }
+
+    @Test
+    @DisplayName("should leave variables of missing paths untouched")
+    void extract_shouldSkipMissingPaths() {
+        // ARRANGE
+        StreamingJsonExtractor extractor = extractor("$.token", "$.data.user.id");
+        UserContext context = context(2);
+
+        // ACT
+        extractor.extract("{\"data\": {\"user\": \"not an object\"}, \"token\": null}", context);
+
+        // ASSERT
+        assertThat(context.getVariable(0)).isNull();
+        assertThat(context.getVariable(1)).isSameAs(UNSET);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"[{\"token\": \"abc\"}]", "\"token\"", "42", "null", "", "{\"token\": "})
+    @DisplayName("should extract nothing from non-object roots and malformed bodies")
+    void extract_shouldIgnoreNonObjectRoots(String body) {
+        // ARRANGE
+        StreamingJsonExtractor extractor = extractor("$.token");
+        UserContext context = context(1);
+
+        // ACT
+        extractor.extract(body, context);
+
+        // ASSERT
+        assertThat(context.getVariable(0)).isSameAs(UNSET);
+    }
+
+    @Test
+    @DisplayName("should not be created for expressions it cannot stream")
+    void create_shouldRejectUnsupportedPaths() {
+        assertThat(StreamingJsonExtractor.create(objectMapper, extractions("$.items[0].id"))).isNull();
+        assertThat(StreamingJsonExtractor.create(objectMapper, extractions("$..id"))).isNull();
+        assertThat(StreamingJsonExtractor.create(objectMapper, extractions("$.data", "$.data.id"))).isNull();
+        assertThat(StreamingJsonExtractor.create(objectMapper, extractions("$.data.id", "$.data"))).isNull();
+        assertThat(StreamingJsonExtractor.create(objectMapper, extractions("$.id", "$.id"))).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"token\": \"abc\", \"score\": 1.5, \"data\": {\"user\": {\"id\": 12345678901, \"name\": null}, \"flags\": {\"a\": true}}}",
+            "{\"data\": {\"items\": [{\"id\": 1}, {\"id\": 2}], \"flags\": [false, 3]}, \"nothing\": false}",
+            "{\"data\": {\"missing\": 7, \"user\": {}}, \"token\": {\"nested\": [1, {\"x\": \"y\"}]}}",
+            "{\"token\": \"first\", \"token\": \"second\", \"score\": -0.25e3}",
+            "{}",
+            "[1, 2, 3]",
+            "\"just a string\""
+    })
+    @DisplayName("should extract the same values as the general JSONPath extractor")
+    void extract_shouldMatchJsonPathExtractor(String body) {
+        // ARRANGE
+        StreamingJsonExtractor streaming = extractor(PATHS.toArray(String[]::new));
+        List<JsonPathExtractor.CompiledPath> compiled = new ArrayList<>();
+        for (int slot = 0; slot < PATHS.size(); slot++) {
+            compiled.add(new JsonPathExtractor.CompiledPath("v" + slot, slot, JsonPath.compile(PATHS.get(slot))));
+        }
+        JsonPathExtractor reference = new JsonPathExtractor(compiled);
+        UserContext streamed = context(PATHS.size());
+        UserContext expected = context(PATHS.size());
+
+        // ACT
+        streaming.extract(body, streamed);
+        reference.extract(body, expected);
+
+        // ASSERT
+        for (int slot = 0; slot < PATHS.size(); slot++) {
+            assertThat(streamed.getVariable(slot)).as(PATHS.get(slot)).isEqualTo(expected.getVariable(slot));
+        }
+    }
+
+    private StreamingJsonExtractor extractor(String... paths) {
+        StreamingJsonExtractor extractor = StreamingJsonExtractor.create(objectMapper, extractions(paths));
+        assertThat(extractor).isNotNull();
+        return extractor;
+    }
+
+    private static List<CompiledStep.Extraction> extractions(String... paths) {
+        List<CompiledStep.Extraction> extractions = new ArrayList<>();
+        for (int slot = 0; slot < paths.length; slot++) {
+            extractions.add(new CompiledStep.Extraction("v" + slot, slot, paths[slot]));
+        }
+        return extractions;
+    }
+
+    private static UserContext context(int variables) {
+        UserContext context = new UserContext(0, variables);
+        for (int slot = 0; slot < variables; slot++) {
+            context.setVariable(slot, UNSET);
+        }
+        return context;
+    }
+
+}
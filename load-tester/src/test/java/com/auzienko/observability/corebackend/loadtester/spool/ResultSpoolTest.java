@@ -0,0 +1,152 @@
+package com.auzienko.observability.corebackend.loadtester.spool;
+
+import com.auzienko.observability.corebackend.loadtester.model.RawRequestResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResultSpoolTest {
+
+    private static final int RECORDS_PER_CHUNK = SpoolFormat.CHUNK_SIZE / SpoolFormat.RECORD_SIZE;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("should read back every record written concurrently across a chunk boundary")
+    void roundTrip_shouldCrossChunkBoundary() throws InterruptedException {
+        // ARRANGE: the header takes one record's worth of the first chunk
+        int workers = 4;
+        int perWorker = (RECORDS_PER_CHUNK + 4000) / workers;
+        Path file = directory.resolve("run.spool");
+
+        // ACT
+        try (ResultSpoolWriter writer = new ResultSpoolWriter(file)) {
+            List<Thread> threads = new ArrayList<>();
+            for (int w = 0; w < workers; w++) {
+                int workerId = w;
+                threads.add(Thread.ofPlatform().start(() -> {
+                    RawRequestResult result = new RawRequestResult();
+                    for (int i = 0; i < perWorker; i++) {
+                        fill(result, workerId, i);
+                        writer.accept(result);
+                    }
+                }));
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+
+        // ASSERT
+        try (ResultSpoolReader reader = new ResultSpoolReader(file)) {
+            assertThat(reader.count()).isEqualTo((long) workers * perWorker).isGreaterThan(RECORDS_PER_CHUNK);
+            BitSet[] seen = new BitSet[workers];
+            for (int w = 0; w < workers; w++) {
+                seen[w] = new BitSet(perWorker);
+            }
+            reader.forEach(record -> {
+                assertThat(record.durationNanos()).isEqualTo(record.iteration() * 1000L + record.workerId());
+                assertThat(record.startTime()).isEqualTo(Instant.ofEpochSecond(1_700_000_000L, record.iteration()));
+                assertThat(record.statusCode()).isEqualTo(record.iteration() % 2 == 0 ? 200 : 503);
+                assertThat(record.success()).isEqualTo(record.iteration() % 2 == 0);
+                assertThat(record.stepName()).isEqualTo("step-" + record.workerId());
+                seen[record.workerId()].set(record.iteration());
+            });
+            for (BitSet worker : seen) {
+                assertThat(worker.cardinality()).isEqualTo(perWorker);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should mark strings as truncated once the dictionary is full and cap long strings")
+    void roundTrip_shouldHandleFullDictionary() {
+        // ARRANGE
+        Path file = directory.resolve("errors.spool");
+        int distinct = ResultSpoolWriter.MAX_DICTIONARY_SIZE + 10;
+        String longMessage = "x".repeat(5000);
+
+        // ACT
+        try (ResultSpoolWriter writer = new ResultSpoolWriter(file)) {
+            RawRequestResult result = new RawRequestResult();
+            result.setErrorMessage(longMessage);
+            writer.accept(result);
+            for (int i = 1; i < distinct; i++) {
+                result.setErrorMessage("error " + i);
+                writer.accept(result);
+            }
+            // Already in the dictionary, so still resolved
+            result.setErrorMessage("error 1");
+            writer.accept(result);
+        }
+
+        // ASSERT
+        try (ResultSpoolReader reader = new ResultSpoolReader(file)) {
+            assertThat(reader.count()).isEqualTo(distinct + 1);
+            assertThat(reader.get(0).errorMessage()).hasSize(1000);
+            assertThat(reader.get(ResultSpoolWriter.MAX_DICTIONARY_SIZE - 1).errorMessage())
+                    .isEqualTo("error " + (ResultSpoolWriter.MAX_DICTIONARY_SIZE - 1));
+            assertThat(reader.get(ResultSpoolWriter.MAX_DICTIONARY_SIZE).errorMessage())
+                    .isEqualTo(ResultSpoolReader.TRUNCATED);
+            assertThat(reader.get(distinct).errorMessage()).isEqualTo("error 1");
+            assertThat(reader.get(1).stepName()).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("should quote CSV fields containing commas, quotes or newlines")
+    void exportCsv_shouldQuoteSpecialCharacters() throws IOException {
+        // ARRANGE
+        Path file = directory.resolve("csv.spool");
+        try (ResultSpoolWriter writer = new ResultSpoolWriter(file)) {
+            RawRequestResult result = new RawRequestResult();
+            result.setStartTime(Instant.parse("2024-01-01T00:00:00Z"));
+            result.setDurationNanos(1500);
+            result.setStatusCode(500);
+            result.setStepName("login, then fetch");
+            result.setErrorType("HTTP_ERROR");
+            result.setErrorMessage("said \"no\"\nand closed");
+            writer.accept(result);
+
+            RawRequestResult empty = new RawRequestResult();
+            empty.setSuccess(true);
+            writer.accept(empty);
+        }
+        StringWriter csv = new StringWriter();
+
+        // ACT
+        try (ResultSpoolReader reader = new ResultSpoolReader(file)) {
+            reader.exportCsv(csv);
+        }
+
+        // ASSERT
+        assertThat(csv.toString()).isEqualTo(
+                "startTime,durationNanos,scheduleLagNanos,responseBytes,workerId,iteration,"
+                        + "stepIndex,stageIndex,stepName,statusCode,success,errorType,errorMessage\n"
+                        + "2024-01-01T00:00:00Z,1500,0,0,0,0,0,0,\"login, then fetch\",500,false,HTTP_ERROR,"
+                        + "\"said \"\"no\"\"\nand closed\"\n"
+                        + ",0,0,0,0,0,0,0,,,true,,\n");
+    }
+
+    private static void fill(RawRequestResult result, int workerId, int iteration) {
+        result.setWorkerId(workerId);
+        result.setIteration(iteration);
+        result.setStartTime(Instant.ofEpochSecond(1_700_000_000L, iteration));
+        result.setDurationNanos(iteration * 1000L + workerId);
+        result.setStatusCode(iteration % 2 == 0 ? 200 : 503);
+        result.setSuccess(iteration % 2 == 0);
+        result.setStepName("step-" + workerId);
+    }
+
+}
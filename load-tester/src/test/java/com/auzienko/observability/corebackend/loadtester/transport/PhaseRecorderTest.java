@@ -0,0 +1,81 @@
+package com.auzienko.observability.corebackend.loadtester.transport;
+
+import com.auzienko.observability.corebackend.loadtester.model.PhaseTimings;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PhaseRecorderTest {
+
+    @Test
+    @DisplayName("should report the measured connect and TLS times without the not-measured marker")
+    void finish_shouldReportMeasuredPhases() {
+        // ARRANGE
+        PhaseRecorder.Recording recording = PhaseRecorder.begin();
+
+        // ACT
+        PhaseRecorder.recordPoolWait(10);
+        PhaseRecorder.recordConnect(1_000);
+        PhaseRecorder.recordTls(300);
+        PhaseTimings phases = recording.finish(2_000, 50);
+
+        // ASSERT
+        assertThat(phases.poolWaitNanos()).isEqualTo(10);
+        assertThat(phases.connectNanos()).isEqualTo(700);
+        assertThat(phases.tlsNanos()).isEqualTo(300);
+        assertThat(phases.firstByteNanos()).isEqualTo(990);
+        assertThat(phases.bodyNanos()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("should add up repeated connects within one exchange")
+    void finish_shouldSumRepeatedConnects() {
+        // ARRANGE
+        PhaseRecorder.Recording recording = PhaseRecorder.begin();
+
+        // ACT
+        PhaseRecorder.recordPoolWait(0);
+        PhaseRecorder.recordConnect(400);
+        PhaseRecorder.recordConnect(600);
+        PhaseTimings phases = recording.finish(1_500, 0);
+
+        // ASSERT
+        assertThat(phases.connectNanos()).isEqualTo(1_000);
+        assertThat(phases.tlsNanos()).isEqualTo(PhaseTimings.NOT_MEASURED);
+        assertThat(phases.firstByteNanos()).isEqualTo(500);
+    }
+
+    @Test
+    @DisplayName("should mark connect and TLS as not measured when a pooled connection is reused")
+    void finish_shouldKeepNotMeasuredForReusedConnections() {
+        // ARRANGE
+        PhaseRecorder.Recording recording = PhaseRecorder.begin();
+
+        // ACT
+        PhaseRecorder.recordPoolWait(20);
+        PhaseTimings phases = recording.finish(PhaseTimings.NOT_MEASURED, PhaseTimings.NOT_MEASURED);
+
+        // ASSERT
+        assertThat(phases.connectNanos()).isEqualTo(PhaseTimings.NOT_MEASURED);
+        assertThat(phases.tlsNanos()).isEqualTo(PhaseTimings.NOT_MEASURED);
+        assertThat(phases.firstByteNanos()).isEqualTo(PhaseTimings.NOT_MEASURED);
+    }
+
+    @Test
+    @DisplayName("should ignore reports outside a recording and return nothing without a lease")
+    void finish_shouldIgnoreUninstrumentedExchanges() {
+        // ARRANGE
+        PhaseRecorder.Recording recording = PhaseRecorder.begin();
+        recording.finish(0, 0);
+
+        // ACT
+        PhaseRecorder.recordConnect(1_000);
+        PhaseRecorder.Recording next = PhaseRecorder.begin();
+        PhaseTimings phases = next.finish(100, 0);
+
+        // ASSERT
+        assertThat(phases).isNull();
+    }
+
+}
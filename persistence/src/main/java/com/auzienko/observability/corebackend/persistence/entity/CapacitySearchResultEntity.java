@@ -0,0 +1,54 @@
+package com.auzienko.observability.corebackend.persistence.entity;
+
+import com.auzienko.observability.corebackend.domain.model.CapacityProbe;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "capacity_search_results")
+public class CapacitySearchResultEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    private UUID serviceId;
+
+    @CreationTimestamp
+    private Instant executedAt;
+
+    private Double maxIterationsPerSecond;
+
+    private Double maxRequestsPerSecond;
+
+    @Column(name = "p99_response_time_ms")
+    private Long p99ResponseTimeMs;
+
+    private Double errorRatePercent;
+
+    @Column(name = "max_p99_response_time_ms")
+    private Long maxP99ResponseTimeMs;
+
+    private Double maxErrorRatePercent;
+
+    private Boolean searchLimitReached;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    private List<CapacityProbe> probes;
+
+}
@@ -35,4 +35,8 @@ public class HealthCheckResultEntity {
 
     private String errorMessage;
 
+    private Instant lastCheckedAt;
+
+    private Long checkCount;
+
 }
@@ -1,7 +1,11 @@
 package com.auzienko.observability.corebackend.persistence.entity;
 
+import com.auzienko.observability.corebackend.domain.model.FailureFingerprint;
+import com.auzienko.observability.corebackend.domain.model.LoadTestStatus;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -9,8 +13,11 @@ import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 @Getter
@@ -42,4 +49,22 @@ public class LoadTestResultEntity {
     @Column(name = "p99_response_time_ms")
     private Long p99ResponseTimeMs;
 
+    @Column(name = "corrected_p95_response_time_ms")
+    private Long correctedP95ResponseTimeMs;
+
+    @Column(name = "corrected_p99_response_time_ms")
+    private Long correctedP99ResponseTimeMs;
+
+    @Enumerated(EnumType.STRING)
+    private LoadTestStatus status;
+
+    private String abortReason;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    private List<FailureFingerprint> failures;
+
+    private Boolean generatorSaturated;
+
+    private String generatorSaturationReason;
+
 }
@@ -32,6 +32,8 @@ public class MonitoredServiceEntity {
     @JdbcTypeCode(SqlTypes.JSON)
     private String healthCheckScenario;
 
+    private Integer pollingIntervalSeconds;
+
     @Enumerated(EnumType.STRING)
     private ServiceStatus status;
 
@@ -0,0 +1,14 @@
+package com.auzienko.observability.corebackend.persistence.mapper;
+
+import com.auzienko.observability.corebackend.domain.model.CapacitySearchResult;
+import com.auzienko.observability.corebackend.persistence.entity.CapacitySearchResultEntity;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface CapacitySearchResultMapper {
+
+    CapacitySearchResultEntity toEntity(CapacitySearchResult result);
+
+    CapacitySearchResult toDomain(CapacitySearchResultEntity savedEntity);
+
+}
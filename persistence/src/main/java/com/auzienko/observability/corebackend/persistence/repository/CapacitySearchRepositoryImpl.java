@@ -0,0 +1,34 @@
+package com.auzienko.observability.corebackend.persistence.repository;
+
+import com.auzienko.observability.corebackend.domain.model.CapacitySearchResult;
+import com.auzienko.observability.corebackend.domain.repository.CapacitySearchRepository;
+import com.auzienko.observability.corebackend.persistence.mapper.CapacitySearchResultMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Repository
+@RequiredArgsConstructor
+public class CapacitySearchRepositoryImpl implements CapacitySearchRepository {
+
+    private final CapacitySearchResultJpaRepository jpaRepository;
+    private final CapacitySearchResultMapper mapper;
+
+    @Override
+    public CapacitySearchResult save(CapacitySearchResult capacitySearchResult) {
+        var entity = mapper.toEntity(capacitySearchResult);
+        var savedEntity = jpaRepository.save(entity);
+        return mapper.toDomain(savedEntity);
+    }
+
+    @Override
+    public List<CapacitySearchResult> findByServiceId(UUID serviceId) {
+        return jpaRepository.findByServiceIdOrderByExecutedAtDesc(serviceId).stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.auzienko.observability.corebackend.persistence.repository;
+
+import com.auzienko.observability.corebackend.persistence.entity.CapacitySearchResultEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface CapacitySearchResultJpaRepository extends JpaRepository<CapacitySearchResultEntity, UUID> {
+
+    List<CapacitySearchResultEntity> findByServiceIdOrderByExecutedAtDesc(UUID serviceId);
+
+}
@@ -7,6 +7,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,10 +20,17 @@ public class HealthCheckRepositoryImpl implements HealthCheckRepository {
 
     private final HealthCheckResultJpaRepository jpaRepository;
     private final HealthCheckResultMapper mapper;
+    private final HealthCheckWriteBuffer writeBuffer;
 
     @Override
     public HealthCheckResult save(HealthCheckResult healthCheckResult) {
         var entity = mapper.toEntity(healthCheckResult);
+        if (entity.getLastCheckedAt() == null) {
+            entity.setLastCheckedAt(entity.getTimestamp() != null ? entity.getTimestamp() : Instant.now());
+        }
+        if (entity.getCheckCount() == null) {
+            entity.setCheckCount(1L);
+        }
         var savedEntity = jpaRepository.save(entity);
         return mapper.toDomain(savedEntity);
     }
@@ -43,11 +52,59 @@ public class HealthCheckRepositoryImpl implements HealthCheckRepository {
         jpaRepository.deleteById(id);
     }
 
+    /**
+     * Timeline of the service since {@code startTime}: one entry per run of checks with the
+     * same status, whether the history was stored per check or per transition. The run in
+     * progress includes the checks the write buffer has not written yet.
+     */
     @Override
     public List<HealthCheckResult> findHistoryByServiceIdSince(UUID serviceId, Instant startTime) {
-        return jpaRepository.findHistoryByServiceIdSince(serviceId, startTime).stream()
+        List<HealthCheckResult> rows = jpaRepository.findHistoryByServiceIdSince(serviceId, startTime).stream()
                 .map(mapper::toDomain)
-                .collect(Collectors.toList());
+                .collect(Collectors.toCollection(ArrayList::new));
+
+        writeBuffer.openRun(serviceId)
+                .filter(open -> !open.getLastCheckedAt().isBefore(startTime))
+                .ifPresent(open -> withPendingChecks(rows, open));
+
+        return mergeRuns(rows);
+    }
+
+    private void withPendingChecks(List<HealthCheckResult> rows, HealthCheckResult open) {
+        HealthCheckResult row = rows.stream()
+                .filter(candidate -> candidate.getId().equals(open.getId()))
+                .findFirst()
+                .orElse(null);
+        if (row == null) {
+            // Written before the window by its last flushed check, or not written yet
+            row = jpaRepository.findById(open.getId()).map(mapper::toDomain).orElse(null);
+            if (row == null) {
+                return;
+            }
+            rows.add(row);
+            rows.sort(Comparator.comparing(HealthCheckResult::getTimestamp));
+        }
+        row.setLastCheckedAt(open.getLastCheckedAt());
+        row.setCheckCount(open.getCheckCount());
+    }
+
+    private List<HealthCheckResult> mergeRuns(List<HealthCheckResult> rows) {
+        List<HealthCheckResult> runs = new ArrayList<>();
+        for (HealthCheckResult row : rows) {
+            HealthCheckResult last = runs.isEmpty() ? null : runs.get(runs.size() - 1);
+            if (last == null || last.getStatus() != row.getStatus()) {
+                runs.add(row);
+                continue;
+            }
+            last.setCheckCount(last.getCheckCount() + row.getCheckCount());
+            if (row.getLastCheckedAt().isAfter(last.getLastCheckedAt())) {
+                last.setLastCheckedAt(row.getLastCheckedAt());
+            }
+            if (row.getErrorMessage() != null) {
+                last.setErrorMessage(row.getErrorMessage());
+            }
+        }
+        return runs;
     }
 
 }
@@ -10,7 +10,7 @@ import java.util.UUID;
 
 public interface HealthCheckResultJpaRepository extends JpaRepository<HealthCheckResultEntity, UUID> {
 
-    @Query("select h from HealthCheckResultEntity h where h.serviceId = ?1 and h.timestamp >= ?2")
+    @Query("select h from HealthCheckResultEntity h where h.serviceId = ?1 and h.lastCheckedAt >= ?2 order by h.timestamp")
     List<HealthCheckResultEntity> findHistoryByServiceIdSince(UUID serviceId, Instant timestamp);
 
 }
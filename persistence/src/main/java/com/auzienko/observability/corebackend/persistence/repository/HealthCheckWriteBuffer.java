@@ -0,0 +1,399 @@
+package com.auzienko.observability.corebackend.persistence.repository;
+
+import com.auzienko.observability.corebackend.domain.event.MonitoredServiceChangedEvent;
+import com.auzienko.observability.corebackend.domain.model.HealthCheckResult;
+import com.auzienko.observability.corebackend.domain.model.ServiceStatus;
+import com.auzienko.observability.corebackend.domain.repository.HealthCheckRecorder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind {@link HealthCheckRecorder}: results are queued and a single writer thread
+ * flushes them every {@code flush-interval-ms} or {@code batch-size} results, whichever comes
+ * first. A flush is one transaction of a few multi-row statements
+ * ({@code INSERT ... SELECT FROM (VALUES ...)}, {@code UPDATE ... FROM (VALUES ...)}) instead of
+ * two transactions per check.
+ * <p>
+ * In {@link HistoryMode#CHECKS} mode every check is a history row and sets its service's
+ * status. In {@link HistoryMode#TRANSITIONS} mode the history is run-length encoded: only a
+ * change of status inserts a row and updates the service, while further checks with the same
+ * status are counted in memory against the open run and written, together with the service's
+ * last check time, every {@code counter-flush-interval-ms}.
+ * <p>
+ * The queue is bounded; when it is full new results are dropped and counted, as the next
+ * check of the service refreshes its status anyway. Results of services deleted before the
+ * flush are skipped. Whatever is queued or counted is flushed on shutdown.
+ */
+@Repository
+@Slf4j
+public class HealthCheckWriteBuffer implements HealthCheckRecorder {
+
+    /**
+     * How health check history is stored.
+     */
+    public enum HistoryMode {
+        /** One row per check. */
+        CHECKS,
+        /** One row per run of checks with the same status. */
+        TRANSITIONS
+    }
+
+    private static final String INSERT_RESULTS = """
+            INSERT INTO health_check_results (id, service_id, timestamp, status, error_message, last_checked_at, check_count)
+            SELECT v.id, v.service_id, v.timestamp, v.status, v.error_message, v.last_checked_at, v.check_count
+            FROM (VALUES %s) AS v (id, service_id, timestamp, status, error_message, last_checked_at, check_count)
+            JOIN monitored_services s ON s.id = v.service_id""";
+    private static final String RESULT_ROW = "(?::uuid, ?::uuid, ?::timestamp, ?::varchar, ?::text, ?::timestamp, ?::bigint)";
+    // PostgreSQL accepts at most 65535 bind parameters per statement
+    private static final int MAX_BATCH_SIZE = 65535 / 7;
+
+    private static final String UPDATE_STATUSES = """
+            UPDATE monitored_services s
+            SET status = v.status, last_checked_at = v.checked_at, updated_at = LOCALTIMESTAMP
+            FROM (VALUES %s) AS v (id, status, checked_at)
+            WHERE s.id = v.id AND (s.last_checked_at IS NULL OR s.last_checked_at <= v.checked_at)""";
+    private static final String STATUS_ROW = "(?::uuid, ?::varchar, ?::timestamp)";
+
+    private static final String SELECT_OPEN_RUNS = """
+            SELECT DISTINCT ON (service_id) id, service_id, status, timestamp, check_count, last_checked_at
+            FROM health_check_results
+            WHERE service_id IN (%s)
+            ORDER BY service_id, timestamp DESC""";
+
+    private static final String UPDATE_RUN_COUNTERS = """
+            UPDATE health_check_results h
+            SET check_count = v.check_count, last_checked_at = v.last_checked_at
+            FROM (VALUES %s) AS v (id, check_count, last_checked_at)
+            WHERE h.id = v.id""";
+    private static final String RUN_COUNTER_ROW = "(?::uuid, ?::bigint, ?::timestamp)";
+
+    // Status is unchanged, so neither is updated_at
+    private static final String UPDATE_LAST_CHECKED = """
+            UPDATE monitored_services s
+            SET last_checked_at = v.checked_at
+            FROM (VALUES %s) AS v (id, checked_at)
+            WHERE s.id = v.id AND (s.last_checked_at IS NULL OR s.last_checked_at < v.checked_at)""";
+    private static final String LAST_CHECKED_ROW = "(?::uuid, ?::timestamp)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final HistoryMode historyMode;
+    private final BlockingQueue<HealthCheckResult> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long counterFlushIntervalNanos;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer = Thread.ofPlatform().name("health-check-writer").daemon().unstarted(this::run);
+    private volatile boolean running = true;
+
+    // Latest run per service in TRANSITIONS mode; only the writer thread replaces runs
+    private final Map<UUID, Run> openRuns = new ConcurrentHashMap<>();
+    private long lastCounterFlushNanos = System.nanoTime();
+
+    public HealthCheckWriteBuffer(JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${app.monitoring.health-check.history-mode:CHECKS}") HistoryMode historyMode,
+                                  @Value("${app.monitoring.health-check.write-behind.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${app.monitoring.health-check.write-behind.batch-size:500}") int batchSize,
+                                  @Value("${app.monitoring.health-check.write-behind.flush-interval-ms:1000}") long flushIntervalMillis,
+                                  @Value("${app.monitoring.health-check.write-behind.counter-flush-interval-ms:60000}") long counterFlushIntervalMillis) {
+        if (batchSize <= 0 || batchSize > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("batch-size must be between 1 and " + MAX_BATCH_SIZE);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.historyMode = historyMode;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.counterFlushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(counterFlushIntervalMillis);
+    }
+
+    @PostConstruct
+    void start() {
+        writer.start();
+    }
+
+    @Override
+    public boolean record(HealthCheckResult result) {
+        if (result.getId() == null) {
+            result.setId(UUID.randomUUID());
+        }
+        if (result.getTimestamp() == null) {
+            result.setTimestamp(Instant.now());
+        }
+        result.setLastCheckedAt(result.getTimestamp());
+        result.setCheckCount(1L);
+        if (!queue.offer(result)) {
+            long total = dropped.incrementAndGet();
+            log.warn("Health check write queue is full, dropped result for service {} ({} dropped so far)",
+                    result.getServiceId(), total);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * The run in progress for a service, including checks not written yet. Only tracked in
+     * {@link HistoryMode#TRANSITIONS} mode, for services checked since startup.
+     */
+    Optional<HealthCheckResult> openRun(UUID serviceId) {
+        return Optional.ofNullable(openRuns.get(serviceId)).map(Run::toResult);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onServiceChanged(MonitoredServiceChangedEvent event) {
+        if (event.change() == MonitoredServiceChangedEvent.Change.UNREGISTERED) {
+            openRuns.remove(event.serviceId());
+        }
+    }
+
+    private void run() {
+        List<HealthCheckResult> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                fill(batch);
+            } catch (InterruptedException e) {
+                // Shutting down; whatever was collected is flushed below
+            }
+            flush(batch, false);
+        }
+
+        Thread.interrupted();
+        while (queue.drainTo(batch, batchSize) > 0) {
+            flush(batch, false);
+        }
+        flush(batch, true);
+    }
+
+    /**
+     * Collects results until the batch is full or the flush interval has passed.
+     */
+    private void fill(List<HealthCheckResult> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            HealthCheckResult result = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (result == null) {
+                return;
+            }
+            batch.add(result);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    private void flush(List<HealthCheckResult> batch, boolean flushCounters) {
+        boolean countersDue = historyMode == HistoryMode.TRANSITIONS
+                && (flushCounters || System.nanoTime() - lastCounterFlushNanos >= counterFlushIntervalNanos);
+        if (batch.isEmpty() && !countersDue) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (historyMode == HistoryMode.CHECKS) {
+                    insertResults(batch);
+                    updateStatuses(batch);
+                } else {
+                    recordTransitions(batch, countersDue);
+                }
+            });
+            if (countersDue) {
+                lastCounterFlushNanos = System.nanoTime();
+            }
+            log.debug("Flushed {} health check results", batch.size());
+        } catch (Exception e) {
+            // Runs are reloaded from the database, so counts not written are lost
+            openRuns.clear();
+            log.error("Failed to write {} health check results", batch.size(), e);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private void recordTransitions(List<HealthCheckResult> batch, boolean countersDue) {
+        loadOpenRuns(batch);
+
+        List<HealthCheckResult> started = new ArrayList<>();
+        List<Run> counted = new ArrayList<>();
+        for (HealthCheckResult result : batch) {
+            Run run = openRuns.get(result.getServiceId());
+            // Late results are counted rather than reopening an earlier status
+            if (run != null && (run.status() == result.getStatus()
+                    || result.getTimestamp().isBefore(run.lastCheckedAt()))) {
+                openRuns.replace(run.serviceId(), run, run.withCheck(result.getTimestamp()));
+                continue;
+            }
+            if (run != null && run.dirty()) {
+                counted.add(run);
+            }
+            started.add(result);
+            openRuns.put(result.getServiceId(), Run.startedBy(result));
+        }
+
+        if (countersDue) {
+            for (Run run : openRuns.values()) {
+                if (run.dirty() && openRuns.replace(run.serviceId(), run, run.written())) {
+                    counted.add(run);
+                }
+            }
+        }
+
+        insertResults(started);
+        updateStatuses(started);
+        updateRunCounters(counted);
+    }
+
+    /**
+     * Reads the latest run of the batch's services not tracked yet.
+     */
+    private void loadOpenRuns(List<HealthCheckResult> batch) {
+        Set<UUID> unknown = new LinkedHashSet<>();
+        for (HealthCheckResult result : batch) {
+            if (!openRuns.containsKey(result.getServiceId())) {
+                unknown.add(result.getServiceId());
+            }
+        }
+        if (unknown.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.query(SELECT_OPEN_RUNS.formatted(rows("?::uuid", unknown.size())), rs -> {
+            Run run = new Run(
+                    rs.getObject("id", UUID.class),
+                    rs.getObject("service_id", UUID.class),
+                    ServiceStatus.valueOf(rs.getString("status")),
+                    rs.getTimestamp("timestamp").toInstant(),
+                    rs.getLong("check_count"),
+                    rs.getTimestamp("last_checked_at").toInstant(),
+                    false);
+            openRuns.put(run.serviceId(), run);
+        }, unknown.toArray());
+    }
+
+    private void insertResults(List<HealthCheckResult> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        List<Object> args = new ArrayList<>(results.size() * 7);
+        for (HealthCheckResult result : results) {
+            args.add(result.getId());
+            args.add(result.getServiceId());
+            args.add(Timestamp.from(result.getTimestamp()));
+            args.add(result.getStatus().name());
+            args.add(result.getErrorMessage());
+            args.add(Timestamp.from(result.getLastCheckedAt()));
+            args.add(result.getCheckCount());
+        }
+        jdbcTemplate.update(INSERT_RESULTS.formatted(rows(RESULT_ROW, results.size())), args.toArray());
+    }
+
+    private void updateStatuses(List<HealthCheckResult> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        // One row per service, the latest check wins
+        Map<UUID, HealthCheckResult> latest = new LinkedHashMap<>();
+        for (HealthCheckResult result : results) {
+            latest.merge(result.getServiceId(), result,
+                    (current, next) -> next.getTimestamp().isBefore(current.getTimestamp()) ? current : next);
+        }
+
+        List<Object> args = new ArrayList<>(latest.size() * 3);
+        for (HealthCheckResult result : latest.values()) {
+            args.add(result.getServiceId());
+            args.add(result.getStatus().name());
+            args.add(Timestamp.from(result.getTimestamp()));
+        }
+        jdbcTemplate.update(UPDATE_STATUSES.formatted(rows(STATUS_ROW, latest.size())), args.toArray());
+    }
+
+    private void updateRunCounters(List<Run> runs) {
+        if (runs.isEmpty()) {
+            return;
+        }
+        Map<UUID, Instant> lastChecked = new LinkedHashMap<>();
+        List<Object> args = new ArrayList<>(runs.size() * 3);
+        for (Run run : runs) {
+            args.add(run.id());
+            args.add(run.checkCount());
+            args.add(Timestamp.from(run.lastCheckedAt()));
+            lastChecked.merge(run.serviceId(), run.lastCheckedAt(), (a, b) -> a.isAfter(b) ? a : b);
+        }
+        jdbcTemplate.update(UPDATE_RUN_COUNTERS.formatted(rows(RUN_COUNTER_ROW, runs.size())), args.toArray());
+
+        List<Object> serviceArgs = new ArrayList<>(lastChecked.size() * 2);
+        lastChecked.forEach((serviceId, checkedAt) -> {
+            serviceArgs.add(serviceId);
+            serviceArgs.add(Timestamp.from(checkedAt));
+        });
+        jdbcTemplate.update(UPDATE_LAST_CHECKED.formatted(rows(LAST_CHECKED_ROW, lastChecked.size())), serviceArgs.toArray());
+    }
+
+    private static String rows(String row, int count) {
+        return String.join(", ", Collections.nCopies(count, row));
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * A run of checks with the same status; {@code dirty} when it has checks not written yet.
+     */
+    private record Run(UUID id, UUID serviceId, ServiceStatus status, Instant startedAt,
+                       long checkCount, Instant lastCheckedAt, boolean dirty) {
+
+        static Run startedBy(HealthCheckResult result) {
+            return new Run(result.getId(), result.getServiceId(), result.getStatus(), result.getTimestamp(),
+                    1, result.getTimestamp(), false);
+        }
+
+        Run withCheck(Instant checkedAt) {
+            Instant last = checkedAt.isAfter(lastCheckedAt) ? checkedAt : lastCheckedAt;
+            return new Run(id, serviceId, status, startedAt, checkCount + 1, last, true);
+        }
+
+        Run written() {
+            return new Run(id, serviceId, status, startedAt, checkCount, lastCheckedAt, false);
+        }
+
+        HealthCheckResult toResult() {
+            HealthCheckResult result = new HealthCheckResult();
+            result.setId(id);
+            result.setServiceId(serviceId);
+            result.setStatus(status);
+            result.setTimestamp(startedAt);
+            result.setLastCheckedAt(lastCheckedAt);
+            result.setCheckCount(checkCount);
+            return result;
+        }
+
+    }
+
+}
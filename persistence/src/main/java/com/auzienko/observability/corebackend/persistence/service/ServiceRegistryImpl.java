@@ -1,11 +1,13 @@
 package com.auzienko.observability.corebackend.persistence.service;
 
+import com.auzienko.observability.corebackend.domain.event.MonitoredServiceChangedEvent;
 import com.auzienko.observability.corebackend.domain.model.HealthCheckResult;
 import com.auzienko.observability.corebackend.domain.model.MonitoredService;
 import com.auzienko.observability.corebackend.domain.repository.HealthCheckRepository;
 import com.auzienko.observability.corebackend.domain.repository.MonitoredServiceRepository;
 import com.auzienko.observability.corebackend.domain.service.ServiceRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,10 +24,13 @@ public class ServiceRegistryImpl implements ServiceRegistry {
 
     private final MonitoredServiceRepository monitoredServiceRepository;
     private final HealthCheckRepository healthCheckRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public MonitoredService registerService(MonitoredService service) {
-        return monitoredServiceRepository.save(service);
+        MonitoredService registered = monitoredServiceRepository.save(service);
+        eventPublisher.publishEvent(MonitoredServiceChangedEvent.registered(registered));
+        return registered;
     }
 
     @Override
@@ -35,13 +40,17 @@ public class ServiceRegistryImpl implements ServiceRegistry {
 
         existingService.setName(serviceUpdate.getName());
         existingService.setHealthCheckScenario(serviceUpdate.getHealthCheckScenario());
+        existingService.setPollingIntervalSeconds(serviceUpdate.getPollingIntervalSeconds());
 
-        return monitoredServiceRepository.save(existingService);
+        MonitoredService updated = monitoredServiceRepository.save(existingService);
+        eventPublisher.publishEvent(MonitoredServiceChangedEvent.updated(updated));
+        return updated;
     }
 
     @Override
     public void unregisterService(UUID id) {
         monitoredServiceRepository.deleteById(id);
+        eventPublisher.publishEvent(MonitoredServiceChangedEvent.unregistered(id));
     }
 
     @Override
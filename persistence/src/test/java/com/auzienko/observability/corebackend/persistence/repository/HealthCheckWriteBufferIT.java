@@ -0,0 +1,300 @@
+package com.auzienko.observability.corebackend.persistence.repository;
+
+import com.auzienko.observability.corebackend.domain.model.HealthCheckResult;
+import com.auzienko.observability.corebackend.domain.model.ServiceStatus;
+import com.auzienko.observability.corebackend.persistence.BaseIntegrationTest;
+import com.auzienko.observability.corebackend.persistence.mapper.HealthCheckResultMapper;
+import com.auzienko.observability.corebackend.persistence.repository.HealthCheckWriteBuffer.HistoryMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Runs the write buffer's native statements against PostgreSQL. Unless a test says otherwise,
+ * results are recorded before the writer starts and written by shutting it down, which flushes
+ * them as one batch together with the counters of the open runs.
+ */
+class HealthCheckWriteBufferIT extends BaseIntegrationTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T12:00:00Z");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private HealthCheckResultJpaRepository healthCheckResultJpaRepository;
+
+    @Autowired
+    private HealthCheckResultMapper healthCheckResultMapper;
+
+    private final List<HealthCheckWriteBuffer> buffers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (HealthCheckWriteBuffer buffer : buffers) {
+            buffer.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("CHECKS mode should insert every check and keep the latest status of each service")
+    void shouldInsertEveryCheckAndLatestStatus() throws InterruptedException {
+        // ARRANGE
+        UUID first = registerService();
+        UUID second = registerService();
+        UUID deleted = UUID.randomUUID();
+        HealthCheckWriteBuffer buffer = buffer(HistoryMode.CHECKS, 60_000);
+        buffer.record(result(first, ServiceStatus.UP, T0));
+        buffer.record(result(first, ServiceStatus.DOWN, T0.plusSeconds(2)));
+        buffer.record(result(first, ServiceStatus.UP, T0.plusSeconds(1)));
+        buffer.record(result(second, ServiceStatus.DOWN, T0));
+        buffer.record(result(deleted, ServiceStatus.UP, T0));
+
+        // ACT
+        flush(buffer);
+
+        // ASSERT
+        assertThat(history(first)).containsExactly(
+                new HistoryRow(ServiceStatus.UP, T0, 1, T0),
+                new HistoryRow(ServiceStatus.UP, T0.plusSeconds(1), 1, T0.plusSeconds(1)),
+                new HistoryRow(ServiceStatus.DOWN, T0.plusSeconds(2), 1, T0.plusSeconds(2)));
+        assertThat(history(second)).containsExactly(new HistoryRow(ServiceStatus.DOWN, T0, 1, T0));
+        assertThat(history(deleted)).isEmpty();
+
+        assertService(first, ServiceStatus.DOWN, T0.plusSeconds(2));
+        assertService(second, ServiceStatus.DOWN, T0);
+    }
+
+    @Test
+    @DisplayName("TRANSITIONS mode should write one row per run when the status changes within a batch")
+    void shouldWriteOneRowPerRunWithinBatch() throws InterruptedException {
+        // ARRANGE
+        UUID serviceId = registerService();
+        HealthCheckWriteBuffer buffer = buffer(HistoryMode.TRANSITIONS, 60_000);
+        buffer.record(result(serviceId, ServiceStatus.UP, T0));
+        buffer.record(result(serviceId, ServiceStatus.UP, T0.plusSeconds(1)));
+        buffer.record(result(serviceId, ServiceStatus.DOWN, T0.plusSeconds(2)));
+        buffer.record(result(serviceId, ServiceStatus.DOWN, T0.plusSeconds(3)));
+        buffer.record(result(serviceId, ServiceStatus.DOWN, T0.plusSeconds(4)));
+        buffer.record(result(serviceId, ServiceStatus.UP, T0.plusSeconds(5)));
+
+        // ACT
+        flush(buffer);
+
+        // ASSERT
+        assertThat(history(serviceId)).containsExactly(
+                new HistoryRow(ServiceStatus.UP, T0, 2, T0.plusSeconds(1)),
+                new HistoryRow(ServiceStatus.DOWN, T0.plusSeconds(2), 3, T0.plusSeconds(4)),
+                new HistoryRow(ServiceStatus.UP, T0.plusSeconds(5), 1, T0.plusSeconds(5)));
+        assertService(serviceId, ServiceStatus.UP, T0.plusSeconds(5));
+    }
+
+    @Test
+    @DisplayName("TRANSITIONS mode should count a late result against the open run instead of reopening an earlier status")
+    void shouldCountLateResultAgainstOpenRun() throws InterruptedException {
+        // ARRANGE
+        UUID serviceId = registerService();
+        HealthCheckWriteBuffer buffer = buffer(HistoryMode.TRANSITIONS, 60_000);
+        buffer.record(result(serviceId, ServiceStatus.UP, T0));
+        buffer.record(result(serviceId, ServiceStatus.UP, T0.plusSeconds(5)));
+        buffer.record(result(serviceId, ServiceStatus.DOWN, T0.plusSeconds(3)));
+
+        // ACT
+        flush(buffer);
+
+        // ASSERT
+        assertThat(history(serviceId)).containsExactly(
+                new HistoryRow(ServiceStatus.UP, T0, 3, T0.plusSeconds(5)));
+        assertService(serviceId, ServiceStatus.UP, T0.plusSeconds(5));
+    }
+
+    @Test
+    @DisplayName("TRANSITIONS mode should write the counters of the open runs on every counter flush")
+    void shouldFlushCountersWhileRunning() {
+        // ARRANGE
+        UUID serviceId = registerService();
+        // Counters are due on every flush
+        HealthCheckWriteBuffer buffer = buffer(HistoryMode.TRANSITIONS, 0);
+        buffer.record(result(serviceId, ServiceStatus.UP, T0));
+        buffer.start();
+        await().atMost(Duration.ofSeconds(10)).until(() -> !history(serviceId).isEmpty());
+
+        // ACT
+        buffer.record(result(serviceId, ServiceStatus.UP, T0.plusSeconds(1)));
+        buffer.record(result(serviceId, ServiceStatus.UP, T0.plusSeconds(2)));
+
+        // ASSERT
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(history(serviceId)).containsExactly(
+                new HistoryRow(ServiceStatus.UP, T0, 3, T0.plusSeconds(2))));
+        assertService(serviceId, ServiceStatus.UP, T0.plusSeconds(2));
+    }
+
+    @Test
+    @DisplayName("TRANSITIONS mode should include checks not written yet in the service history")
+    void shouldIncludePendingChecksInHistory() throws InterruptedException {
+        // ARRANGE
+        UUID serviceId = registerService();
+        HealthCheckWriteBuffer buffer = buffer(HistoryMode.TRANSITIONS, 60_000);
+        HealthCheckRepositoryImpl repository = new HealthCheckRepositoryImpl(
+                healthCheckResultJpaRepository, healthCheckResultMapper, buffer);
+        buffer.record(result(serviceId, ServiceStatus.UP, T0));
+        buffer.start();
+        await().atMost(Duration.ofSeconds(10)).until(() -> !history(serviceId).isEmpty());
+
+        buffer.record(result(serviceId, ServiceStatus.UP, T0.plusSeconds(1)));
+        buffer.record(result(serviceId, ServiceStatus.UP, T0.plusSeconds(2)));
+        await().atMost(Duration.ofSeconds(10)).until(() -> buffer.openRun(serviceId)
+                .map(HealthCheckResult::getCheckCount)
+                .orElse(0L) == 3);
+
+        // ACT
+        List<HealthCheckResult> timeline = repository.findHistoryByServiceIdSince(serviceId, T0);
+
+        // ASSERT
+        assertThat(history(serviceId)).containsExactly(new HistoryRow(ServiceStatus.UP, T0, 1, T0));
+        assertThat(timeline).singleElement().satisfies(run -> {
+            assertThat(run.getStatus()).isEqualTo(ServiceStatus.UP);
+            assertThat(run.getCheckCount()).isEqualTo(3L);
+            assertThat(run.getLastCheckedAt()).isEqualTo(T0.plusSeconds(2));
+        });
+
+        buffer.shutdown();
+        assertThat(history(serviceId)).containsExactly(new HistoryRow(ServiceStatus.UP, T0, 3, T0.plusSeconds(2)));
+    }
+
+    @Test
+    @DisplayName("TRANSITIONS mode should continue the run stored before a restart")
+    void shouldContinueStoredRunAfterRestart() throws InterruptedException {
+        // ARRANGE
+        UUID serviceId = registerService();
+        HealthCheckWriteBuffer beforeRestart = buffer(HistoryMode.TRANSITIONS, 60_000);
+        beforeRestart.record(result(serviceId, ServiceStatus.UP, T0));
+        beforeRestart.record(result(serviceId, ServiceStatus.UP, T0.plusSeconds(1)));
+        flush(beforeRestart);
+
+        HealthCheckWriteBuffer afterRestart = buffer(HistoryMode.TRANSITIONS, 60_000);
+        afterRestart.record(result(serviceId, ServiceStatus.UP, T0.plusSeconds(2)));
+        afterRestart.record(result(serviceId, ServiceStatus.DOWN, T0.plusSeconds(3)));
+
+        // ACT
+        flush(afterRestart);
+
+        // ASSERT
+        assertThat(history(serviceId)).containsExactly(
+                new HistoryRow(ServiceStatus.UP, T0, 3, T0.plusSeconds(2)),
+                new HistoryRow(ServiceStatus.DOWN, T0.plusSeconds(3), 1, T0.plusSeconds(3)));
+        assertService(serviceId, ServiceStatus.DOWN, T0.plusSeconds(3));
+    }
+
+    @Test
+    @DisplayName("History should merge per-check rows written before TRANSITIONS mode into runs")
+    void shouldMergeLegacyRowsIntoRuns() throws InterruptedException {
+        // ARRANGE
+        UUID serviceId = registerService();
+        insertLegacyRow(serviceId, ServiceStatus.UP, T0);
+        insertLegacyRow(serviceId, ServiceStatus.UP, T0.plusSeconds(1));
+        insertLegacyRow(serviceId, ServiceStatus.DOWN, T0.plusSeconds(2));
+        insertLegacyRow(serviceId, ServiceStatus.DOWN, T0.plusSeconds(3));
+
+        // The latest legacy row is the open run, so the next DOWN check extends it
+        HealthCheckWriteBuffer buffer = buffer(HistoryMode.TRANSITIONS, 60_000);
+        buffer.record(result(serviceId, ServiceStatus.DOWN, T0.plusSeconds(4)));
+        buffer.record(result(serviceId, ServiceStatus.UP, T0.plusSeconds(5)));
+        flush(buffer);
+        HealthCheckRepositoryImpl repository = new HealthCheckRepositoryImpl(
+                healthCheckResultJpaRepository, healthCheckResultMapper, buffer);
+
+        // ACT
+        List<HealthCheckResult> timeline = repository.findHistoryByServiceIdSince(serviceId, T0);
+
+        // ASSERT
+        assertThat(timeline)
+                .extracting(run -> new HistoryRow(run.getStatus(), run.getTimestamp(), run.getCheckCount(), run.getLastCheckedAt()))
+                .containsExactly(
+                        new HistoryRow(ServiceStatus.UP, T0, 2, T0.plusSeconds(1)),
+                        new HistoryRow(ServiceStatus.DOWN, T0.plusSeconds(2), 3, T0.plusSeconds(4)),
+                        new HistoryRow(ServiceStatus.UP, T0.plusSeconds(5), 1, T0.plusSeconds(5)));
+    }
+
+    private HealthCheckWriteBuffer buffer(HistoryMode historyMode, long counterFlushIntervalMillis) {
+        HealthCheckWriteBuffer buffer = new HealthCheckWriteBuffer(jdbcTemplate, transactionTemplate, historyMode,
+                1000, 500, 100, counterFlushIntervalMillis);
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    private static void flush(HealthCheckWriteBuffer buffer) throws InterruptedException {
+        buffer.start();
+        buffer.shutdown();
+    }
+
+    // Plain SQL: mapping the JSON scenario column through JPA needs Jackson, which this module lacks
+    private UUID registerService() {
+        UUID serviceId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO monitored_services (id, name, health_check_scenario) VALUES (?, ?, ?::jsonb)",
+                serviceId, "service-" + serviceId, "{}");
+        return serviceId;
+    }
+
+    private static HealthCheckResult result(UUID serviceId, ServiceStatus status, Instant timestamp) {
+        HealthCheckResult result = new HealthCheckResult();
+        result.setServiceId(serviceId);
+        result.setStatus(status);
+        result.setTimestamp(timestamp);
+        return result;
+    }
+
+    private void insertLegacyRow(UUID serviceId, ServiceStatus status, Instant timestamp) {
+        jdbcTemplate.update("""
+                        INSERT INTO health_check_results (id, service_id, timestamp, status, last_checked_at, check_count)
+                        VALUES (?, ?, ?, ?, ?, 1)""",
+                UUID.randomUUID(), serviceId, Timestamp.from(timestamp), status.name(), Timestamp.from(timestamp));
+    }
+
+    private List<HistoryRow> history(UUID serviceId) {
+        return jdbcTemplate.query("""
+                        SELECT status, timestamp, check_count, last_checked_at
+                        FROM health_check_results
+                        WHERE service_id = ?
+                        ORDER BY timestamp""",
+                (rs, rowNum) -> new HistoryRow(
+                        ServiceStatus.valueOf(rs.getString("status")),
+                        rs.getTimestamp("timestamp").toInstant(),
+                        rs.getLong("check_count"),
+                        rs.getTimestamp("last_checked_at").toInstant()),
+                serviceId);
+    }
+
+    private void assertService(UUID serviceId, ServiceStatus status, Instant lastCheckedAt) {
+        ServiceRow service = jdbcTemplate.queryForObject(
+                "SELECT status, last_checked_at FROM monitored_services WHERE id = ?",
+                (rs, rowNum) -> new ServiceRow(
+                        ServiceStatus.valueOf(rs.getString("status")),
+                        rs.getTimestamp("last_checked_at").toInstant()),
+                serviceId);
+        assertThat(service).isEqualTo(new ServiceRow(status, lastCheckedAt));
+    }
+
+    private record HistoryRow(ServiceStatus status, Instant startedAt, long checkCount, Instant lastCheckedAt) {
+    }
+
+    private record ServiceRow(ServiceStatus status, Instant lastCheckedAt) {
+    }
+
+}
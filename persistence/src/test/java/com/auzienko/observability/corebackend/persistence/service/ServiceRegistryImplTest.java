@@ -1,5 +1,6 @@
 package com.auzienko.observability.corebackend.persistence.service;
 
+import com.auzienko.observability.corebackend.domain.event.MonitoredServiceChangedEvent;
 import com.auzienko.observability.corebackend.domain.model.MonitoredService;
 import com.auzienko.observability.corebackend.domain.repository.MonitoredServiceRepository;
 import org.junit.jupiter.api.DisplayName;
@@ -8,6 +9,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.UUID;
 
@@ -22,6 +24,9 @@ class ServiceRegistryImplTest {
     @Mock
     private MonitoredServiceRepository monitoredServiceRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ServiceRegistryImpl serviceRegistry;
 
@@ -47,6 +52,7 @@ class ServiceRegistryImplTest {
         assertThat(registeredService.getName()).isEqualTo("New Test Service");
 
         verify(monitoredServiceRepository).save(newService);
+        verify(eventPublisher).publishEvent(MonitoredServiceChangedEvent.registered(registeredService));
     }
 
     @Test
@@ -60,6 +66,7 @@ class ServiceRegistryImplTest {
 
         // ASSERT
         verify(monitoredServiceRepository).deleteById(serviceId);
+        verify(eventPublisher).publishEvent(MonitoredServiceChangedEvent.unregistered(serviceId));
     }
 
 }
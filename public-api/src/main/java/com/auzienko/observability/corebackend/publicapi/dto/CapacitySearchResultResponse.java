@@ -0,0 +1,35 @@
+package com.auzienko.observability.corebackend.publicapi.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class CapacitySearchResultResponse {
+
+    private UUID id;
+    private UUID serviceId;
+    private Instant executedAt;
+    private double maxIterationsPerSecond;
+    private double maxRequestsPerSecond;
+    private long p99ResponseTimeMs;
+    private double errorRatePercent;
+    private long maxP99ResponseTimeMs;
+    private double maxErrorRatePercent;
+    private boolean searchLimitReached;
+    private List<Probe> probes;
+
+    @Data
+    public static class Probe {
+
+        private double targetIterationsPerSecond;
+        private double achievedIterationsPerSecond;
+        private long p99ResponseTimeMs;
+        private double errorRatePercent;
+        private boolean passed;
+
+    }
+
+}
@@ -13,5 +13,7 @@ public class HealthCheckResponse {
     private Instant timestamp;
     private String status;
     private String errorMessage;
+    private Instant lastCheckedAt;
+    private Long checkCount;
 
 }
@@ -17,5 +17,7 @@ public class LoadTestResultResponse {
     private long p95ResponseTimeMs;
     private long p99ResponseTimeMs;
     private double requestsPerSecond;
+    private String status;
+    private String abortReason;
 
 }
@@ -0,0 +1,21 @@
+package com.auzienko.observability.corebackend.publicapi.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+public class LoadTestRunResponse {
+
+    private UUID runId;
+    private UUID serviceId;
+    private String state;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long totalRequests;
+    private long failedRequests;
+    private UUID resultId;
+    private String abortReason;
+
+}
@@ -13,5 +13,6 @@ public class MonitoredServiceResponse {
     private String status;
     private Instant lastCheckedAt;
     private String healthCheckScenario;
+    private Integer pollingIntervalSeconds;
 
 }
@@ -0,0 +1,13 @@
+package com.auzienko.observability.corebackend.publicapi.dto;
+
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+public class SpooledTestResponse {
+
+    private UUID spoolId;
+    private UUID serviceId;
+
+}
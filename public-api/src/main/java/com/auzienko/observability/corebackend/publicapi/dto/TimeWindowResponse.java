@@ -0,0 +1,21 @@
+package com.auzienko.observability.corebackend.publicapi.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+public class TimeWindowResponse {
+
+    private Instant windowStart;
+    private long requestsPerSecond;
+    private long failedRequests;
+    private Map<String, Long> errorsByType;
+    private long avgResponseTimeMs;
+    private long p50ResponseTimeMs;
+    private long p95ResponseTimeMs;
+    private long p99ResponseTimeMs;
+    private long maxResponseTimeMs;
+
+}